@@ -27,6 +27,8 @@ import static com.oracle.truffle.r.ffi.impl.common.RFFIUtils.traceDownCallReturn
 import static com.oracle.truffle.r.ffi.impl.common.RFFIUtils.traceEnabled;
 
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
@@ -109,14 +111,15 @@ public class TruffleNFI_Call implements CallRFFI {
                         @Cached("args.length") int cachedArgsLength,
                         @Cached("create(cachedArgsLength)") FFIWrapNode[] ffiWrapNodes,
                         @Cached("create()") FFIUnwrapNode unwrap,
-                        @Cached("createExecute()") Node executeNode) {
+                        @Cached("createExecute()") Node executeNode,
+                        @Cached("getFunction(cachedArgsLength)") TruffleObject cachedFunction) {
             Object result = null;
             Object[] realArgs = new Object[cachedArgsLength + 1];
             boolean isNullSetting = prepareCall(nativeCallInfo.name, args, ffiWrapNodes);
             try {
                 System.arraycopy(args, 0, realArgs, 1, cachedArgsLength);
                 realArgs[0] = nativeCallInfo.address.asTruffleObject();
-                result = ForeignAccess.sendExecute(executeNode, getFunction(cachedArgsLength), realArgs);
+                result = ForeignAccess.sendExecute(executeNode, cachedFunction, realArgs);
                 return unwrap.execute(result);
             } catch (InteropException ex) {
                 throw RInternalError.shouldNotReachHere(ex);
@@ -139,6 +142,8 @@ public class TruffleNFI_Call implements CallRFFI {
         @Child private Node execute1Node = Message.EXECUTE.createNode();
         @Children private final FFIWrapNode[] ffiWrapNodes0 = FFIWrapNode.create(0);
         @Children private final FFIWrapNode[] ffiWrapNodes1 = FFIWrapNode.create(1);
+        @CompilationFinal private TruffleObject callVoid0Function;
+        @CompilationFinal private TruffleObject callVoid1Function;
 
         @Override
         public void execute(NativeCallInfo nativeCallInfo, Object[] args) {
@@ -147,12 +152,18 @@ public class TruffleNFI_Call implements CallRFFI {
                 switch (args.length) {
                     case 0:
                         isNullSetting = prepareCall(nativeCallInfo.name, args, ffiWrapNodes0);
-                        TruffleObject callVoid0Function = getFunction("dot_call_void0", CallVoid0Sig);
+                        if (callVoid0Function == null) {
+                            CompilerDirectives.transferToInterpreterAndInvalidate();
+                            callVoid0Function = getFunction("dot_call_void0", CallVoid0Sig);
+                        }
                         ForeignAccess.sendExecute(execute0Node, callVoid0Function, nativeCallInfo.address.asTruffleObject());
                         break;
                     case 1:
                         isNullSetting = prepareCall(nativeCallInfo.name, args, ffiWrapNodes1);
-                        TruffleObject callVoid1Function = getFunction("dot_call_void1", CallVoid1Sig);
+                        if (callVoid1Function == null) {
+                            CompilerDirectives.transferToInterpreterAndInvalidate();
+                            callVoid1Function = getFunction("dot_call_void1", CallVoid1Sig);
+                        }
                         ForeignAccess.sendExecute(execute1Node, callVoid1Function, nativeCallInfo.address.asTruffleObject(), args[0]);
                         break;
                     default:
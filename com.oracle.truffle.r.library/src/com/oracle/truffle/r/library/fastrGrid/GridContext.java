@@ -166,7 +166,7 @@ public final class GridContext {
             setCurrentDevice(defaultDev, WindowDevice.createWindowDevice(false, GridDevice.DEFAULT_WIDTH, GridDevice.DEFAULT_HEIGHT));
         } else if (defaultDev.equals("svg")) {
             String filename = "Rplot%03d.svg";
-            SVGDevice svgDevice = new SVGDevice(FileDevUtils.formatInitialFilename(filename), GridDevice.DEFAULT_WIDTH, GridDevice.DEFAULT_HEIGHT);
+            SVGDevice svgDevice = new SVGDevice(FileDevUtils.formatInitialFilename(filename), GridDevice.DEFAULT_WIDTH, GridDevice.DEFAULT_HEIGHT, FileDevUtils.isSVGStreaming(filename));
             setCurrentDevice(defaultDev, svgDevice, filename);
         } else if (defaultDev.equals("png")) {
             safeOpenImageDev("Rplot%03d.png", "png");
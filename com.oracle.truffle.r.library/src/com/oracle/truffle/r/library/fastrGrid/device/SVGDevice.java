@@ -26,44 +26,74 @@ import static com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GRID_
 import static com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.INCH_TO_POINTS_FACTOR;
 import static java.lang.Math.round;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
 
 import com.oracle.truffle.r.library.fastrGrid.GridColorUtils;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridFontStyle;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridLineEnd;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridLineJoin;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.Utils;
 
+/**
+ * The SVG device keeps the whole document in memory and writes it into the file when the page is
+ * finished, which allows to retrieve the SVG code via {@link #getContents()}. In the streaming mode,
+ * the document is written into the file while it is being drawn and only the last few elements are
+ * kept in memory, so that plots with many elements do not exhaust the heap. Files with the
+ * {@code .svgz} extension are compressed with gzip.
+ */
 public class SVGDevice implements GridDevice, FileGridDevice {
     private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.000");
     private static final double COORD_FACTOR = INCH_TO_POINTS_FACTOR;
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
 
     private final StringBuilder data = new StringBuilder(1024);
     private String filename;
     private final double width;
     private final double height;
+    private final boolean streaming;
+
+    /**
+     * The file of the current page in the streaming mode, {@code null} if the output is discarded.
+     */
+    private Writer out;
+    private char[] chunk;
+    private boolean pageOpened;
 
     private DrawingContext cachedCtx;
 
-    public SVGDevice(String filename, double width, double height) {
+    public SVGDevice(String filename, double width, double height, boolean streaming) {
         this.filename = filename;
         this.width = width;
         this.height = height;
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
     }
 
     public String closeAndGetContents() {
+        assert !streaming;
         closeSVGDocument(data);
         return data.toString();
     }
 
     public String getContents() {
+        assert !streaming;
         StringBuilder result = new StringBuilder(data);
         closeSVGDocument(result);
         return result.toString();
@@ -72,9 +102,13 @@ public class SVGDevice implements GridDevice, FileGridDevice {
     @Override
     public void openNewPage() {
         // We stay compatible with GnuR: opening new page wipes out what has been drawn without
-        // saving it anywhere.
+        // saving it anywhere. In the streaming mode, re-opening the file truncates it.
         data.setLength(0);
         cachedCtx = null;
+        if (streaming) {
+            openStream();
+            pageOpened = true;
+        }
         data.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
         data.append("<!DOCTYPE svg PUBLIC \"-//W3C//DTD SVG 1.1//EN\" \"http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd\">\n");
         append("<svg xmlns='http://www.w3.org/2000/svg' xmlns:xlink='http://www.w3.org/1999/xlink' version='1.1' viewBox='0 0 %d %d' style='fill:transparent'>\n",
@@ -104,6 +138,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         }
         appendColorStyle(ctx);
         data.append("/>\n"); // end of 'rect' tag
+        flushIfNeeded();
     }
 
     @Override
@@ -122,6 +157,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append("<circle cx='").append(trRound(centerX)).append("' cy='").append(trRound(transY(centerY))).append("' r='").append(trRound(radius)).append('\'');
         appendColorStyle(ctx);
         data.append("/>\n");
+        flushIfNeeded();
     }
 
     @Override
@@ -131,6 +167,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append("<image x='").append(round(leftX * COORD_FACTOR)).append("' y='").append(trRound(transY(bottomY + h)));
         data.append("' width='").append(round(w * COORD_FACTOR)).append("' height='").append(trRound(h));
         data.append("' preserveAspectRatio='none' xlink:href='data:image/bmp;base64,").append(base64).append("'/>\n");
+        flushIfNeeded();
     }
 
     @Override
@@ -145,6 +182,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append('>');
         xmlEncodeAppend(data, text);
         data.append("</text>\n");
+        flushIfNeeded();
     }
 
     @Override
@@ -212,9 +250,14 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append('\'');
         appendColorStyle(ctx, noFill);
         data.append("/>\n");
+        flushIfNeeded();
     }
 
     private void saveFile() throws DeviceCloseException {
+        if (streaming) {
+            finishStream();
+            return;
+        }
         closeSVGDocument(data);
         try {
             if (Paths.get(filename).equals(Paths.get("/dev/null"))) {
@@ -226,8 +269,88 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         }
     }
 
+    private void openStream() {
+        try {
+            closeStream();
+            if (Paths.get(filename).equals(Paths.get("/dev/null"))) {
+                return;
+            }
+            OutputStream stream = new BufferedOutputStream(Files.newOutputStream(Paths.get(filename)));
+            if (filename.endsWith(".svgz")) {
+                stream = new GZIPOutputStream(stream);
+            }
+            out = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw RError.error(RError.NO_CALLER, Message.GENERIC, "Cannot open file '" + filename + "' for the SVG device. Details: " + e.getMessage());
+        }
+    }
+
+    private void flushIfNeeded() {
+        if (streaming && data.length() >= FLUSH_THRESHOLD) {
+            try {
+                writeData();
+            } catch (IOException e) {
+                // the rest of the page is discarded, the file must not stay open until the device
+                // is closed
+                closeStreamQuietly();
+                throw RError.error(RError.NO_CALLER, Message.GENERIC, "Cannot write to file '" + filename + "' of the SVG device. Details: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Moves the buffered part of the document into the file of the current page.
+     */
+    private void writeData() throws IOException {
+        if (out != null) {
+            if (chunk == null) {
+                chunk = new char[FLUSH_THRESHOLD];
+            }
+            int length = data.length();
+            for (int start = 0; start < length; start += chunk.length) {
+                int end = Math.min(length, start + chunk.length);
+                data.getChars(start, end, chunk, 0);
+                out.write(chunk, 0, end - start);
+            }
+        }
+        data.setLength(0);
+    }
+
+    private void finishStream() throws DeviceCloseException {
+        if (!pageOpened) {
+            return;
+        }
+        pageOpened = false;
+        closeSVGDocument(data);
+        cachedCtx = null;
+        data.append(System.lineSeparator());
+        try {
+            writeData();
+            closeStream();
+        } catch (IOException e) {
+            closeStreamQuietly();
+            throw new DeviceCloseException(e);
+        }
+    }
+
+    private void closeStream() throws IOException {
+        if (out != null) {
+            Writer toClose = out;
+            out = null;
+            toClose.close();
+        }
+    }
+
+    private void closeStreamQuietly() {
+        try {
+            closeStream();
+        } catch (IOException e) {
+            // the original error is reported
+        }
+    }
+
     private void closeSVGDocument(StringBuilder sb) {
-        if (sb.length() == 0) {
+        if (sb.length() == 0 && !streaming) {
             return;
         }
         if (cachedCtx != null) {
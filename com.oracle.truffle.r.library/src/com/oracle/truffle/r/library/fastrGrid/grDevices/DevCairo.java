@@ -56,7 +56,8 @@ public class DevCairo extends RExternalBuiltinNode {
             throw error(Message.INVALID_ARG_TYPE);
         }
 
-        GridContext.getContext().setCurrentDevice("svg", new SVGDevice(FileDevUtils.formatInitialFilename(filename), witdh / 72., height / 72.), filename);
+        SVGDevice svgDevice = new SVGDevice(FileDevUtils.formatInitialFilename(filename), witdh / 72., height / 72., FileDevUtils.isSVGStreaming(filename));
+        GridContext.getContext().setCurrentDevice("svg", svgDevice, filename);
         return RNull.instance;
     }
 }
@@ -70,6 +70,16 @@ public abstract class DevOff extends RExternalBuiltinNode.Arg1 {
 
     private String closeSvgDevice(RContext rCtx, GridContext ctx, int which) {
         GridDevice dev = ctx.getDevice(which);
+        if (dev instanceof SVGDevice && ((SVGDevice) dev).isStreaming()) {
+            // the contents have been written into the file already, so just finish the file
+            try {
+                ctx.closeDevice(rCtx, which);
+            } catch (DeviceCloseException e) {
+                throw error(Message.GENERIC, "Cannot close the device. Details: " + e.getMessage());
+            }
+            warning(Message.GENERIC, "The SVG device writes directly into the file, its contents are not available.");
+            return "";
+        }
         ctx.removeDevice(rCtx, which);
         if ((dev instanceof SVGDevice)) {
             return ((SVGDevice) dev).closeAndGetContents();
@@ -23,6 +23,9 @@
 package com.oracle.truffle.r.library.fastrGrid.grDevices;
 
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
 
 public class FileDevUtils {
     public static String formatInitialFilename(String filename) {
@@ -35,4 +38,25 @@ public class FileDevUtils {
         assert pageIndex >= 1;
         return String.format(filename, pageIndex);
     }
+
+    /**
+     * The SVG device streams its output into the file when the file is to be compressed, i.e. has
+     * the {@code .svgz} extension, or when the option {@code fastr.svg.streaming} is {@code TRUE}.
+     */
+    public static boolean isSVGStreaming(String filename) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (filename.endsWith(".svgz")) {
+            return true;
+        }
+        // anything other than a logical TRUE, including an empty vector, means no streaming
+        Object option = RContext.getInstance().stateROptions.getValue("fastr.svg.streaming");
+        if (option instanceof Byte) {
+            return RRuntime.fromLogical((byte) option);
+        }
+        if (option instanceof RAbstractLogicalVector) {
+            RAbstractLogicalVector vector = (RAbstractLogicalVector) option;
+            return vector.getLength() > 0 && RRuntime.fromLogical(vector.getDataAt(0));
+        }
+        return false;
+    }
 }
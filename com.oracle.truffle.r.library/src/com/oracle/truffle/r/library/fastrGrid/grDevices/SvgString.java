@@ -43,6 +43,9 @@ public class SvgString extends RExternalBuiltinNode.Arg0 {
         if (!(dev instanceof SVGDevice)) {
             throw error(Message.GENERIC, "No SVG device opened, use svg() to open one.");
         }
+        if (((SVGDevice) dev).isStreaming()) {
+            throw error(Message.GENERIC, "The SVG device writes directly into the file, its contents are not available.");
+        }
         return ((SVGDevice) dev).getContents();
     }
 }
@@ -22,10 +22,23 @@
  */
 package com.oracle.truffle.r.library.parallel;
 
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.gt0;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.gte0;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
+import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RNull;
 
 /**
  * The .Call support for the parallel package.
@@ -37,4 +50,177 @@ public class ParallelFunctions {
             return RRuntime.asLogical(RContext.getInstance().getParent() != null);
         }
     }
+
+    /**
+     * Distributes the indices {@code [0, n)} among a fixed number of workers. Every worker starts
+     * with a contiguous block of the indices and takes chunks from its front, the chunk size
+     * decreasing with the remaining size of the block. A worker whose block is exhausted steals the
+     * back half of the largest remaining block of another worker, so a few expensive elements do
+     * not hold up the whole computation. The state of each block is a single {@code long} (start in
+     * the upper, end in the lower half) so that the owner and the thieves can update it with CAS.
+     *
+     * The workers are the child contexts of a {@code SHARED} cluster, a schedule is therefore
+     * process-wide and identified by an integer handle (see {@code mclapply_overrides.R}). Which
+     * worker computes which element is not deterministic, so {@code mclapply} seeds each element
+     * with its own RNG stream when {@code mc.set.seed = TRUE}.
+     */
+    static final class WorkStealingSchedule {
+        /**
+         * A worker takes 1/CHUNK_DIVISOR of its remaining block at a time.
+         */
+        private static final int CHUNK_DIVISOR = 8;
+
+        private static final Map<Integer, WorkStealingSchedule> schedules = new ConcurrentHashMap<>();
+        private static final AtomicInteger nextId = new AtomicInteger();
+
+        private final AtomicLongArray blocks;
+
+        WorkStealingSchedule(int n, int workers) {
+            blocks = new AtomicLongArray(workers);
+            for (int i = 0; i < workers; i++) {
+                blocks.set(i, pack((int) ((long) n * i / workers), (int) ((long) n * (i + 1) / workers)));
+            }
+        }
+
+        private static long pack(int start, int end) {
+            return ((long) start << 32) | (end & 0xFFFFFFFFL);
+        }
+
+        private static int start(long block) {
+            return (int) (block >>> 32);
+        }
+
+        private static int end(long block) {
+            return (int) block;
+        }
+
+        /**
+         * Returns the next chunk of the given worker as {@code [start, end)} packed into a long, or
+         * {@code -1} if all the indices have been handed out.
+         */
+        long next(int worker) {
+            while (true) {
+                long own = blocks.get(worker);
+                int start = start(own);
+                int end = end(own);
+                if (start < end) {
+                    int chunk = Math.max(1, (end - start) / CHUNK_DIVISOR);
+                    if (blocks.compareAndSet(worker, own, pack(start + chunk, end))) {
+                        return pack(start, start + chunk);
+                    }
+                    continue;
+                }
+                if (!steal(worker)) {
+                    return -1;
+                }
+            }
+        }
+
+        private boolean steal(int thief) {
+            while (true) {
+                int victim = -1;
+                int largest = 0;
+                for (int i = 0; i < blocks.length(); i++) {
+                    long block = blocks.get(i);
+                    int remaining = end(block) - start(block);
+                    if (i != thief && remaining > largest) {
+                        victim = i;
+                        largest = remaining;
+                    }
+                }
+                if (victim == -1) {
+                    return false;
+                }
+                long block = blocks.get(victim);
+                int start = start(block);
+                int end = end(block);
+                if (start >= end) {
+                    continue;
+                }
+                // the victim keeps the front half, the block of the thief is empty and therefore
+                // cannot be stolen from or taken from concurrently
+                int middle = start + (end - start) / 2;
+                if (blocks.compareAndSet(victim, block, pack(start, middle))) {
+                    blocks.set(thief, pack(middle, end));
+                    return true;
+                }
+            }
+        }
+
+        static int create(int n, int workers) {
+            int id = nextId.incrementAndGet();
+            schedules.put(id, new WorkStealingSchedule(n, workers));
+            return id;
+        }
+
+        static WorkStealingSchedule get(int id) {
+            return schedules.get(id);
+        }
+
+        static void free(int id) {
+            schedules.remove(id);
+        }
+    }
+
+    /**
+     * {@code .Call(C_mc_schedule_create, n, workers)}: creates a {@link WorkStealingSchedule} for
+     * {@code n} elements and returns its handle.
+     */
+    public abstract static class MCScheduleCreate extends RExternalBuiltinNode.Arg2 {
+        static {
+            Casts casts = new Casts(MCScheduleCreate.class);
+            casts.arg(0).asIntegerVector().findFirst().mustNotBeNA().mustBe(gte0());
+            casts.arg(1).asIntegerVector().findFirst().mustNotBeNA().mustBe(gt0());
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected int create(int n, int workers) {
+            return WorkStealingSchedule.create(n, workers);
+        }
+    }
+
+    /**
+     * {@code .Call(C_mc_schedule_next, handle, worker)}: returns the next chunk of elements for the
+     * given (1-based) worker as the 1-based inclusive range {@code c(from, to)}, or an empty vector
+     * if there is no work left.
+     */
+    public abstract static class MCScheduleNext extends RExternalBuiltinNode.Arg2 {
+        static {
+            Casts casts = new Casts(MCScheduleNext.class);
+            casts.arg(0).asIntegerVector().findFirst().mustNotBeNA();
+            casts.arg(1).asIntegerVector().findFirst().mustNotBeNA().mustBe(gt0());
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RIntVector next(int handle, int worker) {
+            WorkStealingSchedule schedule = WorkStealingSchedule.get(handle);
+            if (schedule == null || worker > schedule.blocks.length()) {
+                throw error(RError.Message.GENERIC, "invalid schedule");
+            }
+            long chunk = schedule.next(worker - 1);
+            if (chunk == -1) {
+                return RDataFactory.createEmptyIntVector();
+            }
+            return RDataFactory.createIntVector(new int[]{WorkStealingSchedule.start(chunk) + 1, WorkStealingSchedule.end(chunk)}, RDataFactory.COMPLETE_VECTOR);
+        }
+    }
+
+    /**
+     * {@code .Call(C_mc_schedule_free, handle)}.
+     */
+    public abstract static class MCScheduleFree extends RExternalBuiltinNode.Arg1 {
+        static {
+            Casts casts = new Casts(MCScheduleFree.class);
+            casts.arg(0).asIntegerVector().findFirst().mustNotBeNA();
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RNull free(int handle) {
+            WorkStealingSchedule.free(handle);
+            return RNull.instance;
+        }
+    }
 }
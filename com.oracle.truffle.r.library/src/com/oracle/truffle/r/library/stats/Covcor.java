@@ -22,6 +22,8 @@ package com.oracle.truffle.r.library.stats;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.nullValue;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
 
+import java.util.stream.IntStream;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -73,6 +75,85 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
         return Double.isNaN(v);
     }
 
+    /*
+     * The pairs of columns are processed in tiles of PAIR_TILE x PAIR_TILE columns (so that the
+     * columns of a tile are reused from the cache), on the common fork-join pool if n * ncx * ncx
+     * is at least PARALLEL_WORK.
+     */
+    private static final long PARALLEL_WORK = 1L << 22;
+    private static final int PAIR_TILE = 32;
+
+    @FunctionalInterface
+    private interface PairAction {
+        void apply(int i, int j);
+    }
+
+    /**
+     * Calls {@code action} for all pairs of columns {@code 0 <= j <= i < ncx}. The actions must only
+     * write the result elements of their pair.
+     */
+    private static void forEachPair(int n, int ncx, PairAction action) {
+        int tiles = (ncx + PAIR_TILE - 1) / PAIR_TILE;
+        IntStream stream = IntStream.range(0, tiles * (tiles + 1) / 2);
+        if ((long) n * ncx * ncx >= PARALLEL_WORK) {
+            stream = stream.parallel();
+        }
+        stream.forEach(t -> {
+            // t enumerates the tiles in the lower triangle row by row
+            int ti = (int) ((Math.sqrt(8.0 * t + 1) - 1) / 2);
+            while (ti * (ti + 1) / 2 > t) {
+                ti--;
+            }
+            while ((ti + 1) * (ti + 2) / 2 <= t) {
+                ti++;
+            }
+            int tj = t - ti * (ti + 1) / 2;
+            int iEnd = Math.min(ncx, (ti + 1) * PAIR_TILE);
+            for (int i = ti * PAIR_TILE; i < iEnd; i++) {
+                int jEnd = Math.min(i + 1, (tj + 1) * PAIR_TILE);
+                for (int j = tj * PAIR_TILE; j < jEnd; j++) {
+                    action.apply(i, j);
+                }
+            }
+        });
+    }
+
+    /**
+     * Sum of {@code (x[xx + k] - xxm) * (x[yy + k] - yym)} over all {@code k < n}, i.e. an element
+     * of the crossproduct of the centered columns, with independent partial sums.
+     */
+    private static double centeredProduct(double[] x, int xx, double xxm, int yy, double yym, int n) {
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+        int k = 0;
+        for (; k <= n - 4; k += 4) {
+            sum0 += (x[xx + k] - xxm) * (x[yy + k] - yym);
+            sum1 += (x[xx + k + 1] - xxm) * (x[yy + k + 1] - yym);
+            sum2 += (x[xx + k + 2] - xxm) * (x[yy + k + 2] - yym);
+            sum3 += (x[xx + k + 3] - xxm) * (x[yy + k + 3] - yym);
+        }
+        for (; k < n; k++) {
+            sum0 += (x[xx + k] - xxm) * (x[yy + k] - yym);
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    private static double kendallSum(double[] x, int xx, int yy, int n, boolean[] ind) {
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            if (ind == null || ind[k]) {
+                for (int n1 = 0; n1 < n; n1++) {
+                    if (ind == null || ind[n1]) {
+                        sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(x[yy + k] - x[yy + n1]);
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
     /*
      * Note that "if (kendall)" and "if (cor)" are used inside a double for() loop; which makes the
      * code better readable -- and is hopefully dealt with by a smartly optimizing compiler
@@ -161,16 +242,11 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
 
     @TruffleBoundary
     private static void cov_pairwise1(int n, int ncx, double[] x, double[] ans, boolean[] sd_0, boolean cor, boolean kendall) {
-        for (int i = 0; i < ncx; i++) {
-            int xx = i * n;
-            for (int j = 0; j <= i; j++) {
-                int yy = j * n;
+        forEachPair(n, ncx, (i, j) -> {
+            COV_PAIRWISE_BODY(ans, n, ncx, i, j, x, x, i * n, j * n, sd_0, cor, kendall);
 
-                COV_PAIRWISE_BODY(ans, n, ncx, i, j, x, x, xx, yy, sd_0, cor, kendall);
-
-                ANS(ans, ncx, j, i, ANS(ans, ncx, i, j));
-            }
-        }
+            ANS(ans, ncx, j, i, ANS(ans, ncx, i, j));
+        });
     }
 
     @TruffleBoundary
@@ -263,41 +339,36 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
             MEAN(n, ncx, x, xm, ind, nobs); /* -> xm[] */
             n1 = nobs - 1;
         }
-        for (int i = 0; i < ncx; i++) {
-            int xx = i * n;
-
-            if (!kendall) {
+        final int n1Final = n1;
+        if (!kendall && nobs == n) {
+            /* no incomplete observations: crossproduct of the centered columns */
+            forEachPair(n, ncx, (i, j) -> {
+                double result = centeredProduct(x, i * n, xm[i], j * n, xm[j], n) / n1Final;
+                ANS(ans, ncx, j, i, result);
+                ANS(ans, ncx, i, j, result);
+            });
+        } else if (!kendall) {
+            forEachPair(n, ncx, (i, j) -> {
+                int xx = i * n;
+                int yy = j * n;
                 double xxm = xm[i];
-                for (int j = 0; j <= i; j++) {
-                    int yy = j * n;
-                    double yym = xm[j];
-                    double sum = 0;
-                    for (int k = 0; k < n; k++) {
-                        if (ind[k]) {
-                            sum += (x[xx + k] - xxm) * (x[yy + k] - yym);
-                        }
-                    }
-                    double result = sum / n1;
-                    ANS(ans, ncx, j, i, result);
-                    ANS(ans, ncx, i, j, result);
-                }
-            } else { /* Kendall's tau */
-                for (int j = 0; j <= i; j++) {
-                    int yy = j * n;
-                    double sum = 0;
-                    for (int k = 0; k < n; k++) {
-                        if (ind[k]) {
-                            for (n1 = 0; n1 < n; n1++) {
-                                if (ind[n1]) {
-                                    sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(x[yy + k] - x[yy + n1]);
-                                }
-                            }
-                        }
+                double yym = xm[j];
+                double sum = 0;
+                for (int k = 0; k < n; k++) {
+                    if (ind[k]) {
+                        sum += (x[xx + k] - xxm) * (x[yy + k] - yym);
                     }
-                    ANS(ans, ncx, j, i, sum);
-                    ANS(ans, ncx, i, j, sum);
                 }
-            }
+                double result = sum / n1Final;
+                ANS(ans, ncx, j, i, result);
+                ANS(ans, ncx, i, j, result);
+            });
+        } else { /* Kendall's tau */
+            forEachPair(n, ncx, (i, j) -> {
+                double sum = kendallSum(x, i * n, j * n, n, ind);
+                ANS(ans, ncx, j, i, sum);
+                ANS(ans, ncx, i, j, sum);
+            });
         }
 
         if (cor) {
@@ -341,53 +412,19 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
             MEAN_(n, ncx, x, xm, has_na);/* -> xm[] */
             n1 = n - 1;
         }
-        for (int i = 0; i < ncx; i++) {
-            if (has_na[i]) {
-                for (int j = 0; j <= i; j++) {
-                    ANS(ans, ncx, j, i, RRuntime.DOUBLE_NA);
-                    ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
-                }
-            } else {
-                int xx = i * n;
-
-                if (!kendall) {
-                    double xxm = xm[i];
-                    for (int j = 0; j <= i; j++) {
-                        if (has_na[j]) {
-                            ANS(ans, ncx, j, i, RRuntime.DOUBLE_NA);
-                            ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
-                        } else {
-                            int yy = j * n;
-                            double yym = xm[j];
-                            double sum = 0;
-                            for (int k = 0; k < n; k++) {
-                                sum += (x[xx + k] - xxm) * (x[yy + k] - yym);
-                            }
-                            double result = sum / n1;
-                            ANS(ans, ncx, j, i, result);
-                            ANS(ans, ncx, i, j, result);
-                        }
-                    }
-                } else { /* Kendall's tau */
-                    for (int j = 0; j <= i; j++) {
-                        if (has_na[j]) {
-                            ANS(ans, ncx, j, i, RRuntime.DOUBLE_NA);
-                            ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
-                        } else {
-                            int yy = j * n;
-                            double sum = 0;
-                            for (int k = 0; k < n; k++) {
-                                for (n1 = 0; n1 < n; n1++) {
-                                    sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(x[yy + k] - x[yy + n1]);
-                                }
-                            }
-                            ANS(ans, ncx, j, i, sum);
-                            ANS(ans, ncx, i, j, sum);
-                        }
-                    }
-                }
+        final int n1Final = n1;
+        forEachPair(n, ncx, (i, j) -> {
+            double result;
+            if (has_na[i] || has_na[j]) {
+                result = RRuntime.DOUBLE_NA;
+            } else if (!kendall) {
+                result = centeredProduct(x, i * n, xm[i], j * n, xm[j], n) / n1Final;
+            } else { /* Kendall's tau */
+                result = kendallSum(x, i * n, j * n, n, null);
             }
-        }
+            ANS(ans, ncx, j, i, result);
+            ANS(ans, ncx, i, j, result);
+        });
 
         if (cor) {
             for (int i = 0; i < ncx; i++) {
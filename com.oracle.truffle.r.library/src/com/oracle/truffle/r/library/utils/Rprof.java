@@ -27,11 +27,13 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElemen
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.stringValue;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
 
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.function.Function;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -39,12 +41,15 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameInstance.FrameAccess;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
 import com.oracle.truffle.api.instrumentation.EventContext;
 import com.oracle.truffle.api.instrumentation.ExecutionEventListener;
 import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
 import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
 import com.oracle.truffle.r.nodes.function.FunctionDefinitionNode;
 import com.oracle.truffle.r.nodes.instrumentation.RInstrumentation;
@@ -78,11 +83,27 @@ import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
  * </pre>
  *
  * and then the {@code N} is used in line number references of the form {@code N#L},which precede
- * the function name.
+ * the function name. As in GNU R, a {@code #File} line is output before the first sample that
+ * refers to the file.
  *
+ * Truffle cannot walk the stack of another thread, so the timer thread only raises a flag and the
+ * stack is captured by the profiled thread when it next enters or leaves an R function. Only the
+ * function bodies ({@link StandardTags.RootTag}) are instrumented, not every statement, so the
+ * overhead between two samples is one check per function call. The price is that a sample is
+ * attributed to the function that was executing, and for line profiling to the start of its
+ * definition, when the flag is noticed rather than when it was raised. A sample is formatted right away
+ * and handed to the timer thread through a bounded queue, the timer thread writes it to the
+ * (buffered) profile file. Hence neither the stacks nor the AST nodes are retained until
+ * {@code Rprof(NULL)} and the profiled thread does no I/O.
  */
 public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryCopyTracer.Listener {
 
+    /**
+     * Maximum number of samples waiting to be written, any further samples are dropped.
+     */
+    private static final int MAX_PENDING_SAMPLES = 4096;
+    private static final int DEFAULT_BUFSIZE = 10000;
+
     static {
         Casts casts = new Casts(Rprof.class);
         casts.arg(0, "filename").mustBe(stringValue()).asStringVector().mustBe(singleElement()).findFirst();
@@ -98,7 +119,7 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
     @Specialization
     @TruffleBoundary
     public Object doRprof(String filename, boolean append, double intervalD, boolean memProfiling, boolean gcProfiling, boolean lineProfiling, @SuppressWarnings("unused") int numFiles,
-                    @SuppressWarnings("unused") int bufSize) {
+                    int bufSize) {
         RprofState profState = RprofState.get();
         if (filename.length() == 0) {
             // disable
@@ -109,7 +130,7 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                 endProfiling();
             }
             try {
-                PrintStream out = new PrintStream(new FileOutputStream(filename, append));
+                PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(filename, append), bufSize > 0 ? bufSize : DEFAULT_BUFSIZE));
                 if (gcProfiling) {
                     warning(RError.Message.GENERIC, "Rprof: gc profiling not supported");
                 }
@@ -119,12 +140,19 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                     MemoryCopyTracer.setTracingState(true);
                 }
                 // interval is in seconds, we convert to millis
-                long intervalInMillis = (long) (1E3 * intervalD);
-                StatementListener statementListener = new StatementListener();
-                ProfileThread profileThread = new ProfileThread(intervalInMillis, statementListener);
+                long intervalInMillis = Math.max(1, (long) (1E3 * intervalD));
+                if (memProfiling) {
+                    out.print("memory profiling: ");
+                }
+                if (lineProfiling) {
+                    out.print("line profiling: ");
+                }
+                out.printf("sample.interval=%d\n", intervalInMillis * 1000);
+                profState.initialize(out, lineProfiling, memProfiling);
+                SampleListener sampleListener = new SampleListener(profState);
+                ProfileThread profileThread = new ProfileThread(intervalInMillis, sampleListener, out);
                 profileThread.setDaemon(true);
-                profState.initialize(out, profileThread, statementListener, intervalInMillis, lineProfiling, memProfiling);
-                profileThread.start();
+                profState.start(profileThread, sampleListener);
             } catch (IOException ex) {
                 throw error(RError.Message.GENERIC, String.format("Rprof: cannot open profile file '%s'", filename));
             }
@@ -167,19 +195,21 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
         }
     }
 
-    private static String getPath(RSyntaxElement node) {
-        Source source = node.getSourceSection().getSource();
+    private static String getPath(SourceSection sourceSection) {
+        Source source = sourceSection.getSource();
         return RSource.getPath(source);
     }
 
     private static final class ProfileThread extends Thread {
         private final long interval;
-        private final StatementListener statementListener;
+        private final SampleListener sampleListener;
+        private final PrintStream out;
         private volatile boolean running = true;
 
-        private ProfileThread(long interval, StatementListener statementListener) {
+        private ProfileThread(long interval, SampleListener sampleListener, PrintStream out) {
             this.interval = interval;
-            this.statementListener = statementListener;
+            this.sampleListener = sampleListener;
+            this.out = out;
         }
 
         @Override
@@ -187,28 +217,51 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
             while (running) {
                 try {
                     Thread.sleep(interval);
-                    statementListener.intervalElapsed();
                 } catch (InterruptedException ex) {
-
+                    // stopped
                 }
+                sampleListener.intervalElapsed();
+                writeSamples();
+            }
+        }
+
+        private void writeSamples() {
+            String sample;
+            while ((sample = sampleListener.samples.poll()) != null) {
+                out.print(sample);
+            }
+        }
+
+        private void finish() {
+            running = false;
+            interrupt();
+            try {
+                join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
             }
+            writeSamples();
         }
     }
 
     /**
-     * Emulates a sampling timer by checking when the sample interval rolls over and at that point
-     * collects the stack of functions.
+     * Emulates a sampling timer by checking, on entry to and exit from R functions, whether the
+     * sample interval rolled over and at that point collects the stack of functions. The check is a
+     * single read of a volatile field, everything else happens at most once per interval.
      */
-    private final class StatementListener implements ExecutionEventListener {
-        private final ArrayList<ArrayList<RSyntaxElement>> intervalStacks = new ArrayList<>();
-        private final ArrayList<RprofState.MemoryQuad> intervalMemory = new ArrayList<>();
+    private static final class SampleListener implements ExecutionEventListener {
+        private final RContext context;
+        private final RprofState profState;
+        private final ArrayBlockingQueue<String> samples = new ArrayBlockingQueue<>(MAX_PENDING_SAMPLES);
+        /**
+         * Source files seen so far when line profiling, only accessed by the profiled thread.
+         */
+        private final HashMap<String, Integer> fileMap = new HashMap<>();
         private volatile boolean newInterval;
 
-        private StatementListener() {
-            SourceSectionFilter.Builder builder = SourceSectionFilter.newBuilder();
-            builder.tagIs(StandardTags.StatementTag.class);
-            SourceSectionFilter filter = builder.build();
-            RInstrumentation.getInstrumenter().attachExecutionEventListener(filter, this);
+        private SampleListener(RprofState profState) {
+            this.context = RContext.getInstance();
+            this.profState = profState;
         }
 
         private void intervalElapsed() {
@@ -216,28 +269,69 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
         }
 
         @Override
-        public void onEnter(EventContext context, VirtualFrame frame) {
+        public void onEnter(EventContext eventContext, VirtualFrame frame) {
             if (newInterval) {
-                onEnter(context);
-                newInterval = false;
+                sample(eventContext);
+            }
+        }
+
+        @Override
+        public void onReturnValue(EventContext eventContext, VirtualFrame frame, Object result) {
+            if (newInterval) {
+                sample(eventContext);
+            }
+        }
+
+        @Override
+        public void onReturnExceptional(EventContext eventContext, VirtualFrame frame, Throwable exception) {
+            if (newInterval) {
+                sample(eventContext);
             }
         }
 
         @TruffleBoundary
-        private void onEnter(EventContext context) {
-            /* context tells here we are now, frame provides callers. */
-            ArrayList<RSyntaxElement> stack = new ArrayList<>();
-            stack.add((RSyntaxElement) context.getInstrumentedNode());
+        private void sample(EventContext eventContext) {
+            if (RContext.getInstance() != context) {
+                // a statement of another context, which is not being profiled
+                return;
+            }
+            newInterval = false;
+            /* context tells the function we are in now, frames provide the call sites of callers. */
+            ArrayList<Node> stack = new ArrayList<>();
+            stack.add(eventContext.getInstrumentedNode());
             collectStack(stack);
-            intervalStacks.add(stack);
-            RprofState profState = RprofState.get();
+            StringBuilder files = new StringBuilder();
+            StringBuilder line = new StringBuilder();
             if (profState.memoryProfiling) {
-                intervalMemory.add(profState.memoryQuad.copyAndClear());
+                RprofState.MemoryQuad mq = profState.memoryQuad.copyAndClear();
+                line.append(':').append(mq.largeV).append(':').append(mq.smallV).append(':').append(mq.nodes).append(':').append(mq.copied).append(':');
+            }
+            for (Node node : stack) {
+                RootNode rootNode = node.getRootNode();
+                if (rootNode instanceof FunctionDefinitionNode) {
+                    SourceSection sourceSection = node.getSourceSection();
+                    if (profState.lineProfiling && sourceSection != null) {
+                        String path = getPath(sourceSection);
+                        if (path != null) {
+                            Integer fileIndex = fileMap.get(path);
+                            if (fileIndex == null) {
+                                fileIndex = fileMap.size() + 1;
+                                fileMap.put(path, fileIndex);
+                                files.append("#File ").append(fileIndex).append(": ").append(path).append('\n');
+                            }
+                            line.append(fileIndex).append('#').append(sourceSection.getStartLine()).append(' ');
+                        }
+                    }
+                    line.append('"').append(rootNode.getName()).append("\" ");
+                }
             }
+            line.append('\n');
+            // if the writer cannot keep up, the sample is lost
+            samples.offer(files.append(line).toString());
         }
 
         @TruffleBoundary
-        private void collectStack(final ArrayList<RSyntaxElement> stack) {
+        private static void collectStack(final ArrayList<Node> stack) {
             Utils.iterateRFrames(FrameAccess.READ_ONLY, new Function<Frame, Object>() {
 
                 @Override
@@ -248,20 +342,14 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                             call = call.getParent();
                         }
                         RSyntaxElement syntaxNode = call.getSyntaxNode();
-                        stack.add(syntaxNode);
+                        if (syntaxNode instanceof RSyntaxNode) {
+                            stack.add(((RSyntaxNode) syntaxNode).asRNode());
+                        }
                     }
                     return null;
                 }
             });
         }
-
-        @Override
-        public void onReturnValue(EventContext context, VirtualFrame frame, Object result) {
-        }
-
-        @Override
-        public void onReturnExceptional(EventContext context, VirtualFrame frame, Throwable exception) {
-        }
     }
 
     /**
@@ -270,8 +358,7 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
      */
     private static final class RprofState extends InstrumentationState.RprofState {
         private ProfileThread profileThread;
-        private StatementListener statementListener;
-        private long intervalInMillis;
+        private EventBinding<SampleListener> sampleBinding;
         private boolean lineProfiling;
         private boolean memoryProfiling;
         private MemoryQuad memoryQuad;
@@ -305,67 +392,30 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
             return state;
         }
 
-        public void initialize(PrintStream outA, ProfileThread profileThreadA, StatementListener statementListenerA, long intervalInMillisA,
-                        boolean lineProfilingA, boolean memoryProfilingA) {
+        public void initialize(PrintStream outA, boolean lineProfilingA, boolean memoryProfilingA) {
             setOut(outA);
-            this.profileThread = profileThreadA;
-            this.statementListener = statementListenerA;
-            this.intervalInMillis = intervalInMillisA;
             this.lineProfiling = lineProfilingA;
             this.memoryProfiling = memoryProfilingA;
             this.memoryQuad = memoryProfilingA ? new MemoryQuad() : null;
         }
 
+        public void start(ProfileThread profileThreadA, SampleListener sampleListener) {
+            SourceSectionFilter filter = SourceSectionFilter.newBuilder().tagIs(StandardTags.RootTag.class).build();
+            this.sampleBinding = RInstrumentation.getInstrumenter().attachExecutionEventListener(filter, sampleListener);
+            this.profileThread = profileThreadA;
+            profileThreadA.start();
+        }
+
         @Override
         public void cleanup(int status) {
-            profileThread.running = false;
-            HashMap<String, Integer> fileMap = null;
-            PrintStream out = this.out();
-            if (this.memoryProfiling) {
-                out.print("memory profiling: ");
-            }
-            if (this.lineProfiling) {
-                out.print("line profiling: ");
-            }
-            out.printf("sample.interval=%d\n", this.intervalInMillis * 1000);
-            if (this.lineProfiling) {
-                // scan stacks to find files
-                fileMap = new HashMap<>();
-                int fileIndex = 0;
-                for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
-                    for (RSyntaxElement node : intervalStack) {
-                        String path = getPath(node);
-                        if (path != null && fileMap.get(path) == null) {
-                            fileMap.put(path, ++fileIndex);
-                            out.printf("#File %d: %s\n", fileIndex, path);
-                        }
-                    }
-                }
-            }
-            int index = 0;
-            for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
-                if (this.memoryProfiling) {
-                    RprofState.MemoryQuad mq = statementListener.intervalMemory.get(index);
-                    out.printf(":%d:%d:%d:%d:", mq.largeV, mq.smallV, mq.nodes, mq.copied);
-                }
-                for (RSyntaxElement node : intervalStack) {
-                    RootNode rootNode = ((RSyntaxNode) node).asRNode().getRootNode();
-                    if (rootNode instanceof FunctionDefinitionNode) {
-                        String name = rootNode.getName();
-                        if (this.lineProfiling) {
-                            Integer fileIndex = fileMap.get(getPath(node));
-                            if (fileIndex != null) {
-                                out.printf("%d#%d ", fileIndex, node.getSourceSection().getStartLine());
-                            }
-                        }
-                        out.printf("\"%s\" ", name);
-                    }
-                }
-                out.println();
-                index++;
+            if (this.out() == null) {
+                return;
             }
-            out.close();
-            this.setOut(null);
+            sampleBinding.dispose();
+            sampleBinding = null;
+            profileThread.finish();
+            profileThread = null;
+            closeAndResetOut();
             if (this.memoryProfiling) {
                 RDataFactory.removeListener(LISTENER);
                 MemoryCopyTracer.setTracingState(false);
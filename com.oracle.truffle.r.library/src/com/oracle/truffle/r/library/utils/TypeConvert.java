@@ -35,13 +35,12 @@ import static com.oracle.truffle.r.runtime.RError.Message.INVALID_ARG;
 import static com.oracle.truffle.r.runtime.RRuntime.LOGICAL_FALSE;
 
 import java.util.Arrays;
-import java.util.Map;
-import java.util.TreeMap;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.nodes.attributes.SetFixedAttributeNode;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
@@ -201,33 +200,43 @@ public abstract class TypeConvert extends RExternalBuiltinNode.Arg5 {
         if (asIs) {
             return x;
         } else {
-            // collect levels for a factor result
-            TreeMap<String, Integer> levels = new TreeMap<>();
-            for (int j = 0; j < x.getLength(); j++) {
-                s = x.getDataAt(j);
-                if (!isNA(s, naStrings)) {
-                    levels.put(s, 0);
-                }
-            }
-            // assign levels IDs
-            int pos = 1;
-            for (Map.Entry<String, Integer> entry : levels.entrySet()) {
-                entry.setValue(pos++);
-            }
-
+            // number the distinct values in the order of appearance, in a single pass
+            NonRecursiveHashMapCharacter ids = new NonRecursiveHashMapCharacter(Math.min(x.getLength(), 1024));
+            String[] distinct = new String[16];
+            int distinctCount = 0;
             int[] data = new int[x.getLength()];
             boolean complete = true;
             for (int j = 0; j < data.length; j++) {
                 s = x.getDataAt(j);
                 if (!isNA(s, naStrings)) {
-                    data[j] = levels.get(s);
+                    int id = ids.putIfAbsent(s, distinctCount);
+                    if (id == -1) {
+                        if (distinctCount == distinct.length) {
+                            distinct = Arrays.copyOf(distinct, distinct.length * 2);
+                        }
+                        distinct[distinctCount] = s;
+                        id = distinctCount++;
+                    }
+                    data[j] = id;
                 } else {
                     data[j] = RRuntime.INT_NA;
                     complete = false;
                 }
             }
+            // the levels are the sorted distinct values, renumber the elements accordingly
+            String[] levels = Arrays.copyOf(distinct, distinctCount);
+            Arrays.sort(levels);
+            int[] levelOfId = new int[distinctCount];
+            for (int j = 0; j < levels.length; j++) {
+                levelOfId[ids.get(levels[j])] = j + 1;
+            }
+            for (int j = 0; j < data.length; j++) {
+                if (data[j] != RRuntime.INT_NA) {
+                    data[j] = levelOfId[data[j]];
+                }
+            }
             RIntVector res = RDataFactory.createIntVector(data, complete);
-            setLevelsAttrNode.execute(res, RDataFactory.createStringVector(levels.keySet().toArray(new String[0]), RDataFactory.COMPLETE_VECTOR));
+            setLevelsAttrNode.execute(res, RDataFactory.createStringVector(levels, RDataFactory.COMPLETE_VECTOR));
             return RVector.setVectorClassAttr(res, RDataFactory.createStringVector("factor"));
         }
     }
@@ -31,7 +31,7 @@ extern char *pcre_maketables();
 extern void *pcre_compile(char *pattern, int options, char **errorMessage, int *errOffset, char *tables);
 extern int  pcre_exec(void *code, void *extra, char* subject, int subjectLength, int startOffset, int options, int *ovector, int ovecSize);
 extern int pcre_fullinfo(void *code, void *extra, int what, void *where);
-extern void pcre_free(void *code);
+extern void (*pcre_free)(void *);
 
 char *call_pcre_maketables() {
     return pcre_maketables();
@@ -47,6 +47,10 @@ void call_pcre_compile(void (*makeresult)(long result, char *errMsg, int errOffs
 	}	makeresult((long) pcre_result, msg, errOffset);
 }
 
+void call_pcre_free(long code) {
+    pcre_free((void *) code);
+}
+
 int call_pcre_exec(long code, long extra, char *subject, int subjectLength, int startOffset, int options, int *ovectorElems, int ovectorLen) {
     return pcre_exec((void *) code, (void *) extra, (char *) subject, subjectLength, startOffset, options, ovectorElems, ovectorLen);
 }
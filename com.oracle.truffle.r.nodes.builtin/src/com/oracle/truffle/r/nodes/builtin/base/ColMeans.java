@@ -45,6 +45,9 @@ public abstract class ColMeans extends ColSumsBase {
 
     @Specialization(guards = "!naRm")
     protected RDoubleVector colMeansNaRmFalse(RAbstractDoubleVector x, int rowNum, int colNum, @SuppressWarnings("unused") boolean naRm) {
+        if (isLarge(rowNum, colNum)) {
+            return reduceLarge(x, rowNum, colNum, false, false, true);
+        }
         checkVectorLength(x, rowNum, colNum);
 
         double[] result = new double[colNum];
@@ -72,6 +75,9 @@ public abstract class ColMeans extends ColSumsBase {
 
     @Specialization(guards = "naRm")
     protected RDoubleVector colMeansNaRmTrue(RAbstractDoubleVector x, int rowNum, int colNum, @SuppressWarnings("unused") boolean naRm) {
+        if (isLarge(rowNum, colNum)) {
+            return reduceLarge(x, rowNum, colNum, true, false, true);
+        }
         checkVectorLength(x, rowNum, colNum);
 
         double[] result = new double[colNum];
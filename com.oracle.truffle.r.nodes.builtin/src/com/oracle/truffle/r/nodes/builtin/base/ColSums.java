@@ -51,6 +51,9 @@ public abstract class ColSums extends ColSumsBase {
 
     @Specialization
     protected RDoubleVector colSums(RAbstractDoubleVector x, int rowNum, int colNum, boolean rnaParam) {
+        if (isLarge(rowNum, colNum)) {
+            return reduceLarge(x, rowNum, colNum, rnaParam, false, false);
+        }
         checkVectorLength(x, rowNum, colNum);
 
         double[] result = new double[colNum];
@@ -33,7 +33,9 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.data.nodes.GetReadonlyData;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 /**
@@ -45,6 +47,8 @@ public abstract class ColSumsBase extends RBuiltinNode.Arg4 {
 
     protected final NACheck na = NACheck.create();
     private final ConditionProfile vectorLengthProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile largeProfile = ConditionProfile.createBinaryProfile();
+    @Child private GetReadonlyData.Double getReadonlyData = GetReadonlyData.Double.create();
 
     protected static Casts createCasts(Class<? extends ColSumsBase> extCls) {
         Casts casts = new Casts(extCls);
@@ -61,6 +65,27 @@ public abstract class ColSumsBase extends RBuiltinNode.Arg4 {
         }
     }
 
+    protected final boolean isLarge(int rowNum, int colNum) {
+        return largeProfile.profile(MatrixReductions.isLarge(rowNum, colNum));
+    }
+
+    /**
+     * Reduces the columns (or rows) of a large double matrix in parallel, see
+     * {@link MatrixReductions}.
+     */
+    protected final RDoubleVector reduceLarge(RAbstractDoubleVector x, int rowNum, int colNum, boolean naRm, boolean rows, boolean mean) {
+        checkVectorLength(x, rowNum, colNum);
+        double[] data = getReadonlyData.execute(x.materialize());
+        double[] result = new double[rows ? rowNum : colNum];
+        boolean complete;
+        if (rows) {
+            complete = MatrixReductions.rows(data, rowNum, colNum, naRm, mean, result);
+        } else {
+            complete = MatrixReductions.columns(data, rowNum, colNum, naRm, mean, result);
+        }
+        return RDataFactory.createDoubleVector(result, complete);
+    }
+
     @Specialization(guards = {"rowNum == 0", "colNum == 0"})
     @SuppressWarnings("unused")
     protected static RDoubleVector doEmptyMatrix(Object x, int rowNum, int colNum, boolean naRm) {
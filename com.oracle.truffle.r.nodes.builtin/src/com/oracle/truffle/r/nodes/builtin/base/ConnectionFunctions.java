@@ -175,6 +175,10 @@ public abstract class ConnectionFunctions {
             casts.arg("raw").asLogicalVector().findFirst().mustNotBeNA().map(toBoolean());
         }
 
+        private static void mmap(Casts casts) {
+            casts.arg("mmap").asLogicalVector().findFirst().mustNotBeNA().map(toBoolean());
+        }
+
         private static void blocking(Casts casts) {
             casts.arg("blocking").asLogicalVector().findFirst().mustNotBeNA().map(toBoolean());
         }
@@ -212,8 +216,8 @@ public abstract class ConnectionFunctions {
         }
     }
 
-    @RBuiltin(name = "file", kind = INTERNAL, parameterNames = {"description", "open", "blocking", "encoding", "method", "raw"}, behavior = IO)
-    public abstract static class File extends RBuiltinNode.Arg6 {
+    @RBuiltin(name = "file", kind = INTERNAL, parameterNames = {"description", "open", "blocking", "encoding", "method", "raw", "mmap"}, behavior = IO)
+    public abstract static class File extends RBuiltinNode.Arg7 {
 
         static {
             Casts casts = new Casts(File.class);
@@ -223,11 +227,12 @@ public abstract class ConnectionFunctions {
             CastsHelper.encoding(casts);
             CastsHelper.method(casts);
             CastsHelper.raw(casts);
+            CastsHelper.mmap(casts);
         }
 
         @Specialization
         @TruffleBoundary
-        protected RAbstractIntVector file(String description, String openArg, boolean blocking, String encoding, @SuppressWarnings("unused") String method, boolean raw) {
+        protected RAbstractIntVector file(String description, String openArg, boolean blocking, String encoding, @SuppressWarnings("unused") String method, boolean raw, boolean mmap) {
             String open = openArg;
 
             // check if the description is an URL and dispatch if necessary
@@ -258,7 +263,7 @@ public abstract class ConnectionFunctions {
                 }
             }
             try {
-                return new FileRConnection(description, path, open, blocking, encoding, raw, true).asVector();
+                return new FileRConnection(description, path, open, blocking, encoding, raw, mmap, true).asVector();
             } catch (IOException ex) {
                 warning(RError.Message.CANNOT_OPEN_FILE, description, ex.getMessage());
                 throw error(RError.Message.CANNOT_OPEN_CONNECTION);
@@ -921,13 +926,12 @@ public abstract class ConnectionFunctions {
             int[] data = new int[nInts];
             boolean complete = RDataFactory.COMPLETE_VECTOR;
             if (size == 4) {
-                IntBuffer intBuffer = buffer.asIntBuffer();
+                buffer.asIntBuffer().get(data);
                 for (int i = 0; i < nInts; i++) {
-                    int d = intBuffer.get();
-                    if (RRuntime.isNA(d)) {
+                    if (RRuntime.isNA(data[i])) {
                         complete = RDataFactory.INCOMPLETE_VECTOR;
+                        break;
                     }
-                    data[i] = d;
                 }
             } else if (size == 1) {
                 for (int i = 0; i < nInts; i++) {
@@ -947,16 +951,15 @@ public abstract class ConnectionFunctions {
 
         private static RDoubleVector readDouble(RConnection con, int n, boolean swap) throws IOException {
             ByteBuffer buffer = fillBuffer(con, swap, n * 8);
-            DoubleBuffer doubleBuffer = buffer.asDoubleBuffer();
             int nDoubles = buffer.limit() / 8;
             boolean complete = RDataFactory.COMPLETE_VECTOR;
             double[] data = new double[nDoubles];
+            buffer.asDoubleBuffer().get(data);
             for (int i = 0; i < nDoubles; i++) {
-                double d = doubleBuffer.get();
-                if (RRuntime.isNA(d)) {
+                if (RRuntime.isNA(data[i])) {
                     complete = RDataFactory.INCOMPLETE_VECTOR;
+                    break;
                 }
-                data[i] = d;
             }
             return RDataFactory.createDoubleVector(data, complete);
         }
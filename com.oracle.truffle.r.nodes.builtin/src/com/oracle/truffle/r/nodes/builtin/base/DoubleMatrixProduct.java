@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.stream.IntStream;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Product of two large double matrices for {@link MatMult} and {@link CrossprodCommon}.
+ *
+ * The result is divided into tiles of {@link #TILE_ROWS} x {@link #TILE_COLS} elements, which are
+ * computed independently on the common fork-join pool. For every block of {@link #K_BLOCK} inner
+ * indices, a tile packs the panels of both operands it needs into contiguous arrays, so that the
+ * strides of transposed operands do not matter and the panels stay in cache. The innermost loop
+ * adds a multiple of a packed column of {@code a} to a column of the result, which the compiler
+ * can vectorize.
+ *
+ * NA and NaN handling is left to the caller, like for the sequential multiplication.
+ */
+final class DoubleMatrixProduct {
+
+    /**
+     * Products with at least this many multiply-adds are computed by this class.
+     */
+    static final long PARALLEL_WORK = 1L << 24;
+
+    private static final int TILE_ROWS = 128;
+    private static final int TILE_COLS = 128;
+    private static final int K_BLOCK = 128;
+
+    private DoubleMatrixProduct() {
+        // no instances
+    }
+
+    static boolean isLarge(int aRows, int aCols, int bCols) {
+        return (long) aRows * aCols * bCols >= PARALLEL_WORK;
+    }
+
+    /**
+     * Computes {@code a %*% b} into {@code result}, which is a zeroed {@code aRows x bCols} array.
+     * The strides are the same as for {@link MatMult#doubleMatrixMultiply}. If {@code mirrored} is
+     * {@code true}, only tiles that intersect the upper right triangle are computed.
+     */
+    @TruffleBoundary
+    static void multiply(double[] a, double[] b, double[] result, int aRows, int aCols, int bCols, int aRowStride, int aColStride, int bRowStride, int bColStride, boolean mirrored) {
+        int rowTiles = (aRows + TILE_ROWS - 1) / TILE_ROWS;
+        int colTiles = (bCols + TILE_COLS - 1) / TILE_COLS;
+        IntStream.range(0, rowTiles * colTiles).parallel().forEach(tile -> {
+            int row = (tile % rowTiles) * TILE_ROWS;
+            int col = (tile / rowTiles) * TILE_COLS;
+            int tileRows = Math.min(TILE_ROWS, aRows - row);
+            int tileCols = Math.min(TILE_COLS, bCols - col);
+            if (!mirrored || col + tileCols > row) {
+                multiplyTile(a, b, result, aRows, aCols, aRowStride, aColStride, bRowStride, bColStride, row, col, tileRows, tileCols);
+            }
+        });
+    }
+
+    private static void multiplyTile(double[] a, double[] b, double[] result, int aRows, int aCols, int aRowStride, int aColStride, int bRowStride, int bColStride, int row, int col, int tileRows,
+                    int tileCols) {
+        double[] packedA = new double[tileRows * Math.min(K_BLOCK, aCols)];
+        double[] packedB = new double[tileCols * Math.min(K_BLOCK, aCols)];
+        for (int k = 0; k < aCols; k += K_BLOCK) {
+            int kLength = Math.min(K_BLOCK, aCols - k);
+            // column major panel of a: tileRows x kLength
+            for (int innerK = 0; innerK < kLength; innerK++) {
+                int aIndex = (k + innerK) * aColStride + row * aRowStride;
+                int packedIndex = innerK * tileRows;
+                for (int innerRow = 0; innerRow < tileRows; innerRow++) {
+                    packedA[packedIndex + innerRow] = a[aIndex];
+                    aIndex += aRowStride;
+                }
+            }
+            // column major panel of b: kLength x tileCols
+            for (int innerCol = 0; innerCol < tileCols; innerCol++) {
+                int bIndex = (col + innerCol) * bColStride + k * bRowStride;
+                int packedIndex = innerCol * kLength;
+                for (int innerK = 0; innerK < kLength; innerK++) {
+                    packedB[packedIndex + innerK] = b[bIndex];
+                    bIndex += bRowStride;
+                }
+            }
+            for (int innerCol = 0; innerCol < tileCols; innerCol++) {
+                int resultIndex = (col + innerCol) * aRows + row;
+                int bIndex = innerCol * kLength;
+                for (int innerK = 0; innerK < kLength; innerK++) {
+                    double factor = packedB[bIndex + innerK];
+                    int aIndex = innerK * tileRows;
+                    for (int innerRow = 0; innerRow < tileRows; innerRow++) {
+                        result[resultIndex + innerRow] += packedA[aIndex + innerRow] * factor;
+                    }
+                }
+            }
+        }
+    }
+}
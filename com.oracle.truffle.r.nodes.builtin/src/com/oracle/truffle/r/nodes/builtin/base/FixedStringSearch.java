@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
+
+/**
+ * Searching for a fixed string ({@code fixed=TRUE}) in the elements of a character vector.
+ *
+ * The pattern is preprocessed once per builtin call rather than once per element: patterns of at
+ * least {@link #MIN_HORSPOOL_LENGTH} characters are searched with the Boyer-Moore-Horspool
+ * algorithm (the bad character table is indexed by the low byte of the character, which can only
+ * make the shifts smaller), shorter ones with {@link String#indexOf}, which is faster for them. With
+ * {@code ignoreCase}, both the pattern and the texts are converted to lower case first.
+ *
+ * Above {@link #PARALLEL_LENGTH} elements, the vectorized operations work in chunks on the common
+ * fork-join pool.
+ */
+final class FixedStringSearch {
+
+    static final int MIN_HORSPOOL_LENGTH = 8;
+
+    static final int PARALLEL_LENGTH = 1 << 16;
+
+    private static final int TABLE_SIZE = 256;
+
+    private final String pattern;
+    private final boolean ignoreCase;
+    private final int[] shift;
+
+    private FixedStringSearch(String pattern, boolean ignoreCase) {
+        this.pattern = ignoreCase ? pattern.toLowerCase() : pattern;
+        this.ignoreCase = ignoreCase;
+        int m = this.pattern.length();
+        if (m >= MIN_HORSPOOL_LENGTH) {
+            shift = new int[TABLE_SIZE];
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                shift[i] = m;
+            }
+            for (int i = 0; i < m - 1; i++) {
+                shift[this.pattern.charAt(i) & (TABLE_SIZE - 1)] = m - 1 - i;
+            }
+        } else {
+            shift = null;
+        }
+    }
+
+    @TruffleBoundary
+    static FixedStringSearch create(String pattern, boolean ignoreCase) {
+        return new FixedStringSearch(pattern, ignoreCase);
+    }
+
+    /**
+     * The length of the (possibly lower-cased) pattern, i.e. of every match.
+     */
+    int length() {
+        return pattern.length();
+    }
+
+    /**
+     * Converts {@code text} to the form expected by {@link #indexOf}.
+     */
+    @TruffleBoundary
+    String normalize(String text) {
+        return ignoreCase ? text.toLowerCase() : text;
+    }
+
+    /**
+     * Returns the index of the first match in the {@link #normalize normalized} {@code text} at or
+     * after {@code from} or {@code -1}.
+     */
+    @TruffleBoundary
+    int indexOf(String text, int from) {
+        if (shift == null) {
+            return text.indexOf(pattern, from);
+        }
+        int m = pattern.length();
+        int last = m - 1;
+        char lastChar = pattern.charAt(last);
+        int limit = text.length() - m;
+        int i = Math.max(from, 0);
+        while (i <= limit) {
+            char c = text.charAt(i + last);
+            if (c == lastChar && text.regionMatches(i, pattern, 0, last)) {
+                return i;
+            }
+            i += shift[c & (TABLE_SIZE - 1)];
+        }
+        return -1;
+    }
+
+    @TruffleBoundary
+    boolean contains(String text) {
+        return indexOf(normalize(text), 0) >= 0;
+    }
+
+    /**
+     * Sets {@code result[i]} iff the i-th element of {@code vector} is not {@code NA} and contains
+     * the pattern.
+     */
+    @TruffleBoundary
+    void findAll(RAbstractStringVector vector, boolean[] result) {
+        int length = vector.getLength();
+        if (length < PARALLEL_LENGTH) {
+            for (int i = 0; i < length; i++) {
+                String text = vector.getDataAt(i);
+                result[i] = !RRuntime.isNA(text) && contains(text);
+            }
+        } else {
+            String[] data = vector.materialize().getReadonlyData();
+            forEachChunk(length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    String text = data[i];
+                    result[i] = !RRuntime.isNA(text) && contains(text);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stores the 1-based position and the length of the first match in every element of
+     * {@code vector}, or {@code -1} for both if there is none.
+     */
+    @TruffleBoundary
+    void findFirst(RAbstractStringVector vector, int[] position, int[] matchLength) {
+        int length = vector.getLength();
+        if (length < PARALLEL_LENGTH) {
+            findFirst(vector, null, 0, length, position, matchLength);
+        } else {
+            String[] data = vector.materialize().getReadonlyData();
+            forEachChunk(length, (from, to) -> findFirst(null, data, from, to, position, matchLength));
+        }
+    }
+
+    private void findFirst(RAbstractStringVector vector, String[] data, int from, int to, int[] position, int[] matchLength) {
+        int m = pattern.length();
+        for (int i = from; i < to; i++) {
+            String text = data == null ? vector.getDataAt(i) : data[i];
+            int index = indexOf(normalize(text), 0);
+            position[i] = index < 0 ? -1 : index + 1;
+            matchLength[i] = index < 0 ? -1 : m;
+        }
+    }
+
+    @FunctionalInterface
+    interface RangeAction {
+        void apply(int from, int to);
+    }
+
+    /**
+     * Runs {@code action} on consecutive ranges covering {@code [0, length)}, in parallel if
+     * {@code length} is at least {@link #PARALLEL_LENGTH}.
+     */
+    static void forEachChunk(int length, RangeAction action) {
+        int chunks = length < PARALLEL_LENGTH ? 1 : Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), length / (PARALLEL_LENGTH / 2)));
+        if (chunks == 1) {
+            action.apply(0, length);
+        } else {
+            int chunkSize = (length + chunks - 1) / chunks;
+            IntStream.range(0, chunks).parallel().forEach(c -> action.apply(c * chunkSize, Math.min(length, (c + 1) * chunkSize)));
+        }
+    }
+}
@@ -50,7 +50,9 @@ import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RegExp;
+import com.oracle.truffle.r.runtime.RegexCache;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RList;
@@ -216,14 +218,24 @@ public class GrepFunctions {
             return RDataFactory.createIntVector(naData, RDataFactory.INCOMPLETE_VECTOR);
         }
 
+        /**
+         * Returns the compiled pattern from the context's {@link RegexCache}, compiling it on a
+         * miss. The result is only valid until the next pattern is compiled.
+         */
         protected PCRERFFI.Result compilePerlPattern(String pattern, boolean ignoreCase) {
             int cflags = ignoreCase ? PCRERFFI.CASELESS : 0;
+            RegexCache cache = RContext.getInstance().stateRegexCache;
+            PCRERFFI.Result pcre = cache.getPCRE(pattern, cflags);
+            if (pcre != null) {
+                return pcre;
+            }
             long tables = maketablesNode.execute();
-            PCRERFFI.Result pcre = compileNode.execute(pattern, cflags, tables);
+            pcre = compileNode.execute(pattern, cflags, tables);
             if (pcre.result == 0) {
                 // TODO output warning if pcre.errorMessage not NULL
                 throw error(RError.Message.INVALID_REGEXP, pattern);
             }
+            cache.putPCRE(pattern, cflags, pcre, tables);
             return pcre;
         }
     }
@@ -316,22 +328,18 @@ public class GrepFunctions {
         }
 
         protected static void findAllMatches(boolean[] result, String pattern, RAbstractStringVector vector, boolean fixed, boolean ignoreCase) {
+            if (fixed) {
+                FixedStringSearch.create(pattern, false).findAll(vector, result);
+                return;
+            }
+            Pattern regex = Regexpr.compilePattern(pattern, ignoreCase);
             for (int i = 0; i < result.length; i++) {
                 String text = vector.getDataAt(i);
                 if (!RRuntime.isNA(text)) {
-                    if (fixed) {
-                        result[i] = text.contains(pattern);
-                    } else {
-                        result[i] = findMatch(pattern, text, ignoreCase);
-                    }
+                    result[i] = regex.matcher(text).find();
                 }
             }
         }
-
-        protected static boolean findMatch(String pattern, String text, boolean ignoreCase) {
-            Matcher m = Regexpr.getPatternMatcher(pattern, text, ignoreCase);
-            return m.find();
-        }
     }
 
     public static CommonCodeNode createCommon() {
@@ -474,13 +482,25 @@ public class GrepFunctions {
                     perl = false;
                 }
 
+                // compile the pattern and prepare the replacement once for all the elements
                 PCRERFFI.Result pcre = null;
+                Pattern javaPattern = null;
+                FixedStringSearch fixedSearch = null;
                 if (fixed) {
                     // TODO case
+                    if (gsub) {
+                        javaPattern = RegexCache.compile(pattern, Pattern.LITERAL);
+                        replacement = convertGroups(replacement.replace("$", "\\$"), 0);
+                    } else {
+                        fixedSearch = FixedStringSearch.create(pattern, false);
+                        replacement = replacement.replace("\\\\", "\\");
+                    }
                 } else if (perl) {
                     pcre = compilePerlPattern(pattern, ignoreCase);
                 } else {
                     pattern = RegExp.checkPreDefinedClasses(pattern);
+                    javaPattern = RegexCache.compile(pattern, Pattern.DOTALL);
+                    replacement = convertGroups(replacement, javaPattern.matcher("").groupCount());
                 }
                 String[] result = new String[len];
                 for (int i = 0; i < len; i++) {
@@ -493,12 +513,9 @@ public class GrepFunctions {
                     String value;
                     if (fixed) {
                         if (gsub) {
-                            replacement = replacement.replace("$", "\\$");
-                            replacement = convertGroups(replacement, 0);
-                            value = Pattern.compile(pattern, Pattern.LITERAL).matcher(input).replaceAll(replacement);
+                            value = javaPattern.matcher(input).replaceAll(replacement);
                         } else {
-                            int ix = input.indexOf(pattern);
-                            replacement = replacement.replace("\\\\", "\\");
+                            int ix = fixedSearch.indexOf(input, 0);
                             value = ix < 0 ? input : input.substring(0, ix) + replacement + input.substring(ix + pattern.length());
                         }
                     } else if (perl) {
@@ -561,9 +578,7 @@ public class GrepFunctions {
                             value = sb.toString();
                         }
                     } else {
-                        Matcher matcher = Pattern.compile(pattern, Pattern.DOTALL).matcher(input);
-                        replacement = convertGroups(replacement, matcher.groupCount());
-
+                        Matcher matcher = javaPattern.matcher(input);
                         if (gsub) {
                             value = matcher.replaceAll(replacement);
                         } else {
@@ -866,9 +881,13 @@ public class GrepFunctions {
                 if (pattern.length() == 0) {
                     // emtpy pattern
                     Arrays.fill(result, 1);
+                } else if (fixed) {
+                    // no captures, search all elements at once
+                    FixedStringSearch.create(pattern, ignoreCase).findFirst(vector, result, matchLength);
                 } else {
+                    Pattern regex = perl ? null : compilePattern(pattern, ignoreCase);
                     for (int i = 0; i < vector.getLength(); i++) {
-                        Info res = getInfo(common, pattern, vector.getDataAt(i), ignoreCase, perl, fixed, true).get(0);
+                        Info res = getInfo(common, pattern, vector.getDataAt(i), ignoreCase, perl, null, regex, true).get(0);
                         result[i] = res.index;
                         matchLength[i] = res.size;
                         if (res.hasCapture) {
@@ -921,25 +940,30 @@ public class GrepFunctions {
             }
         }
 
-        protected List<Info> getInfo(CommonCodeNode common, String pattern, String text, boolean ignoreCase, boolean perl, boolean fixed) {
-            return getInfo(common, pattern, text, ignoreCase, perl, fixed, false);
+        /**
+         * {@code fixed} is the search for the pattern if {@code fixed=TRUE} and {@code null}
+         * otherwise, {@code regex} is the pattern compiled by {@link #compilePattern} if neither
+         * {@code fixed} nor {@code perl} is {@code TRUE} and {@code null} otherwise.
+         */
+        protected List<Info> getInfo(CommonCodeNode common, String pattern, String text, boolean ignoreCase, boolean perl, FixedStringSearch fixed, Pattern regex) {
+            return getInfo(common, pattern, text, ignoreCase, perl, fixed, regex, false);
         }
 
-        protected List<Info> getInfo(CommonCodeNode common, String pattern, String text, boolean ignoreCase, boolean perl, boolean fixed, boolean onlyFirst) {
+        protected List<Info> getInfo(CommonCodeNode common, String pattern, String text, boolean ignoreCase, boolean perl, FixedStringSearch fixed, Pattern regex, boolean onlyFirst) {
             List<Info> list = new ArrayList<>();
-            if (fixed) {
+            if (fixed != null) {
+                String normalized = fixed.normalize(text);
                 int index = 0;
                 while (true) {
-                    if (ignoreCase) {
-                        index = text.toLowerCase().indexOf(pattern.toLowerCase(), index);
-                    } else {
-                        index = text.indexOf(pattern, index);
-                    }
+                    index = fixed.indexOf(normalized, index);
                     if (index == -1) {
                         break;
                     }
-                    list.add(new Info(index + 1, pattern.length(), null, null, null));
-                    index += pattern.length();
+                    list.add(new Info(index + 1, fixed.length(), null, null, null));
+                    if (onlyFirst) {
+                        break;
+                    }
+                    index += fixed.length();
                 }
             } else if (perl) {
                 PCRERFFI.Result pcre = common.compilePerlPattern(pattern, ignoreCase);
@@ -989,7 +1013,7 @@ public class GrepFunctions {
                     list.add(new Info(-1, -1, null, null, captureNames));
                 }
             } else {
-                Matcher m = getPatternMatcher(pattern, text, ignoreCase);
+                Matcher m = regex.matcher(text);
                 while (m.find()) {
                     // R starts counting at index 1
                     list.add(new Info(m.start() + 1, m.end() - m.start(), null, null, null));
@@ -1003,7 +1027,7 @@ public class GrepFunctions {
         }
 
         @TruffleBoundary
-        private static Matcher getPatternMatcher(String pattern, String text, boolean ignoreCase) {
+        protected static Pattern compilePattern(String pattern, boolean ignoreCase) {
             String actualPattern = pattern;
 
             // If a pattern starts with a '*', GnuR virtually prepends an empty string literal to
@@ -1011,7 +1035,7 @@ public class GrepFunctions {
             if (pattern.length() > 0 && pattern.charAt(0) == '*') {
                 actualPattern = pattern.substring(1);
             }
-            return Pattern.compile(actualPattern, Pattern.DOTALL | (ignoreCase ? Pattern.CASE_INSENSITIVE : 0)).matcher(text);
+            return RegexCache.compile(actualPattern, Pattern.DOTALL | (ignoreCase ? Pattern.CASE_INSENSITIVE : 0));
         }
     }
 
@@ -1061,6 +1085,8 @@ public class GrepFunctions {
                 RList ret = RDataFactory.createList(vector.getLength());
                 String pattern = patternArg.getDataAt(0);
                 pattern = RegExp.checkPreDefinedClasses(pattern);
+                FixedStringSearch fixedSearch = fixed ? FixedStringSearch.create(pattern, ignoreCase) : null;
+                Pattern regex = fixed || pattern.length() == 0 ? null : compilePattern(pattern, ignoreCase);
                 // TODO: useBytes normally depends on the value of the parameter and (if false) on
                 // whether the string is ASCII
                 for (int i = 0; i < vector.getLength(); i++) {
@@ -1071,7 +1097,7 @@ public class GrepFunctions {
                         matchPos = new int[]{1};
                         matchLength = new int[]{0};
                     } else {
-                        List<Info> res = getInfo(pattern, vector.getDataAt(i), ignoreCase, fixed);
+                        List<Info> res = getInfo(vector.getDataAt(i), fixedSearch, regex);
                         matchPos = new int[res.size()];
                         matchLength = new int[res.size()];
                         for (int j = 0; j < res.size(); j++) {
@@ -1092,20 +1118,15 @@ public class GrepFunctions {
             }
         }
 
-        protected List<Info> getInfo(String pattern, String text, boolean ignoreCase, boolean fixed) {
+        protected List<Info> getInfo(String text, FixedStringSearch fixed, Pattern regex) {
             List<Info> list = new ArrayList<>();
-            if (fixed) {
-                int index;
-                if (ignoreCase) {
-                    index = text.toLowerCase().indexOf(pattern.toLowerCase());
-                } else {
-                    index = text.indexOf(pattern);
-                }
+            if (fixed != null) {
+                int index = fixed.indexOf(fixed.normalize(text), 0);
                 if (index != -1) {
-                    list.add(new Info(index + 1, pattern.length(), null, null, null));
+                    list.add(new Info(index + 1, fixed.length(), null, null, null));
                 }
             } else {
-                Matcher m = getPatternMatcher(pattern, text, ignoreCase);
+                Matcher m = regex.matcher(text);
                 if (m.find()) {
                     for (int i = 0; i <= m.groupCount(); i++) {
                         list.add(new Info(m.start(i) + 1, m.end(i) - m.start(i), null, null, null));
@@ -1120,8 +1141,8 @@ public class GrepFunctions {
         }
 
         @TruffleBoundary
-        private static Matcher getPatternMatcher(String pattern, String text, boolean ignoreCase) {
-            return Pattern.compile(pattern, Pattern.DOTALL | (ignoreCase ? Pattern.CASE_INSENSITIVE : 0)).matcher(text);
+        private static Pattern compilePattern(String pattern, boolean ignoreCase) {
+            return RegexCache.compile(pattern, Pattern.DOTALL | (ignoreCase ? Pattern.CASE_INSENSITIVE : 0));
         }
     }
 
@@ -1184,6 +1205,8 @@ public class GrepFunctions {
                 Object[] result = new Object[vector.getLength()];
                 boolean hasAnyCapture = false;
                 RStringVector captureNames = null;
+                FixedStringSearch fixedSearch = fixed ? FixedStringSearch.create(pattern, ignoreCase) : null;
+                Pattern regex = fixed || perl || pattern.length() == 0 ? null : compilePattern(pattern, ignoreCase);
                 for (int i = 0; i < vector.getLength(); i++) {
                     RIntVector res;
                     if (pattern.length() == 0) {
@@ -1198,7 +1221,7 @@ public class GrepFunctions {
                             setUseBytesAttrNode.execute(res, RRuntime.LOGICAL_TRUE);
                         }
                     } else {
-                        List<Info> l = getInfo(common, pattern, vector.getDataAt(i), ignoreCase, perl, fixed);
+                        List<Info> l = getInfo(common, pattern, vector.getDataAt(i), ignoreCase, perl, fixedSearch, regex);
                         res = toIndexOrSizeVector(l, true);
                         setMatchLengthAttrNode.execute(res, toIndexOrSizeVector(l, false));
                         if (useBytes) {
@@ -1456,15 +1479,26 @@ public class GrepFunctions {
             // treat split = NULL as split = ""
             RAbstractStringVector split = splitArg.getLength() == 0 ? RDataFactory.createStringVectorFromScalar("") : splitArg;
             String[] splits = new String[split.getLength()];
-            long pcreTables = perl ? common.maketablesNode.execute() : 0;
+            // a single pattern can come from the regex cache, several patterns are compiled
+            // privately as a cached pattern is only valid until the next one is compiled
+            boolean pcreCached = perl && splits.length == 1;
+            long pcreTables = perl && !pcreCached ? common.maketablesNode.execute() : 0;
             PCRERFFI.Result[] pcreSplits = perl ? new PCRERFFI.Result[splits.length] : null;
+            FixedStringSearch[] fixedSplits = fixed ? new FixedStringSearch[splits.length] : null;
 
             na.enable(x);
             for (int i = 0; i < splits.length; i++) {
                 String currentSplit = split.getDataAt(i);
                 splits[i] = fixed || perl ? split.getDataAt(i) : RegExp.checkPreDefinedClasses(split.getDataAt(i));
+                if (fixed) {
+                    fixedSplits[i] = FixedStringSearch.create(currentSplit, false);
+                }
                 if (perl) {
-                    if (!currentSplit.isEmpty()) {
+                    if (pcreCached) {
+                        if (!currentSplit.isEmpty()) {
+                            pcreSplits[i] = common.compilePerlPattern(currentSplit, false);
+                        }
+                    } else if (!currentSplit.isEmpty()) {
                         pcreSplits[i] = common.compileNode.execute(currentSplit, 0, pcreTables);
                         if (pcreSplits[i].result == 0) {
                             // TODO output warning if pcre.errorMessage not NULL
@@ -1496,7 +1530,7 @@ public class GrepFunctions {
                             if (perl) {
                                 resultItem = splitPerl(data, pcreSplits[i % splits.length]);
                             } else {
-                                resultItem = splitIntl(data, currentSplit, fixed);
+                                resultItem = splitIntl(data, currentSplit, fixed ? fixedSplits[i % splits.length] : null);
                             }
                             if (resultItem.getLength() == 0) {
                                 if (fixed) {
@@ -1530,12 +1564,12 @@ public class GrepFunctions {
             }
         }
 
-        private static RStringVector splitIntl(String input, String separator, boolean fixed) {
+        private static RStringVector splitIntl(String input, String separator, FixedStringSearch fixed) {
             assert !RRuntime.isNA(input);
 
-            if (fixed) {
+            if (fixed != null) {
                 ArrayList<String> matches = new ArrayList<>();
-                int idx = input.indexOf(separator);
+                int idx = fixed.indexOf(input, 0);
                 if (idx < 0) {
                     return RDataFactory.createStringVector(input);
                 }
@@ -1546,7 +1580,7 @@ public class GrepFunctions {
                     if (lastIdx > input.length()) {
                         break;
                     }
-                    idx = input.indexOf(separator, lastIdx);
+                    idx = fixed.indexOf(input, lastIdx);
                 }
                 String m = input.substring(lastIdx);
                 if (!m.isEmpty()) {
@@ -1557,7 +1591,7 @@ public class GrepFunctions {
                 if (input.equals(separator)) {
                     return RDataFactory.createStringVector("");
                 } else {
-                    return RDataFactory.createStringVector(input.split(separator), true);
+                    return RDataFactory.createStringVector(RegexCache.compile(separator, 0).split(input), true);
                 }
             }
         }
@@ -76,6 +76,12 @@ import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
  * rewrite simple uses directly down to, e.g. explicit loops using, for example, a {@link LoopNode}.
  *
  * See the comment in {@link VApply} regarding "...".
+ *
+ * The calls of {@code FUN} are always evaluated one after another on the current thread. Even a
+ * function without visible side effects updates state shared within its context, e.g. the
+ * reference counts of the vectors it reads, and the context may only be entered by one thread at a
+ * time, so the elements cannot be distributed over threads of one context. Parallel application
+ * goes through child contexts, see {@code mclapply} in {@code mclapply_overrides.R}.
  */
 @RBuiltin(name = "lapply", kind = INTERNAL, parameterNames = {"X", "FUN"}, splitCaller = true, behavior = COMPLEX)
 public abstract class Lapply extends RBuiltinNode.Arg2 {
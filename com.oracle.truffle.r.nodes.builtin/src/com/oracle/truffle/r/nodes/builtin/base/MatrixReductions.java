@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.stream.IntStream;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RRuntime;
+
+/**
+ * Column and row sums and means of large double matrices for {@link ColSums}, {@link ColMeans},
+ * {@link RowSums} and {@link RowMeans}.
+ *
+ * Columns are summed independently on the common fork-join pool. Rows are summed in blocks of
+ * {@link #ROW_BLOCK} rows, so that the partial sums of a block stay in cache while the columns are
+ * traversed with unit stride, and the blocks are distributed over the pool. Like in the sequential
+ * implementations, the first NA or NaN of a column (row) determines the result unless NAs are
+ * removed. If {@link Sum#FULL_PRECISION} is set, the sums are compensated to make up for the lack
+ * of extended precision accumulators.
+ */
+final class MatrixReductions {
+
+    /**
+     * Matrices with at least this many elements are reduced by this class.
+     */
+    static final int PARALLEL_LENGTH = 1 << 20;
+
+    private static final int ROW_BLOCK = 1024;
+
+    private static final byte NA = 1;
+    private static final byte NAN = 2;
+
+    private MatrixReductions() {
+        // no instances
+    }
+
+    static boolean isLarge(int rowNum, int colNum) {
+        return (long) rowNum * colNum >= PARALLEL_LENGTH;
+    }
+
+    /**
+     * Stores the sums (or means) of the columns of {@code x} in {@code result} and returns
+     * {@code true} if none of them is NA.
+     */
+    @TruffleBoundary
+    static boolean columns(double[] x, int rowNum, int colNum, boolean naRm, boolean mean, double[] result) {
+        boolean fullPrecision = Sum.FULL_PRECISION;
+        IntStream.range(0, colNum).parallel().forEach(c -> result[c] = column(x, c * rowNum, rowNum, naRm, mean, fullPrecision));
+        return isComplete(result);
+    }
+
+    private static double column(double[] x, int start, int rowNum, boolean naRm, boolean mean, boolean fullPrecision) {
+        double sum = 0;
+        double compensation = 0;
+        int count = 0;
+        for (int i = start; i < start + rowNum; i++) {
+            double el = x[i];
+            if (Double.isNaN(el)) {
+                if (naRm) {
+                    continue;
+                }
+                return RRuntime.isNA(el) ? RRuntime.DOUBLE_NA : Double.NaN;
+            }
+            if (fullPrecision) {
+                double t = sum + el;
+                compensation += Math.abs(sum) >= Math.abs(el) ? (sum - t) + el : (el - t) + sum;
+                sum = t;
+            } else {
+                sum += el;
+            }
+            count++;
+        }
+        sum = compensate(sum, compensation);
+        if (mean) {
+            return count == 0 ? Double.NaN : sum / count;
+        }
+        return sum;
+    }
+
+    /**
+     * Stores the sums (or means) of the rows of {@code x} in {@code result} and returns
+     * {@code true} if none of them is NA.
+     */
+    @TruffleBoundary
+    static boolean rows(double[] x, int rowNum, int colNum, boolean naRm, boolean mean, double[] result) {
+        boolean fullPrecision = Sum.FULL_PRECISION;
+        int blocks = (rowNum + ROW_BLOCK - 1) / ROW_BLOCK;
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int start = b * ROW_BLOCK;
+            rowBlock(x, rowNum, colNum, start, Math.min(ROW_BLOCK, rowNum - start), naRm, mean, fullPrecision, result);
+        });
+        return isComplete(result);
+    }
+
+    private static void rowBlock(double[] x, int rowNum, int colNum, int start, int length, boolean naRm, boolean mean, boolean fullPrecision, double[] result) {
+        double[] sums = new double[length];
+        double[] compensations = fullPrecision ? new double[length] : null;
+        int[] counts = naRm ? new int[length] : null;
+        byte[] status = naRm ? null : new byte[length];
+        for (int c = 0; c < colNum; c++) {
+            int pos = c * rowNum + start;
+            for (int r = 0; r < length; r++) {
+                double el = x[pos + r];
+                if (Double.isNaN(el)) {
+                    if (naRm) {
+                        continue;
+                    }
+                    if (status[r] == 0) {
+                        status[r] = RRuntime.isNA(el) ? NA : NAN;
+                    }
+                }
+                if (fullPrecision) {
+                    double sum = sums[r];
+                    double t = sum + el;
+                    compensations[r] += Math.abs(sum) >= Math.abs(el) ? (sum - t) + el : (el - t) + sum;
+                    sums[r] = t;
+                } else {
+                    sums[r] += el;
+                }
+                if (naRm) {
+                    counts[r]++;
+                }
+            }
+        }
+        for (int r = 0; r < length; r++) {
+            double sum;
+            if (!naRm && status[r] != 0) {
+                sum = status[r] == NA ? RRuntime.DOUBLE_NA : Double.NaN;
+            } else {
+                sum = compensate(sums[r], fullPrecision ? compensations[r] : 0);
+                if (mean) {
+                    int count = naRm ? counts[r] : colNum;
+                    sum = count == 0 ? Double.NaN : sum / count;
+                }
+            }
+            result[start + r] = sum;
+        }
+    }
+
+    private static double compensate(double sum, double compensation) {
+        // the compensation is meaningless once the sum overflowed
+        return Double.isInfinite(sum) ? sum : sum + compensation;
+    }
+
+    private static boolean isComplete(double[] result) {
+        for (double value : result) {
+            if (RRuntime.isNA(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
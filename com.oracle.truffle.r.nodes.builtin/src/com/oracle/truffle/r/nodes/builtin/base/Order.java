@@ -265,11 +265,17 @@ public abstract class Order extends RPrecedenceBuiltinNode {
                     @Cached("createEqualityProfile()") ValueProfile lengthProfile) {
         int n = preprocessVectors(args, lengthProfile);
 
-        int[] indx = new int[n];
-        for (int i = 0; i < indx.length; i++) {
-            indx[i] = i;
+        int[] indx;
+        if (n >= RadixOrder.MIN_LENGTH && isRadixSupported(args.getArguments())) {
+            indx = radixOrder(args.getArguments(), RRuntime.fromLogical(naLast), decreasing);
+        } else {
+            indx = new int[n];
+            for (int i = 0; i < indx.length; i++) {
+                indx[i] = i;
+            }
+            // as in GnuR, greaterSub reverses the position of NAs if decreasing
+            orderVector(indx, args.getArguments(), RRuntime.fromLogical(naLast) ^ decreasing, decreasing);
         }
-        orderVector(indx, args.getArguments(), RRuntime.fromLogical(naLast), decreasing);
         for (int i = 0; i < indx.length; i++) {
             indx[i] = indx[i] + 1;
         }
@@ -277,6 +283,26 @@ public abstract class Order extends RPrecedenceBuiltinNode {
         return RDataFactory.createIntVector(indx, RDataFactory.COMPLETE_VECTOR);
     }
 
+    private static boolean isRadixSupported(Object[] vectors) {
+        for (Object vector : vectors) {
+            if (!RadixOrder.isSupported(vector)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @TruffleBoundary
+    private static int[] radixOrder(Object[] vectors, boolean naLast, boolean decreasing) {
+        RAbstractVector[] keys = new RAbstractVector[vectors.length];
+        boolean[] dec = new boolean[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            keys[i] = (RAbstractVector) vectors[i];
+            dec[i] = decreasing;
+        }
+        return RadixOrder.order(keys, RRuntime.asLogical(naLast), dec, null);
+    }
+
     private boolean greaterSub(int i, int j, Object[] vectors, boolean naLast, boolean dec) {
         int c = -1;
         for (int k = 0; k < vectors.length; k++) {
@@ -359,7 +385,11 @@ public abstract class Order extends RPrecedenceBuiltinNode {
                 }
             }
 
-            sort(indx, dv, lo, hi, decreasing);
+            if (sortNA && hi - lo >= RadixOrder.MIN_LENGTH) {
+                RadixOrder.sort(indx, lo, hi, dv, true, decreasing, null);
+            } else {
+                sort(indx, dv, lo, hi, decreasing);
+            }
             return indx;
         }
 
@@ -395,7 +425,11 @@ public abstract class Order extends RPrecedenceBuiltinNode {
                 }
             }
 
-            sort(indx, dv, lo, hi, decreasing);
+            if (sortNA && hi - lo >= RadixOrder.MIN_LENGTH) {
+                RadixOrder.sort(indx, lo, hi, dv, true, decreasing, null);
+            } else {
+                sort(indx, dv, lo, hi, decreasing);
+            }
             return indx;
         }
 
@@ -433,7 +467,7 @@ public abstract class Order extends RPrecedenceBuiltinNode {
                 }
             }
 
-            sort(indx, dv, lo, hi, decreasing);
+            sort(indx, dv, lo, hi, decreasing, sortNA);
             return indx;
         }
 
@@ -539,13 +573,15 @@ public abstract class Order extends RPrecedenceBuiltinNode {
         }
 
         @TruffleBoundary
-        private void sort(int[] indx, RAbstractStringVector dv, int lo, int hi, boolean dec) {
+        private void sort(int[] indx, RAbstractStringVector dv, int lo, int hi, boolean dec, boolean radix) {
             int t = 0;
             for (; SINCS[t] > hi - lo + 1; t++) {
             }
 
             Locale locale = RContext.getInstance().stateRLocale.getLocale(RLocale.COLLATE);
-            if (locale == Locale.ROOT) {
+            if (radix && hi - lo >= RadixOrder.MIN_LENGTH) {
+                RadixOrder.sort(indx, lo, hi, dv, true, dec, locale == Locale.ROOT ? null : RLocale.getOrderCollator(locale));
+            } else if (locale == Locale.ROOT) {
                 // simple comparison based on numeric value of characters
                 for (int h = SINCS[t]; t < 16; h = SINCS[++t]) {
                     for (int i = lo + h; i <= hi; i++) {
@@ -30,8 +30,6 @@ import static com.oracle.truffle.r.runtime.RError.Message.NON_STRING_ARG_TO_INTE
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
-import java.util.Arrays;
-
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -49,19 +47,23 @@ import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RForeignWrapper;
 import com.oracle.truffle.r.runtime.data.RIntSequence;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RScalar;
 import com.oracle.truffle.r.runtime.data.RStringSequence;
 import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractListVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
 
 @RBuiltin(name = "paste", kind = INTERNAL, parameterNames = {"", "sep", "collapse"}, behavior = PURE)
 public abstract class Paste extends RBuiltinNode.Arg3 {
 
     private static final String[] ONE_EMPTY_STRING = new String[]{""};
+    private static final Column EMPTY_COLUMN = new StringColumn(ONE_EMPTY_STRING);
 
     public abstract Object executeList(VirtualFrame frame, RList value, String sep, Object collapse);
 
@@ -72,13 +74,13 @@ public abstract class Paste extends RBuiltinNode.Arg3 {
     @Child private BoxPrimitiveNode boxPrimitiveNode = BoxPrimitiveNode.create();
 
     private final ValueProfile lengthProfile = PrimitiveValueProfile.createEqualityProfile();
-    private final ConditionProfile reusedResultProfile = ConditionProfile.createBinaryProfile();
     private final BranchProfile nonNullElementsProfile = BranchProfile.create();
     private final BranchProfile onlyNullElementsProfile = BranchProfile.create();
     private final ConditionProfile isNotStringProfile = ConditionProfile.createBinaryProfile();
     private final ConditionProfile hasNoClassProfile = ConditionProfile.createBinaryProfile();
     private final ConditionProfile convertedEmptyProfile = ConditionProfile.createBinaryProfile();
     private final ConditionProfile lengthOneAndCompleteProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile isNumericProfile = ConditionProfile.createBinaryProfile();
 
     static {
         Casts casts = new Casts(Paste.class);
@@ -133,8 +135,12 @@ public abstract class Paste extends RBuiltinNode.Arg3 {
     protected String pasteList(VirtualFrame frame, RAbstractListVector values, String sep, String collapse) {
         int length = lengthProfile.profile(values.getLength());
         if (hasNonNullElements(values, length)) {
-            String[] result = pasteListElements(frame, values, sep, length);
-            return collapseString(result, collapse);
+            Column[] columns = new Column[length];
+            int maxLength = convertListElements(frame, values, length, columns);
+            if (maxLength == 0) {
+                return "";
+            }
+            return collapseRows(columns, sep, collapse, maxLength);
         } else {
             return "";
         }
@@ -152,102 +158,264 @@ public abstract class Paste extends RBuiltinNode.Arg3 {
     }
 
     private String[] pasteListElements(VirtualFrame frame, RAbstractListVector values, String sep, int length) {
-        String[][] converted = new String[length][];
+        Column[] columns = new Column[length];
+        int maxLength = convertListElements(frame, values, length, columns);
+        if (convertedEmptyProfile.profile(maxLength == 0)) {
+            return ONE_EMPTY_STRING;
+        } else if (lengthOneAndCompleteProfile.profile(length == 1 && values.isComplete() && columns[0] instanceof StringColumn)) {
+            return ((StringColumn) columns[0]).data;
+        } else {
+            return pasteRows(columns, sep, maxLength);
+        }
+    }
+
+    /**
+     * Converts the elements of {@code values} into {@code columns} and returns the length of the
+     * result, or {@code 0} if all elements are empty. Integer and logical vectors without a class
+     * are not converted to character vectors, their elements are written directly into the result
+     * strings.
+     */
+    private int convertListElements(VirtualFrame frame, RAbstractListVector values, int length, Column[] columns) {
         int maxLength = 1;
         int emptyCnt = 0;
         for (int i = 0; i < length; i++) {
             Object element = values.getDataAt(i);
-            String[] array = castCharacterVector(frame, element).materialize().getReadonlyStringData();
-            maxLength = Math.max(maxLength, array.length);
-            if (array.length == 0) {
-                converted[i] = ONE_EMPTY_STRING;
-                emptyCnt++;
+            Column column;
+            if (isNumericProfile.profile((element instanceof RAbstractIntVector || element instanceof RAbstractLogicalVector) && !(element instanceof RForeignWrapper) && hasNoClass(element))) {
+                if (element instanceof RAbstractIntVector) {
+                    column = new IntColumn((RAbstractIntVector) element);
+                } else {
+                    column = new LogicalColumn((RAbstractLogicalVector) element);
+                }
             } else {
-                converted[i] = array;
+                column = new StringColumn(castCharacterVector(frame, element).materialize().getReadonlyStringData());
             }
-        }
-        if (convertedEmptyProfile.profile(emptyCnt == length)) {
-            return ONE_EMPTY_STRING;
-        } else if (lengthOneAndCompleteProfile.profile(length == 1 && values.isComplete())) {
-            return converted[0];
-        } else if (length == 1) { // Incomplete values vector
-            // Clone array since it might be physical data array of a string vector
-            String[] result = Arrays.copyOf(converted[0], converted[0].length);
-            for (int j = result.length - 1; j >= 0; j--) {
-                if (result[j] == RRuntime.STRING_NA) {
-                    result[j] = "NA";
-                }
+            int columnLength = column.getLength();
+            maxLength = Math.max(maxLength, columnLength);
+            if (columnLength == 0) {
+                columns[i] = EMPTY_COLUMN;
+                emptyCnt++;
+            } else {
+                columns[i] = column;
             }
-            return result;
-        } else {
-            return prepareResult(sep, length, converted, maxLength);
         }
+        return emptyCnt == length ? 0 : maxLength;
+    }
+
+    private boolean hasNoClass(Object element) {
+        RStringVector classVec = getClassHierarchyNode().execute(element);
+        return classVec == null || classVec.getLength() == 0;
     }
 
-    private String[] prepareResult(String sep, int length, String[][] converted, int maxLength) {
+    @TruffleBoundary
+    private static String[] pasteRows(Column[] columns, String sep, int maxLength) {
         String[] result = new String[maxLength];
         String lastResult = null;
         for (int i = 0; i < maxLength; i++) {
-            if (i > 0) {
-                // check if the next string is composed of the same elements
-                int j;
-                for (j = 0; j < length; j++) {
-                    String element = converted[j][i % converted[j].length];
-                    String lastElement = converted[j][(i - 1) % converted[j].length];
-                    if (element != lastElement) {
-                        break;
-                    }
-                }
-                if (reusedResultProfile.profile(j == length)) {
-                    result[i] = lastResult;
-                    continue;
-                }
+            if (i > 0 && isSameRow(columns, i)) {
+                result[i] = lastResult;
+                continue;
             }
-            result[i] = lastResult = concatStrings(converted, i, length, sep);
+            char[] chars = new char[rowLength(columns, i, sep)];
+            int pos = writeRow(columns, i, sep, chars, 0);
+            assert pos == chars.length;
+            result[i] = lastResult = new String(chars);
         }
         return result;
     }
 
-    private static String concatStrings(String[][] converted, int index, int length, String sep) {
-        // pre compute the string length for the StringBuilder
-        int stringLength = -sep.length();
-        for (int j = 0; j < length; j++) {
-            String element = converted[j][index % converted[j].length];
-            stringLength += element.length() + sep.length();
+    /**
+     * Joins the rows straight into the collapsed string, the individual rows are never
+     * materialized.
+     */
+    @TruffleBoundary
+    private String collapseRows(Column[] columns, String sep, String collapse, int maxLength) {
+        long stringLength = (long) collapse.length() * (maxLength - 1);
+        for (int i = 0; i < maxLength; i++) {
+            stringLength += rowLength(columns, i, sep);
+        }
+        if (stringLength > Integer.MAX_VALUE) {
+            throw error(Message.TOO_LONG_VECTOR);
         }
-        char[] chars = new char[stringLength];
+        char[] chars = new char[(int) stringLength];
         int pos = 0;
-        for (int j = 0; j < length; j++) {
+        for (int i = 0; i < maxLength; i++) {
+            if (i > 0) {
+                collapse.getChars(0, collapse.length(), chars, pos);
+                pos += collapse.length();
+            }
+            pos = writeRow(columns, i, sep, chars, pos);
+        }
+        assert pos == chars.length;
+        return new String(chars);
+    }
+
+    /**
+     * Checks if the row {@code index} is composed of the same elements as the previous one.
+     */
+    private static boolean isSameRow(Column[] columns, int index) {
+        for (int j = 0; j < columns.length; j++) {
+            int length = columns[j].getLength();
+            if (!columns[j].isSameElement(index % length, (index - 1) % length)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int rowLength(Column[] columns, int index, String sep) {
+        int stringLength = -sep.length();
+        for (int j = 0; j < columns.length; j++) {
+            stringLength += columns[j].getCharLength(index % columns[j].getLength()) + sep.length();
+        }
+        return stringLength;
+    }
+
+    private static int writeRow(Column[] columns, int index, String sep, char[] chars, int start) {
+        int pos = start;
+        for (int j = 0; j < columns.length; j++) {
             if (j != 0) {
                 sep.getChars(0, sep.length(), chars, pos);
                 pos += sep.length();
             }
-            String element = converted[j][index % converted[j].length];
+            pos = columns[j].getChars(index % columns[j].getLength(), chars, pos);
+        }
+        return pos;
+    }
+
+    /**
+     * One argument of paste, gives the characters of its elements without creating intermediate
+     * strings where possible.
+     */
+    private abstract static class Column {
+
+        abstract int getLength();
+
+        abstract int getCharLength(int index);
+
+        /**
+         * Writes the characters of element {@code index} at {@code pos} and returns the position
+         * after them.
+         */
+        abstract int getChars(int index, char[] chars, int pos);
+
+        abstract boolean isSameElement(int index1, int index2);
+    }
+
+    private static final class StringColumn extends Column {
+        private final String[] data;
+
+        StringColumn(String[] data) {
+            this.data = data;
+        }
+
+        @Override
+        int getLength() {
+            return data.length;
+        }
+
+        @Override
+        int getCharLength(int index) {
+            return data[index].length();
+        }
+
+        @Override
+        int getChars(int index, char[] chars, int pos) {
+            String element = data[index];
             element.getChars(0, element.length(), chars, pos);
-            pos += element.length();
+            return pos + element.length();
+        }
+
+        @Override
+        boolean isSameElement(int index1, int index2) {
+            return data[index1] == data[index2];
         }
-        assert pos == stringLength;
-        return new String(chars);
     }
 
-    private static String collapseString(String[] value, String collapseString) {
-        int stringLength = -collapseString.length();
-        for (int i = 0; i < value.length; i++) {
-            stringLength += collapseString.length() + value[i].length();
+    private static final class IntColumn extends Column {
+        private final RAbstractIntVector vector;
+
+        IntColumn(RAbstractIntVector vector) {
+            this.vector = vector;
         }
-        char[] chars = new char[stringLength];
-        int pos = 0;
-        for (int i = 0; i < value.length; i++) {
-            if (i > 0) {
-                collapseString.getChars(0, collapseString.length(), chars, pos);
-                pos += collapseString.length();
+
+        @Override
+        int getLength() {
+            return vector.getLength();
+        }
+
+        @Override
+        int getCharLength(int index) {
+            int value = vector.getDataAt(index);
+            if (RRuntime.isNA(value)) {
+                return RRuntime.STRING_NA.length();
+            }
+            return value < 0 ? digits(-(long) value) + 1 : digits(value);
+        }
+
+        @Override
+        int getChars(int index, char[] chars, int pos) {
+            int value = vector.getDataAt(index);
+            if (RRuntime.isNA(value)) {
+                RRuntime.STRING_NA.getChars(0, RRuntime.STRING_NA.length(), chars, pos);
+                return pos + RRuntime.STRING_NA.length();
+            }
+            long abs = value;
+            int start = pos;
+            if (value < 0) {
+                chars[start++] = '-';
+                abs = -abs;
+            }
+            int end = start + digits(abs);
+            for (int i = end - 1; i >= start; i--) {
+                chars[i] = (char) ('0' + abs % 10);
+                abs /= 10;
             }
-            String element = value[i];
+            return end;
+        }
+
+        @Override
+        boolean isSameElement(int index1, int index2) {
+            return vector.getDataAt(index1) == vector.getDataAt(index2);
+        }
+
+        private static int digits(long value) {
+            int digits = 1;
+            for (long v = value; v >= 10; v /= 10) {
+                digits++;
+            }
+            return digits;
+        }
+    }
+
+    private static final class LogicalColumn extends Column {
+        private final RAbstractLogicalVector vector;
+
+        LogicalColumn(RAbstractLogicalVector vector) {
+            this.vector = vector;
+        }
+
+        @Override
+        int getLength() {
+            return vector.getLength();
+        }
+
+        @Override
+        int getCharLength(int index) {
+            return RRuntime.logicalToString(vector.getDataAt(index)).length();
+        }
+
+        @Override
+        int getChars(int index, char[] chars, int pos) {
+            String element = RRuntime.logicalToString(vector.getDataAt(index));
             element.getChars(0, element.length(), chars, pos);
-            pos += element.length();
+            return pos + element.length();
+        }
+
+        @Override
+        boolean isSameElement(int index1, int index2) {
+            return vector.getDataAt(index1) == vector.getDataAt(index2);
         }
-        assert pos == stringLength;
-        return new String(chars);
     }
 
     private void ensureAsCharacterFuncNodes() {
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * Stable LSD radix ordering of index vectors for {@link Order} and {@link SortFunctions.RadixSort}.
+ *
+ * Every key vector is first encoded into {@code long} keys whose unsigned order is the R order of
+ * the elements: integers and doubles by flipping sign bits, logicals by their value and strings by
+ * the rank of the value among the distinct strings of the vector. {@code decreasing} is handled by
+ * reflecting the keys, {@code NA} (and {@code NaN}) is then encoded below or above all other keys
+ * depending on {@code na.last}. The keys are then sorted one byte per pass, skipping the bytes
+ * in which all keys agree. Since each pass is stable, equal keys keep their original order, as R
+ * requires, and several key vectors are handled by sorting by the last one first.
+ *
+ * Above {@link #PARALLEL_LENGTH} elements, the histograms and the scattering of each pass are done
+ * in chunks on the common fork-join pool.
+ */
+final class RadixOrder {
+
+    /**
+     * Below this length the shell sort of {@link Order} is faster.
+     */
+    static final int MIN_LENGTH = 256;
+
+    static final int PARALLEL_LENGTH = 1 << 17;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private RadixOrder() {
+        // private
+    }
+
+    static boolean isSupported(Object vector) {
+        return vector instanceof RAbstractIntVector || vector instanceof RAbstractDoubleVector || vector instanceof RAbstractLogicalVector || vector instanceof RAbstractStringVector;
+    }
+
+    private static boolean isNA(RAbstractVector vector, int index) {
+        if (vector instanceof RAbstractIntVector) {
+            return RRuntime.isNA(((RAbstractIntVector) vector).getDataAt(index));
+        } else if (vector instanceof RAbstractDoubleVector) {
+            return RRuntime.isNAorNaN(((RAbstractDoubleVector) vector).getDataAt(index));
+        } else if (vector instanceof RAbstractLogicalVector) {
+            return RRuntime.isNA(((RAbstractLogicalVector) vector).getDataAt(index));
+        } else {
+            return RRuntime.isNA(((RAbstractStringVector) vector).getDataAt(index));
+        }
+    }
+
+    /**
+     * Orders the elements {@code lo} to {@code hi} (inclusive) of {@code indx} by the values of
+     * {@code vector} at these indexes, ties keep their order. {@code collator} is used for strings,
+     * {@code null} means ordering by character codes.
+     */
+    @TruffleBoundary
+    static void sort(int[] indx, int lo, int hi, RAbstractVector vector, boolean naLast, boolean decreasing, Collator collator) {
+        sort(indx, lo, hi - lo + 1, keys(vector, naLast, decreasing, collator));
+    }
+
+    /**
+     * Returns the 0-based order of rows of {@code vectors} (all of the same length and
+     * {@link #isSupported supported}), where {@code decreasing} has one element per vector. If
+     * {@code naLast} is {@code NA}, rows with an {@code NA} in any of the vectors are left out.
+     */
+    @TruffleBoundary
+    static int[] order(RAbstractVector[] vectors, byte naLast, boolean[] decreasing, Collator collator) {
+        int n = vectors[0].getLength();
+        int[] indx;
+        if (RRuntime.isNA(naLast)) {
+            boolean[] na = new boolean[n];
+            int naCount = 0;
+            for (RAbstractVector vector : vectors) {
+                if (!vector.isComplete() || vector instanceof RAbstractDoubleVector) {
+                    for (int i = 0; i < n; i++) {
+                        if (!na[i] && isNA(vector, i)) {
+                            na[i] = true;
+                            naCount++;
+                        }
+                    }
+                }
+            }
+            indx = new int[n - naCount];
+            for (int i = 0, j = 0; i < n; i++) {
+                if (!na[i]) {
+                    indx[j++] = i;
+                }
+            }
+        } else {
+            indx = new int[n];
+            for (int i = 0; i < n; i++) {
+                indx[i] = i;
+            }
+        }
+        for (int k = vectors.length - 1; k >= 0; k--) {
+            sort(indx, 0, indx.length, keys(vectors[k], naLast != RRuntime.LOGICAL_FALSE, decreasing[k], collator));
+        }
+        return indx;
+    }
+
+    private static long[] keys(RAbstractVector vector, boolean naLast, boolean decreasing, Collator collator) {
+        if (vector instanceof RAbstractIntVector) {
+            return intKeys(((RAbstractIntVector) vector).materialize().getReadonlyData(), naLast, decreasing);
+        } else if (vector instanceof RAbstractDoubleVector) {
+            return doubleKeys(((RAbstractDoubleVector) vector).materialize().getReadonlyData(), naLast, decreasing);
+        } else if (vector instanceof RAbstractLogicalVector) {
+            return logicalKeys(((RAbstractLogicalVector) vector).materialize().getReadonlyData(), naLast, decreasing);
+        } else {
+            return stringKeys(((RAbstractStringVector) vector).materialize().getReadonlyData(), naLast, decreasing, collator);
+        }
+    }
+
+    private static long[] intKeys(int[] data, boolean naLast, boolean decreasing) {
+        // INT_NA is the smallest int, all other values map to 1..2^32-1
+        long max = 1L << 32;
+        long naKey = naLast ? max : 0;
+        long[] keys = new long[data.length];
+        forEachChunk(data.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int value = data[i];
+                if (RRuntime.isNA(value)) {
+                    keys[i] = naKey;
+                } else {
+                    long key = (value ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+                    keys[i] = decreasing ? max - key : key;
+                }
+            }
+        });
+        return keys;
+    }
+
+    private static long[] doubleKeys(double[] data, boolean naLast, boolean decreasing) {
+        // all ones and all zeros do not encode a non-NaN double
+        long naKey = naLast ? -1L : 0L;
+        long[] keys = new long[data.length];
+        forEachChunk(data.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                double value = data[i];
+                if (Double.isNaN(value)) {
+                    keys[i] = naKey;
+                } else {
+                    // adding 0.0 turns -0.0 into 0.0
+                    long bits = Double.doubleToRawLongBits(value + 0.0);
+                    long key = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+                    keys[i] = decreasing ? ~key : key;
+                }
+            }
+        });
+        return keys;
+    }
+
+    private static long[] logicalKeys(byte[] data, boolean naLast, boolean decreasing) {
+        long max = 3;
+        long naKey = naLast ? max : 0;
+        long[] keys = new long[data.length];
+        for (int i = 0; i < data.length; i++) {
+            byte value = data[i];
+            if (RRuntime.isNA(value)) {
+                keys[i] = naKey;
+            } else {
+                long key = value + 1;
+                keys[i] = decreasing ? max - key : key;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Strings are keyed by the rank of their value among the distinct values, so only these need to
+     * be compared (and collation keys only need to be computed for them).
+     */
+    private static long[] stringKeys(String[] data, boolean naLast, boolean decreasing, Collator collator) {
+        NonRecursiveHashMapCharacter ids = new NonRecursiveHashMapCharacter(Math.min(data.length, 1024));
+        int[] elementIds = new int[data.length];
+        String[] distinct = new String[16];
+        int distinctCount = 0;
+        for (int i = 0; i < data.length; i++) {
+            String value = data[i];
+            if (RRuntime.isNA(value)) {
+                elementIds[i] = -1;
+                continue;
+            }
+            int id = ids.putIfAbsent(value, distinctCount);
+            if (id == -1) {
+                if (distinctCount == distinct.length) {
+                    distinct = Arrays.copyOf(distinct, distinct.length * 2);
+                }
+                distinct[distinctCount] = value;
+                id = distinctCount++;
+            }
+            elementIds[i] = id;
+        }
+
+        Integer[] sorted = new Integer[distinctCount];
+        for (int i = 0; i < distinctCount; i++) {
+            sorted[i] = i;
+        }
+        String[] values = distinct;
+        if (collator == null) {
+            Arrays.parallelSort(sorted, (a, b) -> values[a].compareTo(values[b]));
+        } else {
+            CollationKey[] collationKeys = new CollationKey[distinctCount];
+            for (int i = 0; i < distinctCount; i++) {
+                collationKeys[i] = collator.getCollationKey(values[i]);
+            }
+            Arrays.parallelSort(sorted, (a, b) -> collationKeys[a].compareTo(collationKeys[b]));
+        }
+        // strings the collator regards as equal get the same rank
+        long[] ranks = new long[distinctCount];
+        long rank = 0;
+        for (int i = 0; i < distinctCount; i++) {
+            if (i > 0 && compare(values, sorted[i - 1], sorted[i], collator) != 0) {
+                rank++;
+            }
+            ranks[sorted[i]] = rank + 1;
+        }
+
+        long max = rank + 2;
+        long naKey = naLast ? max : 0;
+        long[] keys = new long[data.length];
+        forEachChunk(data.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int id = elementIds[i];
+                if (id == -1) {
+                    keys[i] = naKey;
+                } else {
+                    keys[i] = decreasing ? max - ranks[id] : ranks[id];
+                }
+            }
+        });
+        return keys;
+    }
+
+    private static int compare(String[] values, int a, int b, Collator collator) {
+        return collator == null ? values[a].compareTo(values[b]) : collator.compare(values[a], values[b]);
+    }
+
+    /**
+     * Stably sorts the {@code length} elements of {@code indx} starting at {@code lo} by
+     * {@code keys[indx[i]]} in unsigned order.
+     */
+    private static void sort(int[] indx, int lo, int length, long[] keys) {
+        if (length < 2) {
+            return;
+        }
+        long[] k = new long[length];
+        int[] idx = new int[length];
+        long first = keys[indx[lo]];
+        long diff = 0;
+        for (int i = 0; i < length; i++) {
+            idx[i] = indx[lo + i];
+            k[i] = keys[idx[i]];
+            diff |= k[i] ^ first;
+        }
+        if (diff == 0) {
+            return;
+        }
+        long[] k2 = new long[length];
+        int[] idx2 = new int[length];
+        int chunks = chunkCount(length);
+        int chunkSize = (length + chunks - 1) / chunks;
+        int[][] offsets = new int[chunks][RADIX];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            if (((diff >>> shift) & (RADIX - 1)) == 0) {
+                // all keys agree in this digit
+                continue;
+            }
+            int digitShift = shift;
+            long[] src = k;
+            int[] srcIdx = idx;
+            long[] dst = k2;
+            int[] dstIdx = idx2;
+            forEach(chunks, c -> {
+                int[] counts = offsets[c];
+                Arrays.fill(counts, 0);
+                int to = Math.min(length, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < to; i++) {
+                    counts[(int) (src[i] >>> digitShift) & (RADIX - 1)]++;
+                }
+            });
+            // the elements of a chunk go after those of the preceding chunks with the same digit
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                for (int c = 0; c < chunks; c++) {
+                    int count = offsets[c][d];
+                    offsets[c][d] = sum;
+                    sum += count;
+                }
+            }
+            forEach(chunks, c -> {
+                int[] next = offsets[c];
+                int to = Math.min(length, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < to; i++) {
+                    int pos = next[(int) (src[i] >>> digitShift) & (RADIX - 1)]++;
+                    dst[pos] = src[i];
+                    dstIdx[pos] = srcIdx[i];
+                }
+            });
+            k = dst;
+            idx = dstIdx;
+            k2 = src;
+            idx2 = srcIdx;
+        }
+        System.arraycopy(idx, 0, indx, lo, length);
+    }
+
+    private static int chunkCount(int length) {
+        if (length < PARALLEL_LENGTH) {
+            return 1;
+        }
+        return Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), length / (PARALLEL_LENGTH / 2)));
+    }
+
+    private static void forEach(int chunks, IntConsumer action) {
+        if (chunks == 1) {
+            action.accept(0);
+        } else {
+            IntStream.range(0, chunks).parallel().forEach(action);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeAction {
+        void apply(int from, int to);
+    }
+
+    private static void forEachChunk(int length, RangeAction action) {
+        int chunks = chunkCount(length);
+        int chunkSize = (length + chunks - 1) / chunks;
+        forEach(chunks, c -> action.apply(c * chunkSize, Math.min(length, (c + 1) * chunkSize)));
+    }
+}
@@ -40,6 +40,9 @@ public abstract class RowMeans extends RowSumsBase {
 
     @Specialization
     protected RDoubleVector rowMeans(RAbstractDoubleVector x, int rowNum, int colNum, boolean naRm) {
+        if (isLarge(rowNum, colNum)) {
+            return reduceLarge(x, rowNum, colNum, naRm, true, true);
+        }
         return accumulateRows(x, rowNum, colNum, naRm, RowMeans::getMean, (v, nacheck, i) -> v.getDataAt(i));
     }
 
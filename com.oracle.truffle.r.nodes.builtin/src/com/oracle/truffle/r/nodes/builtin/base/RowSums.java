@@ -39,6 +39,9 @@ public abstract class RowSums extends RowSumsBase {
 
     @Specialization
     protected RDoubleVector rowSums(RAbstractDoubleVector x, int rowNum, int colNum, boolean naRm) {
+        if (isLarge(rowNum, colNum)) {
+            return reduceLarge(x, rowNum, colNum, naRm, true, false);
+        }
         return accumulateRows(x, rowNum, colNum, naRm, (sum, cnt) -> sum, (v, nacheck, i) -> v.getDataAt(i));
     }
 
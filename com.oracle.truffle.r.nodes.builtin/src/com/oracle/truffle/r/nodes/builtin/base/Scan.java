@@ -39,6 +39,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.stream.IntStream;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -71,6 +72,13 @@ import com.oracle.truffle.r.runtime.ops.na.NACheck;
 public abstract class Scan extends RBuiltinNode.Arg19 {
 
     private static final int SCAN_BLOCKSIZE = 1000;
+    /*
+     * Unless scan stops after a given number of items or lines (and must not consume more of the
+     * connection), lines are read in blocks of this size and tokenized together, in parallel if
+     * there are at least PARALLEL_LINES of them.
+     */
+    private static final int READ_BLOCK_LINES = 8192;
+    private static final int PARALLEL_LINES = 1024;
     private static final int NO_COMCHAR = 100000; /* won't occur even in Unicode */
 
     private final NACheck naCheck = NACheck.create();
@@ -107,6 +115,10 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
         boolean atStart = false;
         boolean embedWarn = false;
         boolean skipNull = false;
+        boolean readAhead = false;
+        String[] lines = new String[0];
+        String[][] lineItems = new String[0][];
+        int linePos = 0;
     }
 
     static {
@@ -197,6 +209,8 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
 
         data.save = 0;
 
+        data.readAhead = nmax == 0 && nlines == 0 && data.con != StdConnections.getStdin();
+
         try (RConnection openConn = data.con.forceOpen("r")) {
             if (nskip > 0) {
                 openConn.readLines(nskip, EnumSet.of(ReadLineWarning.EMBEDDED_NUL), skipNull);
@@ -228,6 +242,11 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
         return false;
     }
 
+    /**
+     * Splits the line {@code s} into items, returns {@code null} if the line ends inside of a
+     * quoted item. Only depends on the immutable settings in {@code data}, so that lines can be
+     * split in parallel.
+     */
     private static String[] getQuotedItems(LocalData data, String s) {
         ArrayList<String> items = new ArrayList<>();
 
@@ -260,7 +279,7 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
                 pos++;
                 while (true) {
                     if (pos == length) {
-                        throw RError.error(RError.SHOW_CALLER, Message.INCOMPLETE_FINAL_LINE, s);
+                        return null;
                     }
                     ch = s.charAt(pos++);
                     if (ch == quoteStart) {
@@ -286,18 +305,43 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
 
     private static String[] getItems(LocalData data, boolean blSkip) throws IOException {
         while (true) {
-            String[] str = data.con.readLines(1, EnumSet.of(ReadLineWarning.EMBEDDED_NUL), false);
-            if (str == null || str.length == 0) {
+            if (data.linePos == data.lines.length && !readLines(data)) {
                 return null;
+            }
+            String line = data.lines[data.linePos];
+            String[] items = data.lineItems[data.linePos];
+            data.linePos++;
+            if (items == null) {
+                throw RError.error(RError.SHOW_CALLER, Message.INCOMPLETE_FINAL_LINE, line);
+            } else if (blSkip && items.length == 0) {
+                continue;
             } else {
-                String[] items = getQuotedItems(data, str[0]);
-                if (blSkip && items.length == 0) {
-                    continue;
-                } else {
-                    return items.length == 0 ? new String[]{""} : items;
-                }
+                return items.length == 0 ? new String[]{""} : items;
+            }
+        }
+    }
+
+    /**
+     * Reads the next line, or block of lines if {@link LocalData#readAhead} is set, and splits them
+     * into items. Returns {@code false} at the end of the input.
+     */
+    private static boolean readLines(LocalData data) throws IOException {
+        String[] lines = data.con.readLines(data.readAhead ? READ_BLOCK_LINES : 1, EnumSet.of(ReadLineWarning.EMBEDDED_NUL), false);
+        if (lines == null || lines.length == 0) {
+            return false;
+        }
+        String[][] items = new String[lines.length][];
+        if (lines.length >= PARALLEL_LINES) {
+            IntStream.range(0, lines.length).parallel().forEach(i -> items[i] = getQuotedItems(data, lines[i]));
+        } else {
+            for (int i = 0; i < lines.length; i++) {
+                items[i] = getQuotedItems(data, lines[i]);
             }
         }
+        data.lines = lines;
+        data.lineItems = items;
+        data.linePos = 0;
+        return true;
     }
 
     private void fillEmpty(int from, int to, int records, RList list, LocalData data) {
@@ -60,6 +60,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractListVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 
 /**
  * The internal functions mandated by {@code base/sort.R}. N.B. We use the standard JDK sorting
@@ -264,8 +265,10 @@ public class SortFunctions {
     /**
      * This a helper function for the code in sort.R. It does NOT return the input vectors sorted,
      * but returns an {@link RIntVector} of indices (positions) indicating the sort order (Or
-     * {@link RNull#instance} if no vectors). In short it is a special variant of {@code order}. For
-     * now we delegate to {@code order} and do not implement the {@code retgrp} argument.
+     * {@link RNull#instance} if no vectors). In short it is a special variant of {@code order}.
+     * Integer, double, logical and character vectors are ordered by {@link RadixOrder}, characters
+     * by their codes as in GnuR, other vectors are delegated to {@code order}. The {@code retgrp}
+     * argument is not implemented.
      */
     @RBuiltin(name = "radixsort", kind = INTERNAL, parameterNames = {"na.last", "decreasing", "retgrp", "sortstr", "..."}, behavior = PURE)
     public abstract static class RadixSort extends RBuiltinNode.Arg5 {
@@ -294,6 +297,9 @@ public class SortFunctions {
             if (nargs != decreasingVec.getLength()) {
                 throw error(RError.Message.RADIX_SORT_DEC_MATCH);
             }
+            if (isRadixSupported(zz)) {
+                return radixOrder(naLast, decreasingVec, zz);
+            }
             /*
              * Order takes a single decreasing argument that applies to all the vectors. We
              * potentially have a different value for each vector, so we have to process one by one.
@@ -315,5 +321,41 @@ public class SortFunctions {
             Object result = orderNode.execute(naLast, decreasing, zz);
             return result;
         }
+
+        private static boolean isRadixSupported(RArgsValuesAndNames zz) {
+            int length = -1;
+            for (Object arg : zz.getArguments()) {
+                if (!RadixOrder.isSupported(arg)) {
+                    return false;
+                }
+                int argLength = ((RAbstractVector) arg).getLength();
+                if (length != -1 && argLength != length) {
+                    // order reports the error
+                    return false;
+                }
+                length = argLength;
+            }
+            return true;
+        }
+
+        @TruffleBoundary
+        private RIntVector radixOrder(byte naLast, RAbstractLogicalVector decreasingVec, RArgsValuesAndNames zz) {
+            int nargs = zz.getLength();
+            RAbstractVector[] vectors = new RAbstractVector[nargs];
+            boolean[] decreasing = new boolean[nargs];
+            for (int i = 0; i < nargs; i++) {
+                byte db = decreasingVec.getDataAt(i);
+                if (RRuntime.isNA(db)) {
+                    throw error(RError.Message.RADIX_SORT_DEC_NOT_LOGICAL);
+                }
+                decreasing[i] = RRuntime.fromLogical(db);
+                vectors[i] = (RAbstractVector) zz.getArgument(i);
+            }
+            int[] indx = RadixOrder.order(vectors, naLast, decreasing, null);
+            for (int i = 0; i < indx.length; i++) {
+                indx[i]++;
+            }
+            return RDataFactory.createIntVector(indx, RDataFactory.COMPLETE_VECTOR);
+        }
     }
 }
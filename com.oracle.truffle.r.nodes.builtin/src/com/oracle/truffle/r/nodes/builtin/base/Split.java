@@ -25,8 +25,6 @@ package com.oracle.truffle.r.nodes.builtin.base;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
-import java.util.Arrays;
-
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -64,9 +62,6 @@ public abstract class Split extends RBuiltinNode.Arg2 {
     @Child private RFactorNodes.GetLevels getLevelNode = new RFactorNodes.GetLevels();
     @Child private GetSplitNames getSplitNames = GetSplitNamesNodeGen.create();
 
-    private static final int INITIAL_SIZE = 5;
-    private static final int SCALE_FACTOR = 2;
-
     static {
         Casts.noCasts(Split.class);
     }
@@ -78,13 +73,17 @@ public abstract class Split extends RBuiltinNode.Arg2 {
         try (SequentialIterator xIter = xAccess.access(x); SequentialIterator fIter = fAccess.access(f)) {
             RStringVector names = getLevelNode.execute(f);
             int nLevels = getNLevels(names);
+            int[] counts = countLevels(x.getLength(), f, fAccess, nLevels);
             int[] collectResultSize = new int[nLevels];
             Object[] results = new Object[nLevels];
 
             switch (xAccess.getType()) {
                 case Character: {
                     // Initialize result arrays
-                    String[][] collectResults = new String[nLevels][INITIAL_SIZE];
+                    String[][] collectResults = new String[nLevels][];
+                    for (int i = 0; i < nLevels; i++) {
+                        collectResults[i] = new String[counts[i]];
+                    }
 
                     // perform split
                     while (xAccess.next(xIter)) {
@@ -92,22 +91,22 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                         int resultIndex = fAccess.getInt(fIter) - 1; // a factor is a 1-based int
                                                                      // vector
                         String[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
                         collect[collectResultSize[resultIndex]++] = xAccess.getString(xIter);
                     }
 
                     RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
                     for (int i = 0; i < nLevels; i++) {
-                        results[i] = RDataFactory.createStringVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]), x.isComplete(),
+                        results[i] = RDataFactory.createStringVector(collectResults[i], x.isComplete(),
                                         (resultNames != null) ? resultNames[i] : null);
                     }
                     break;
                 }
                 case Complex: {
                     // Initialize result arrays
-                    double[][] collectResults = new double[nLevels][INITIAL_SIZE * 2];
+                    double[][] collectResults = new double[nLevels][];
+                    for (int i = 0; i < nLevels; i++) {
+                        collectResults[i] = new double[counts[i] * 2];
+                    }
 
                     // perform split
                     while (xAccess.next(xIter)) {
@@ -115,9 +114,6 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                         int resultIndex = fAccess.getInt(fIter) - 1; // a factor is a 1-based int
                                                                      // vector
                         double[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex] * 2) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
                         collect[collectResultSize[resultIndex] * 2] = xAccess.getComplexR(xIter);
                         collect[collectResultSize[resultIndex] * 2 + 1] = xAccess.getComplexI(xIter);
                         collectResultSize[resultIndex]++;
@@ -125,14 +121,17 @@ public abstract class Split extends RBuiltinNode.Arg2 {
 
                     RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
                     for (int i = 0; i < nLevels; i++) {
-                        results[i] = RDataFactory.createComplexVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i] * 2), x.isComplete(),
+                        results[i] = RDataFactory.createComplexVector(collectResults[i], x.isComplete(),
                                         (resultNames != null) ? resultNames[i] : null);
                     }
                     break;
                 }
                 case Double: {
                     // Initialize result arrays
-                    double[][] collectResults = new double[nLevels][INITIAL_SIZE];
+                    double[][] collectResults = new double[nLevels][];
+                    for (int i = 0; i < nLevels; i++) {
+                        collectResults[i] = new double[counts[i]];
+                    }
 
                     // perform split
                     while (xAccess.next(xIter)) {
@@ -140,22 +139,22 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                         int resultIndex = fAccess.getInt(fIter) - 1; // a factor is a 1-based int
                                                                      // vector
                         double[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
                         collect[collectResultSize[resultIndex]++] = xAccess.getDouble(xIter);
                     }
 
                     RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
                     for (int i = 0; i < nLevels; i++) {
-                        results[i] = RDataFactory.createDoubleVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]), x.isComplete(),
+                        results[i] = RDataFactory.createDoubleVector(collectResults[i], x.isComplete(),
                                         (resultNames != null) ? resultNames[i] : null);
                     }
                     break;
                 }
                 case Integer: {
                     // Initialize result arrays
-                    int[][] collectResults = new int[nLevels][INITIAL_SIZE];
+                    int[][] collectResults = new int[nLevels][];
+                    for (int i = 0; i < nLevels; i++) {
+                        collectResults[i] = new int[counts[i]];
+                    }
 
                     // perform split
                     while (xAccess.next(xIter)) {
@@ -163,22 +162,22 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                         int resultIndex = fAccess.getInt(fIter) - 1; // a factor is a 1-based int
                                                                      // vector
                         int[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
                         collect[collectResultSize[resultIndex]++] = xAccess.getInt(xIter);
                     }
 
                     RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
                     for (int i = 0; i < nLevels; i++) {
-                        results[i] = RDataFactory.createIntVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]), x.isComplete(),
+                        results[i] = RDataFactory.createIntVector(collectResults[i], x.isComplete(),
                                         (resultNames != null) ? resultNames[i] : null);
                     }
                     break;
                 }
                 case List: {
                     // Initialize result arrays
-                    Object[][] collectResults = new Object[nLevels][INITIAL_SIZE];
+                    Object[][] collectResults = new Object[nLevels][];
+                    for (int i = 0; i < nLevels; i++) {
+                        collectResults[i] = new Object[counts[i]];
+                    }
 
                     // perform split
                     while (xAccess.next(xIter)) {
@@ -186,22 +185,22 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                         int resultIndex = fAccess.getInt(fIter) - 1; // a factor is a 1-based int
                                                                      // vector
                         Object[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
                         collect[collectResultSize[resultIndex]++] = xAccess.getListElement(xIter);
                     }
 
                     RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
                     for (int i = 0; i < nLevels; i++) {
-                        results[i] = RDataFactory.createList(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]),
+                        results[i] = RDataFactory.createList(collectResults[i],
                                         (resultNames != null) ? resultNames[i] : null);
                     }
                     break;
                 }
                 case Logical: {
                     // Initialize result arrays
-                    byte[][] collectResults = new byte[nLevels][INITIAL_SIZE];
+                    byte[][] collectResults = new byte[nLevels][];
+                    for (int i = 0; i < nLevels; i++) {
+                        collectResults[i] = new byte[counts[i]];
+                    }
 
                     // perform split
                     while (xAccess.next(xIter)) {
@@ -209,22 +208,22 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                         int resultIndex = fAccess.getInt(fIter) - 1; // a factor is a 1-based int
                                                                      // vector
                         byte[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
                         collect[collectResultSize[resultIndex]++] = xAccess.getLogical(xIter);
                     }
 
                     RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
                     for (int i = 0; i < nLevels; i++) {
-                        results[i] = RDataFactory.createLogicalVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]), x.isComplete(),
+                        results[i] = RDataFactory.createLogicalVector(collectResults[i], x.isComplete(),
                                         (resultNames != null) ? resultNames[i] : null);
                     }
                     break;
                 }
                 case Raw: {
                     // Initialize result arrays
-                    byte[][] collectResults = new byte[nLevels][INITIAL_SIZE];
+                    byte[][] collectResults = new byte[nLevels][];
+                    for (int i = 0; i < nLevels; i++) {
+                        collectResults[i] = new byte[counts[i]];
+                    }
 
                     // perform split
                     while (xAccess.next(xIter)) {
@@ -232,15 +231,12 @@ public abstract class Split extends RBuiltinNode.Arg2 {
                         int resultIndex = fAccess.getInt(fIter) - 1; // a factor is a 1-based int
                                                                      // vector
                         byte[] collect = collectResults[resultIndex];
-                        if (collect.length == collectResultSize[resultIndex]) {
-                            collectResults[resultIndex] = collect = Arrays.copyOf(collect, collect.length * SCALE_FACTOR);
-                        }
                         collect[collectResultSize[resultIndex]++] = xAccess.getRaw(xIter);
                     }
 
                     RStringVector[] resultNames = getSplitNames.getNames(x, fAccess, fIter, nLevels, collectResultSize);
                     for (int i = 0; i < nLevels; i++) {
-                        results[i] = RDataFactory.createRawVector(Arrays.copyOfRange(collectResults[i], 0, collectResultSize[i]),
+                        results[i] = RDataFactory.createRawVector(collectResults[i],
                                         (resultNames != null) ? resultNames[i] : null);
                     }
                     break;
@@ -301,6 +297,21 @@ public abstract class Split extends RBuiltinNode.Arg2 {
         }
     }
 
+    /**
+     * Counts the elements of {@code x} that go to each level so that the results can be allocated
+     * with their final size.
+     */
+    private static int[] countLevels(int xLength, RAbstractIntVector f, VectorAccess fAccess, int nLevels) {
+        int[] counts = new int[nLevels];
+        try (SequentialIterator fIter = fAccess.access(f)) {
+            for (int i = 0; i < xLength; i++) {
+                fAccess.nextWithWrap(fIter);
+                counts[fAccess.getInt(fIter) - 1]++;
+            }
+        }
+        return counts;
+    }
+
     private static int getNLevels(RStringVector levels) {
         return levels != null ? levels.getLength() : 0;
     }
@@ -26,6 +26,8 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.stringValue;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import java.util.ArrayList;
+import java.util.Formatter;
 import java.util.IllegalFormatException;
 import java.util.Locale;
 
@@ -64,6 +66,11 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
 
     @Child private Sprintf sprintfRecursive;
 
+    private static final int PROGRAM_CACHE_SIZE = 4;
+
+    private final FormatProgram[] programs = new FormatProgram[PROGRAM_CACHE_SIZE];
+    private int nextProgram;
+
     @Specialization
     protected RStringVector sprintf(RAbstractStringVector fmt, RList values) {
         return sprintf(fmt, new RArgsValuesAndNames(values.getReadonlyData(), ArgumentsSignature.empty(values.getLength())));
@@ -107,8 +114,13 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
     @TruffleBoundary
     protected RStringVector sprintf(String fmt, RAbstractIntVector x) {
         String[] r = new String[x.getLength()];
+        FormatProgram program = null;
+        FormatState state = new FormatState();
         for (int k = 0; k < r.length; k++) {
-            r[k] = format(fmt, x.getDataAt(k));
+            if (program == null) {
+                program = getProgram(fmt);
+            }
+            r[k] = format(program, state, new Object[]{x.getDataAt(k)});
         }
         return RDataFactory.createStringVector(r, RDataFactory.COMPLETE_VECTOR);
     }
@@ -122,14 +134,18 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
     @Specialization
     @TruffleBoundary
     protected String sprintf(String fmt, double x) {
-        char f = Character.toLowerCase(firstFormatChar(fmt));
+        return formatDouble(getProgram(fmt), new FormatState(), x);
+    }
+
+    private String formatDouble(FormatProgram program, FormatState state, double x) {
+        char f = Character.toLowerCase(program.getFirstFormatChar());
         if (f == 'x' || f == 'd') {
             if (Math.floor(x) == x) {
-                return format(fmt, (long) x);
+                return format(program, state, new Object[]{(long) x});
             }
-            throw error(RError.Message.INVALID_FORMAT_DOUBLE, fmt);
+            throw error(RError.Message.INVALID_FORMAT_DOUBLE, program.fmt);
         }
-        return format(fmt, x);
+        return format(program, state, new Object[]{x});
     }
 
     @Specialization(guards = "fmtLengthOne(fmt)")
@@ -142,8 +158,13 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
     @TruffleBoundary
     protected RStringVector sprintf(String fmt, RAbstractDoubleVector x) {
         String[] r = new String[x.getLength()];
+        FormatProgram program = null;
+        FormatState state = new FormatState();
         for (int k = 0; k < r.length; k++) {
-            r[k] = sprintf(fmt, x.getDataAt(k));
+            if (program == null) {
+                program = getProgram(fmt);
+            }
+            r[k] = formatDouble(program, state, x.getDataAt(k));
         }
         return RDataFactory.createStringVector(r, RDataFactory.COMPLETE_VECTOR);
     }
@@ -170,8 +191,13 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
     @TruffleBoundary
     protected RStringVector sprintf(String fmt, RAbstractStringVector x) {
         String[] r = new String[x.getLength()];
+        FormatProgram program = null;
+        FormatState state = new FormatState();
         for (int k = 0; k < r.length; k++) {
-            r[k] = format(fmt, x.getDataAt(k));
+            if (program == null) {
+                program = getProgram(fmt);
+            }
+            r[k] = format(program, state, new Object[]{x.getDataAt(k)});
         }
         return RDataFactory.createStringVector(r, RDataFactory.COMPLETE_VECTOR);
     }
@@ -186,8 +212,13 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
     @TruffleBoundary
     protected RStringVector sprintf(String fmt, RAbstractLogicalVector x) {
         String[] r = new String[x.getLength()];
+        FormatProgram program = null;
+        FormatState state = new FormatState();
         for (int k = 0; k < r.length; k++) {
-            r[k] = format(fmt, x.getDataAt(k));
+            if (program == null) {
+                program = getProgram(fmt);
+            }
+            r[k] = format(program, state, new Object[]{x.getDataAt(k)});
         }
         return RDataFactory.createStringVector(r, RDataFactory.COMPLETE_VECTOR);
     }
@@ -250,9 +281,11 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
             }
         } else {
             String[] r = new String[maxLength];
+            FormatProgram program = getProgram(fmt);
+            FormatState state = new FormatState();
             for (int k = 0; k < r.length; k++) {
                 Object[] sprintfArgs = createSprintfArgs(values, k, maxLength);
-                r[k] = format(fmt, sprintfArgs);
+                r[k] = format(program, state, sprintfArgs);
             }
             return RDataFactory.createStringVector(r, RDataFactory.COMPLETE_VECTOR);
 
@@ -313,89 +346,296 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
     }
 
     private String format(String fmt, Object... args) {
+        return format(getProgram(fmt), new FormatState(), args);
+    }
+
+    /**
+     * Formats one set of arguments with a compiled format. The spec values that depend on the
+     * arguments (NA, conversion adjustments and {@code *} width/precision) are resolved first,
+     * then the values are adjusted to their conversions and emitted into the reused buffer.
+     */
+    private String format(FormatProgram program, FormatState state, Object[] args) {
+        FormatInfo[] specs = program.specs;
         char[] conversions = new char[args.length];
-        String format = processFormat(fmt, args, conversions);
+        state.ensureCapacity(specs.length);
+        for (int k = 0; k < specs.length; k++) {
+            FormatInfo fi = specs[k];
+            if (fi.numArg > conversions.length) {
+                throw error(Message.TOO_FEW_ARGUMENTS);
+            }
+            Object arg = args[fi.numArg - 1];
+            char conversion = fi.conversion;
+            boolean padZero = fi.padZero;
+            boolean alwaysSign = fi.alwaysSign;
+            if (isNA(arg)) {
+                conversion = 's';
+                padZero = false;
+                alwaysSign = false;
+                args[fi.numArg - 1] = "NA";
+            }
+            // take care of width/precision being defined by args
+            int w = 0;
+            int p = 0;
+            if (fi.width >= 0 || fi.widthIsArg) {
+                w = fi.widthIsArg ? intValue(args[fi.width - 1]) : fi.width;
+            }
+            if (fi.precision >= 0 || fi.precisionIsArg) {
+                p = fi.precisionIsArg ? intValue(args[fi.precision - 1]) : fi.precision;
+            }
+            if (Character.toLowerCase(conversion) == 'g' && arg instanceof Number && !(arg instanceof Double)) {
+                // Only for g/G type and numeric value other than doubles (including logical)
+                // the type is converted to 'd', which discards any decimal points even if
+                // requested by the formatting command. Otherwise method 'adjustValues' takes
+                // care of converting the value to Double (e.g. for 'f').
+                conversion = 'd';
+            }
+            conversions[fi.numArg - 1] = conversion;
+            state.conversions[k] = conversion;
+            state.padZero[k] = padZero;
+            state.alwaysSign[k] = alwaysSign;
+            state.widths[k] = w;
+            state.precisions[k] = p;
+        }
         adjustValues(args, conversions);
-        return stringFormat(format, fmt, args);
-    }
 
-    private String processFormat(String fmt, Object[] args, char[] conversions) {
-        int i = 0;
-        char[] cs = fmt.toCharArray();
-        StringBuilder sb = new StringBuilder();
-        int argc = 1;
+        StringBuilder sb = state.sb;
+        sb.setLength(0);
+        for (int k = 0; k < specs.length; k++) {
+            sb.append(program.literals[k]);
+            appendSpec(program, state, k, args[specs[k].numArg - 1]);
+        }
+        sb.append(program.literals[specs.length]);
+        return sb.toString();
+    }
 
-        while (i < cs.length) {
-            // skip up to and including next %
-            while (i < cs.length && cs[i] != '%') {
-                sb.append(cs[i++]);
+    private static void appendSpec(FormatProgram program, FormatState state, int k, Object value) {
+        FormatInfo fi = program.specs[k];
+        char conversion = state.conversions[k];
+        boolean padZero = state.padZero[k];
+        boolean alwaysSign = state.alwaysSign[k];
+        boolean hasWidth = fi.width >= 0 || fi.widthIsArg;
+        boolean hasPrecision = fi.precision >= 0 || fi.precisionIsArg;
+        int w = hasWidth ? state.widths[k] : -1;
+        int p = hasPrecision ? state.precisions[k] : -1;
+        StringBuilder sb = state.sb;
+        // the common specs are emitted directly, anything that the Java formatter would reject or
+        // treat specially (zero or negative widths, unusual flag combinations) goes through the formatter
+        if (conversion == 'd' && value instanceof Integer && !hasPrecision && !fi.alternate && (!hasWidth || w > 0) && (hasWidth || !(fi.adjustLeft || padZero)) &&
+                        !(fi.adjustLeft && padZero) && !(alwaysSign && fi.spacePrefix)) {
+            appendInt(sb, (Integer) value, w, fi.adjustLeft, alwaysSign, fi.spacePrefix, padZero);
+        } else if (conversion == 's' && value instanceof String && !padZero && !alwaysSign && !fi.spacePrefix && !fi.alternate && (!hasWidth || w > 0) && (!hasPrecision || p >= 0) &&
+                        (hasWidth || !fi.adjustLeft)) {
+            appendString(sb, (String) value, w, p, fi.adjustLeft);
+        } else {
+            String spec;
+            if (program.javaSpecs[k] != null && conversion == fi.conversion && padZero == fi.padZero && alwaysSign == fi.alwaysSign) {
+                spec = program.javaSpecs[k];
+            } else {
+                spec = javaSpec(fi, conversion, padZero, alwaysSign, hasWidth, w, hasPrecision, p);
             }
-            if (i == cs.length) {
-                break;
+            try {
+                state.getFormatter().format(spec, value);
+            } catch (IllegalFormatException ex) {
+                String message = String.format("Error in Java format String '%s', R format string was '%s'.", spec, program.fmt);
+                throw RInternalError.shouldNotReachHere(ex, message);
             }
-            sb.append(cs[i++]);
+        }
+    }
 
-            FormatInfo fi = extractFormatInfo(cs, i, argc);
-            argc = fi.argc;
-            if (fi.conversion != '%') {
-                if (fi.numArg > conversions.length) {
-                    throw error(Message.TOO_FEW_ARGUMENTS);
-                }
-                Object arg = args[fi.numArg - 1];
-                if (isNA(arg)) {
-                    fi.conversion = 's';
-                    fi.padZero = false;
-                    fi.alwaysSign = false;
-                    args[fi.numArg - 1] = "NA";
-                }
-                // take care of width/precision being defined by args
-                int w = 0;
-                int p = 0;
-                if (fi.width >= 0 || fi.widthIsArg) {
-                    w = fi.widthIsArg ? intValue(args[fi.width - 1]) : fi.width;
-                }
-                if (fi.precision >= 0 || fi.precisionIsArg) {
-                    p = fi.precisionIsArg ? intValue(args[fi.precision - 1]) : fi.precision;
-                }
-                // which argument to print
-                sb.append(intString(fi.numArg)).append('$');
-                // flags
-                if (fi.adjustLeft) {
-                    sb.append('-');
-                }
-                if (fi.alwaysSign) {
-                    sb.append('+');
-                }
-                if (fi.alternate) {
-                    sb.append('#');
-                }
-                if (fi.padZero) {
-                    sb.append('0');
-                }
-                if (fi.spacePrefix) {
-                    sb.append(' ');
+    private static void appendInt(StringBuilder sb, int value, int width, boolean adjustLeft, boolean alwaysSign, boolean spacePrefix, boolean padZero) {
+        String digits = Integer.toString(value);
+        int digitsStart = 0;
+        char sign = '\0';
+        if (value < 0) {
+            sign = '-';
+            digitsStart = 1;
+        } else if (alwaysSign) {
+            sign = '+';
+        } else if (spacePrefix) {
+            sign = ' ';
+        }
+        int length = digits.length() - digitsStart + (sign == '\0' ? 0 : 1);
+        int pad = width - length;
+        if (!adjustLeft && !padZero) {
+            appendPadding(sb, ' ', pad);
+        }
+        if (sign != '\0') {
+            sb.append(sign);
+        }
+        if (padZero) {
+            appendPadding(sb, '0', pad);
+        }
+        sb.append(digits, digitsStart, digits.length());
+        if (adjustLeft) {
+            appendPadding(sb, ' ', pad);
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String value, int width, int precision, boolean adjustLeft) {
+        int length = precision >= 0 && precision < value.length() ? precision : value.length();
+        int pad = width - length;
+        if (!adjustLeft) {
+            appendPadding(sb, ' ', pad);
+        }
+        sb.append(value, 0, length);
+        if (adjustLeft) {
+            appendPadding(sb, ' ', pad);
+        }
+    }
+
+    private static void appendPadding(StringBuilder sb, char c, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+    }
+
+    /**
+     * Creates the Java format specifier for a single conversion spec, the argument is always
+     * passed to the formatter on its own.
+     */
+    private static String javaSpec(FormatInfo fi, char conversion, boolean padZero, boolean alwaysSign, boolean hasWidth, int w, boolean hasPrecision, int p) {
+        StringBuilder sb = new StringBuilder().append('%');
+        if (fi.adjustLeft) {
+            sb.append('-');
+        }
+        if (alwaysSign) {
+            sb.append('+');
+        }
+        if (fi.alternate) {
+            sb.append('#');
+        }
+        if (padZero) {
+            sb.append('0');
+        }
+        if (fi.spacePrefix) {
+            sb.append(' ');
+        }
+        if (hasWidth) {
+            sb.append(w);
+        }
+        if (hasPrecision) {
+            sb.append('.').append(p);
+        }
+        return sb.append(conversion).toString();
+    }
+
+    /**
+     * A format string split into its literal segments and conversion specs. {@code %%} is folded
+     * into the literals, so {@code literals[k]} precedes {@code specs[k]} and the last literal
+     * follows the last spec. The program does not depend on the arguments and is shared by all
+     * elements formatted with the same format string.
+     */
+    private static final class FormatProgram {
+        private final String fmt;
+        private final String[] literals;
+        private final FormatInfo[] specs;
+        /**
+         * The Java format specifier of each spec, {@code null} if the width or precision is given
+         * by an argument.
+         */
+        private final String[] javaSpecs;
+        private char firstFormatChar;
+        private boolean firstFormatCharKnown;
+
+        private FormatProgram(String fmt, String[] literals, FormatInfo[] specs) {
+            this.fmt = fmt;
+            this.literals = literals;
+            this.specs = specs;
+            this.javaSpecs = new String[specs.length];
+            for (int k = 0; k < specs.length; k++) {
+                FormatInfo fi = specs[k];
+                if (!fi.widthIsArg && !fi.precisionIsArg) {
+                    javaSpecs[k] = javaSpec(fi, fi.conversion, fi.padZero, fi.alwaysSign, fi.width >= 0, fi.width, fi.precision >= 0, fi.precision);
                 }
-                // width and precision
-                if (fi.width >= 0 || fi.widthIsArg) {
-                    sb.append(intString(w));
+            }
+        }
+
+        private char getFirstFormatChar() {
+            if (!firstFormatCharKnown) {
+                firstFormatChar = firstFormatChar(fmt);
+                firstFormatCharKnown = true;
+            }
+            return firstFormatChar;
+        }
+
+        private static FormatProgram compile(String fmt) {
+            char[] cs = fmt.toCharArray();
+            ArrayList<String> literals = new ArrayList<>();
+            ArrayList<FormatInfo> specs = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i = 0;
+            int argc = 1;
+            while (i < cs.length) {
+                // skip up to and including next %
+                while (i < cs.length && cs[i] != '%') {
+                    literal.append(cs[i++]);
                 }
-                if (fi.precision >= 0 || fi.precisionIsArg) {
-                    sb.append('.').append(intString(p));
+                if (i == cs.length) {
+                    break;
                 }
-                if (Character.toLowerCase(fi.conversion) == 'g' && arg instanceof Number && !(arg instanceof Double)) {
-                    // Only for g/G type and numeric value other than doubles (including logical)
-                    // the type is converted to 'd', which discards any decimal points even if
-                    // requested by the formatting command. Otherwise method 'adjustValues' takes
-                    // care of converting the value to Double (e.g. for 'f').
-                    fi.conversion = 'd';
+                i++;
+
+                FormatInfo fi = extractFormatInfo(cs, i, argc);
+                argc = fi.argc;
+                if (fi.conversion == '%') {
+                    literal.append('%');
+                } else {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    specs.add(fi);
                 }
-                conversions[fi.numArg - 1] = fi.conversion;
+                i = fi.nextChar;
             }
-            sb.append(fi.conversion);
-            i = fi.nextChar;
+            literals.add(literal.toString());
+            return new FormatProgram(fmt, literals.toArray(new String[literals.size()]), specs.toArray(new FormatInfo[specs.size()]));
         }
+    }
 
-        return sb.toString();
+    /**
+     * The scratch state for formatting a sequence of elements, the resolved per-element spec
+     * values and the output buffer are reused across all elements of one call.
+     */
+    private static final class FormatState {
+        private final StringBuilder sb = new StringBuilder();
+        private Formatter formatter;
+        private char[] conversions = new char[0];
+        private boolean[] padZero = new boolean[0];
+        private boolean[] alwaysSign = new boolean[0];
+        private int[] widths = new int[0];
+        private int[] precisions = new int[0];
+
+        private void ensureCapacity(int specCount) {
+            if (conversions.length < specCount) {
+                conversions = new char[specCount];
+                padZero = new boolean[specCount];
+                alwaysSign = new boolean[specCount];
+                widths = new int[specCount];
+                precisions = new int[specCount];
+            }
+        }
+
+        private Formatter getFormatter() {
+            if (formatter == null) {
+                formatter = new Formatter(sb, (Locale) null);
+            }
+            return formatter;
+        }
+    }
+
+    /**
+     * Returns the compiled program for {@code fmt}, a few recently used formats are kept per call
+     * site so that vectorized calls and loops over the same call only parse their format once.
+     */
+    private FormatProgram getProgram(String fmt) {
+        for (FormatProgram program : programs) {
+            if (program != null && program.fmt.equals(fmt)) {
+                return program;
+            }
+        }
+        FormatProgram program = FormatProgram.compile(fmt);
+        programs[nextProgram] = program;
+        nextProgram = (nextProgram + 1) % programs.length;
+        return program;
     }
 
     private static boolean isNA(Object val) {
@@ -416,11 +656,6 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
         }
     }
 
-    @TruffleBoundary
-    private static String intString(int x) {
-        return Integer.toString(x);
-    }
-
     private static char firstFormatChar(String fmt) {
         int pos = 0;
         char f;
@@ -439,16 +674,6 @@ public abstract class Sprintf extends RBuiltinNode.Arg2 {
         return f;
     }
 
-    @TruffleBoundary
-    private static String stringFormat(String format, String originalFormat, Object[] args) {
-        try {
-            return String.format((Locale) null, format, args);
-        } catch (IllegalFormatException ex) {
-            String message = String.format("Error in Java format String '%s', R format string was '%s'.", format, originalFormat);
-            throw RInternalError.shouldNotReachHere(ex, message);
-        }
-    }
-
     private void adjustValues(Object[] args, char[] conversions) {
         for (int i = 0; i < args.length; i++) {
             if (conversions[i] == 0) {
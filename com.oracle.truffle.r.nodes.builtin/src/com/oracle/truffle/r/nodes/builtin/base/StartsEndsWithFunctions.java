@@ -26,6 +26,7 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.stringValue;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
@@ -65,6 +66,8 @@ public class StartsEndsWithFunctions {
                 String prefix = prefixVec.getDataAt(0);
                 if (RRuntime.isNA(prefix)) {
                     return RDataFactory.createLogicalVector(resultLen, true);
+                } else if (xLen >= FixedStringSearch.PARALLEL_LENGTH) {
+                    return doItParallel(xVec, prefix, startsWith);
                 } else {
                     naCheck.enable(true);
                     for (int i = 0; i < xLen; i++) {
@@ -92,6 +95,22 @@ public class StartsEndsWithFunctions {
             }
             return RDataFactory.createLogicalVector(data, naCheck.neverSeenNA());
         }
+
+        @TruffleBoundary
+        private static Object doItParallel(RAbstractStringVector xVec, String prefix, boolean startsWith) {
+            String[] x = xVec.materialize().getReadonlyData();
+            byte[] data = new byte[x.length];
+            FixedStringSearch.forEachChunk(x.length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    if (RRuntime.isNA(x[i])) {
+                        data[i] = RRuntime.LOGICAL_NA;
+                    } else {
+                        data[i] = RRuntime.asLogical(startsWith ? x[i].startsWith(prefix) : x[i].endsWith(prefix));
+                    }
+                }
+            });
+            return RDataFactory.createLogicalVector(data, xVec.isComplete());
+        }
     }
 
     @RBuiltin(name = "startsWith", kind = INTERNAL, parameterNames = {"x", "prefix"}, behavior = PURE)
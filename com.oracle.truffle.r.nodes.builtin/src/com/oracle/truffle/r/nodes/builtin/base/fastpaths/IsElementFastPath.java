@@ -27,7 +27,11 @@ import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.r.nodes.builtin.MatchInternalNode;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapDouble;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.TableIndexCache;
 import com.oracle.truffle.r.runtime.data.RIntSequence;
 import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
@@ -47,6 +51,13 @@ public abstract class IsElementFastPath extends RFastPathNode {
         RAbstractStringVector set = setClass.cast(setIn);
         String element = el.getDataAt(0);
         int length = set.getLength();
+        if (length >= TableIndexCache.MIN_TABLE_LENGTH && !RRuntime.isNA(element)) {
+            // a set used repeatedly is looked up in the index shared with match()
+            NonRecursiveHashMapCharacter index = TableIndexCache.get(set, NonRecursiveHashMapCharacter.class, MatchInternalNode::indexString);
+            if (index != null) {
+                return RRuntime.asLogical(index.get(element) != -1);
+            }
+        }
         for (int i = 0; i < length; i++) {
             if (element.equals(set.getDataAt(i))) {
                 trueProfile.enter();
@@ -75,6 +86,12 @@ public abstract class IsElementFastPath extends RFastPathNode {
                     @Cached("create()") BranchProfile falseProfile) {
         double element = el.getDataAt(0);
         int length = set.getLength();
+        if (length >= TableIndexCache.MIN_TABLE_LENGTH && !Double.isNaN(element)) {
+            NonRecursiveHashMapDouble index = TableIndexCache.get(set, NonRecursiveHashMapDouble.class, MatchInternalNode::indexDouble);
+            if (index != null) {
+                return RRuntime.asLogical(index.get(element) != -1);
+            }
+        }
         for (int i = 0; i < length; i++) {
             if (element == set.getDataAt(i)) {
                 trueProfile.enter();
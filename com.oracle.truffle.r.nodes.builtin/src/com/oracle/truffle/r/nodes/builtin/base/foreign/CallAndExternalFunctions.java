@@ -47,6 +47,9 @@ import com.oracle.truffle.r.library.methods.SlotFactory.R_hasSlotNodeGen;
 import com.oracle.truffle.r.library.methods.SlotFactory.R_setSlotNodeGen;
 import com.oracle.truffle.r.library.methods.SubstituteDirectNodeGen;
 import com.oracle.truffle.r.library.parallel.ParallelFunctionsFactory.MCIsChildNodeGen;
+import com.oracle.truffle.r.library.parallel.ParallelFunctionsFactory.MCScheduleCreateNodeGen;
+import com.oracle.truffle.r.library.parallel.ParallelFunctionsFactory.MCScheduleFreeNodeGen;
+import com.oracle.truffle.r.library.parallel.ParallelFunctionsFactory.MCScheduleNextNodeGen;
 import com.oracle.truffle.r.library.stats.Approx;
 import com.oracle.truffle.r.library.stats.ApproxTest;
 import com.oracle.truffle.r.library.stats.BinDist;
@@ -631,6 +634,12 @@ public class CallAndExternalFunctions {
                 // parallel
                 case "mc_is_child":
                     return MCIsChildNodeGen.create();
+                case "mc_schedule_create":
+                    return MCScheduleCreateNodeGen.create();
+                case "mc_schedule_next":
+                    return MCScheduleNextNodeGen.create();
+                case "mc_schedule_free":
+                    return MCScheduleFreeNodeGen.create();
                 default:
                     return null;
             }
@@ -23,6 +23,8 @@
 package com.oracle.truffle.r.nodes.builtin.fastr;
 
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.equalTo;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.gt0;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.gte0;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.instanceOf;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.notEmpty;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElement;
@@ -33,6 +35,9 @@ import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.READS_STATE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleContext;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -48,6 +53,7 @@ import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RSource;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.context.ChildContextInfo;
+import com.oracle.truffle.r.runtime.context.ChildContextPool;
 import com.oracle.truffle.r.runtime.context.EvalThread;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.RContext.ConsoleIO;
@@ -208,6 +214,66 @@ public class FastRContext {
         }
     }
 
+    /**
+     * Takes at most {@code n} idle {@code SHARED} cluster nodes of the given kind from the pool of
+     * the current context (see {@link ChildContextPool}). The result may be shorter than {@code n}
+     * and the caller is expected to spawn the missing nodes.
+     */
+    @RBuiltin(name = ".fastr.context.pool.acquire", kind = PRIMITIVE, parameterNames = {"n", "kind"}, behavior = COMPLEX)
+    public abstract static class PoolAcquire extends RBuiltinNode.Arg2 {
+        @Override
+        public Object[] getDefaultParameterValues() {
+            return new Object[]{RMissing.instance, FastROptions.SharedContexts.getBooleanValue() ? "SHARE_ALL" : "SHARE_NOTHING"};
+        }
+
+        static {
+            Casts casts = new Casts(PoolAcquire.class);
+            casts.arg("n").asIntegerVector().findFirst().mustNotBeNA().mustBe(gte0());
+            CastsHelper.kind(casts);
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RList acquire(int n, String kind) {
+            List<RList> nodes = RContext.getInstance().stateChildContextPool.acquire(ContextKind.valueOf(kind), n);
+            return RDataFactory.createList(nodes.toArray());
+        }
+    }
+
+    /**
+     * Returns idle {@code SHARED} cluster nodes of the given kind to the pool of the current
+     * context. The nodes that exceed {@link FastROptions#ContextPoolSize} are returned as a list
+     * and should be stopped by the caller.
+     */
+    @RBuiltin(name = ".fastr.context.pool.release", kind = PRIMITIVE, parameterNames = {"nodes", "kind"}, behavior = COMPLEX)
+    public abstract static class PoolRelease extends RBuiltinNode.Arg2 {
+        @Override
+        public Object[] getDefaultParameterValues() {
+            return new Object[]{RMissing.instance, FastROptions.SharedContexts.getBooleanValue() ? "SHARE_ALL" : "SHARE_NOTHING"};
+        }
+
+        static {
+            Casts casts = new Casts(PoolRelease.class);
+            casts.arg("nodes").mustBe(instanceOf(RList.class));
+            CastsHelper.kind(casts);
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RList release(RList nodes, String kind) {
+            ArrayList<RList> released = new ArrayList<>(nodes.getLength());
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Object node = nodes.getDataAt(i);
+                if (!(node instanceof RList)) {
+                    throw error(RError.Message.GENERIC, "invalid cluster node");
+                }
+                released.add((RList) node);
+            }
+            List<RList> rejected = RContext.getInstance().stateChildContextPool.release(ContextKind.valueOf(kind), released);
+            return RDataFactory.createList(rejected.toArray());
+        }
+    }
+
     @RBuiltin(name = ".fastr.context.interrupt", visibility = OFF, kind = PRIMITIVE, parameterNames = {"handle"}, behavior = COMPLEX)
     public abstract static class Interrupt extends RBuiltinNode.Arg1 {
 
@@ -382,18 +448,29 @@ public class FastRContext {
         return ChildContextInfo.createNoRestore(Client.RSCRIPT, null, contextKind, context, console.getStdin(), console.getStdout(), console.getStderr());
     }
 
-    @RBuiltin(name = ".fastr.channel.create", kind = PRIMITIVE, parameterNames = {"key"}, behavior = COMPLEX)
-    public abstract static class CreateChannel extends RBuiltinNode.Arg1 {
+    /**
+     * Creates a channel identified by {@code key}. The optional {@code capacity} determines how
+     * many messages can be sent in each direction before the sender blocks, which defaults to the
+     * value of {@link FastROptions#ChannelQueueCapacity}.
+     */
+    @RBuiltin(name = ".fastr.channel.create", kind = PRIMITIVE, parameterNames = {"key", "capacity"}, behavior = COMPLEX)
+    public abstract static class CreateChannel extends RBuiltinNode.Arg2 {
+
+        @Override
+        public Object[] getDefaultParameterValues() {
+            return new Object[]{RMissing.instance, RChannel.getDefaultCapacity()};
+        }
 
         static {
             Casts casts = new Casts(CreateChannel.class);
             CastsHelper.key(casts);
+            casts.arg("capacity").asIntegerVector().findFirst().mustNotBeNA().mustBe(gt0());
         }
 
         @Specialization
         @TruffleBoundary
-        protected int createChannel(int key) {
-            return RChannel.createChannel(key);
+        protected int createChannel(int key, int capacity) {
+            return RChannel.createChannel(key, capacity);
         }
     }
 
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.READS_STATE;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.ArrayList;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.ffi.DLL;
+import com.oracle.truffle.r.runtime.ffi.DLL.DLLInfo;
+
+/**
+ * Returns the statistics of the native mirrors (see {@link NativeDataAccess}) as a named numeric
+ * vector or, if {@code byPackage} is {@code TRUE}, a matrix with the number of outermost native
+ * calls and of the mirrors created during them for each library loaded in the current context.
+ */
+@RBuiltin(name = ".fastr.native.mirror.stats", kind = PRIMITIVE, parameterNames = {"byPackage"}, behavior = READS_STATE)
+public abstract class FastRNativeMirrorStats extends RBuiltinNode.Arg1 {
+
+    private static final String[] NAMES = new String[]{"created", "released", "live", "slots", "addressed"};
+    private static final String[] PACKAGE_COLUMNS = new String[]{"calls", "mirrors"};
+
+    static {
+        Casts casts = new Casts(FastRNativeMirrorStats.class);
+        casts.arg("byPackage").asLogicalVector().findFirst().mustNotBeNA().map(toBoolean());
+    }
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        return new Object[]{RRuntime.LOGICAL_FALSE};
+    }
+
+    @Specialization
+    @TruffleBoundary
+    protected RDoubleVector stats(boolean byPackage) {
+        if (byPackage) {
+            ArrayList<DLLInfo> dlls = DLL.getLoadedDLLs();
+            int n = dlls.size();
+            String[] packages = new String[n];
+            double[] data = new double[n * PACKAGE_COLUMNS.length];
+            for (int i = 0; i < n; i++) {
+                DLLInfo dllInfo = dlls.get(i);
+                packages[i] = dllInfo.name;
+                data[i] = dllInfo.getNativeCalls();
+                data[i + n] = dllInfo.getNativeCallMirrors();
+            }
+            return RDataFactory.createDoubleVector(data, RDataFactory.COMPLETE_VECTOR, new int[]{n, PACKAGE_COLUMNS.length}, null,
+                            RDataFactory.createList(new Object[]{RDataFactory.createStringVector(packages, RDataFactory.COMPLETE_VECTOR),
+                                            RDataFactory.createStringVector(PACKAGE_COLUMNS, RDataFactory.COMPLETE_VECTOR)}));
+        }
+        long[] stats = NativeDataAccess.getNativeMirrorStatistics();
+        double[] data = new double[stats.length];
+        for (int i = 0; i < stats.length; i++) {
+            data[i] = stats[i];
+        }
+        return RDataFactory.createDoubleVector(data, RDataFactory.COMPLETE_VECTOR, RDataFactory.createStringVector(NAMES, RDataFactory.COMPLETE_VECTOR));
+    }
+}
@@ -45,6 +45,9 @@ public class ExtBuiltinsList {
                     com.oracle.truffle.r.library.utils.Crc64NodeGen.class,
                     com.oracle.truffle.r.library.utils.CountFields.class,
                     com.oracle.truffle.r.library.parallel.ParallelFunctionsFactory.MCIsChildNodeGen.class,
+                    com.oracle.truffle.r.library.parallel.ParallelFunctionsFactory.MCScheduleCreateNodeGen.class,
+                    com.oracle.truffle.r.library.parallel.ParallelFunctionsFactory.MCScheduleNextNodeGen.class,
+                    com.oracle.truffle.r.library.parallel.ParallelFunctionsFactory.MCScheduleFreeNodeGen.class,
                     com.oracle.truffle.r.nodes.builtin.base.foreign.WriteTableNodeGen.class,
                     com.oracle.truffle.r.nodes.builtin.base.foreign.ReadTableHeadNodeGen.class,
                     com.oracle.truffle.r.nodes.builtin.base.foreign.MakeQuartzDefault.class,
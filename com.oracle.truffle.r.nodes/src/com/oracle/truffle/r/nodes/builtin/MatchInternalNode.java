@@ -32,8 +32,17 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.unary.CastStringNode;
 import com.oracle.truffle.r.nodes.unary.CastStringNodeGen;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapComplex;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapDouble;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapInt;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetCharacter;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetComplex;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetDouble;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetInt;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.TableIndexCache;
 import com.oracle.truffle.r.runtime.data.CharSXPWrapper;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
@@ -109,6 +118,11 @@ public abstract class MatchInternalNode extends RBaseNode {
                     @Cached("create()") BranchProfile foundProfile,
                     @Cached("create()") BranchProfile notFoundProfile) {
         int element = x.getDataAt(0);
+        NonRecursiveHashMapInt hashTable = TableIndexCache.get(table, NonRecursiveHashMapInt.class, MatchInternalNode::indexInt);
+        if (hashTable != null) {
+            int index = hashTable.get(element);
+            return index == -1 ? nomatch : index + 1;
+        }
         int length = table.getLength();
         if (naProfile.isNA(element)) {
             for (int i = 0; i < length; i++) {
@@ -134,23 +148,22 @@ public abstract class MatchInternalNode extends RBaseNode {
     protected RIntVector match(RAbstractIntVector x, RAbstractIntVector table, int nomatch) {
         int[] result = initResult(x.getLength(), nomatch);
         boolean matchAll = true;
-        NonRecursiveHashMapInt hashTable;
-        if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-            hashTable = new NonRecursiveHashMapInt(x.getLength());
-            NonRecursiveHashSetInt hashSet = new NonRecursiveHashSetInt(x.getLength());
-            for (int i = 0; i < result.length; i++) {
-                hashSet.add(x.getDataAt(i));
-            }
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                int val = table.getDataAt(i);
-                if (hashSet.contains(val)) {
-                    hashTable.put(val, i);
+        NonRecursiveHashMapInt hashTable = TableIndexCache.get(table, NonRecursiveHashMapInt.class, MatchInternalNode::indexInt);
+        if (hashTable == null) {
+            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                hashTable = new NonRecursiveHashMapInt(x.getLength());
+                NonRecursiveHashSetInt hashSet = new NonRecursiveHashSetInt(x.getLength());
+                for (int i = 0; i < result.length; i++) {
+                    hashSet.add(x.getDataAt(i));
+                }
+                for (int i = table.getLength() - 1; i >= 0; i--) {
+                    int val = table.getDataAt(i);
+                    if (hashSet.contains(val)) {
+                        hashTable.put(val, i);
+                    }
                 }
-            }
-        } else {
-            hashTable = new NonRecursiveHashMapInt(table.getLength());
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                hashTable.put(table.getDataAt(i), i);
+            } else {
+                hashTable = indexInt(table);
             }
         }
         for (int i = 0; i < result.length; i++) {
@@ -170,23 +183,22 @@ public abstract class MatchInternalNode extends RBaseNode {
     protected RIntVector match(RAbstractDoubleVector x, RAbstractIntVector table, int nomatch) {
         int[] result = initResult(x.getLength(), nomatch);
         boolean matchAll = true;
-        NonRecursiveHashMapDouble hashTable;
-        if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-            hashTable = new NonRecursiveHashMapDouble(x.getLength());
-            NonRecursiveHashSetDouble hashSet = new NonRecursiveHashSetDouble(x.getLength());
-            for (int i = 0; i < result.length; i++) {
-                hashSet.add(x.getDataAt(i));
-            }
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                int val = table.getDataAt(i);
-                if (hashSet.contains(RRuntime.int2double(val))) {
-                    hashTable.put(RRuntime.int2double(val), i);
+        NonRecursiveHashMapDouble hashTable = TableIndexCache.get(table, NonRecursiveHashMapDouble.class, MatchInternalNode::indexIntAsDouble);
+        if (hashTable == null) {
+            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                hashTable = new NonRecursiveHashMapDouble(x.getLength());
+                NonRecursiveHashSetDouble hashSet = new NonRecursiveHashSetDouble(x.getLength());
+                for (int i = 0; i < result.length; i++) {
+                    hashSet.add(x.getDataAt(i));
+                }
+                for (int i = table.getLength() - 1; i >= 0; i--) {
+                    int val = table.getDataAt(i);
+                    if (hashSet.contains(RRuntime.int2double(val))) {
+                        hashTable.put(RRuntime.int2double(val), i);
+                    }
                 }
-            }
-        } else {
-            hashTable = new NonRecursiveHashMapDouble(table.getLength());
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                hashTable.put(RRuntime.int2double(table.getDataAt(i)), i);
+            } else {
+                hashTable = indexIntAsDouble(table);
             }
         }
         for (int i = 0; i < result.length; i++) {
@@ -206,30 +218,24 @@ public abstract class MatchInternalNode extends RBaseNode {
     protected RIntVector match(RAbstractIntVector x, RAbstractDoubleVector table, int nomatch) {
         int[] result = initResult(x.getLength(), nomatch);
         boolean matchAll = true;
-        NonRecursiveHashMapInt hashTable;
-        if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-            hashTable = new NonRecursiveHashMapInt(x.getLength());
-            NonRecursiveHashSetInt hashSet = new NonRecursiveHashSetInt(x.getLength());
-            for (int i = 0; i < result.length; i++) {
-                hashSet.add(x.getDataAt(i));
-            }
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                double val = table.getDataAt(i);
-                if (RRuntime.isNA(val) && hashSet.contains(RRuntime.INT_NA)) {
-                    hashTable.put(RRuntime.INT_NA, i);
-                } else if (val == (int) val && hashSet.contains((int) val)) {
-                    hashTable.put((int) val, i);
-                }
-            }
-        } else {
-            hashTable = new NonRecursiveHashMapInt(table.getLength());
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                double xx = table.getDataAt(i);
-                if (RRuntime.isNA(xx)) {
-                    hashTable.put(RRuntime.INT_NA, i);
-                } else if (xx == (int) xx) {
-                    hashTable.put((int) xx, i);
+        NonRecursiveHashMapInt hashTable = TableIndexCache.get(table, NonRecursiveHashMapInt.class, MatchInternalNode::indexDoubleAsInt);
+        if (hashTable == null) {
+            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                hashTable = new NonRecursiveHashMapInt(x.getLength());
+                NonRecursiveHashSetInt hashSet = new NonRecursiveHashSetInt(x.getLength());
+                for (int i = 0; i < result.length; i++) {
+                    hashSet.add(x.getDataAt(i));
+                }
+                for (int i = table.getLength() - 1; i >= 0; i--) {
+                    double val = table.getDataAt(i);
+                    if (RRuntime.isNA(val) && hashSet.contains(RRuntime.INT_NA)) {
+                        hashTable.put(RRuntime.INT_NA, i);
+                    } else if (val == (int) val && hashSet.contains((int) val)) {
+                        hashTable.put((int) val, i);
+                    }
                 }
+            } else {
+                hashTable = indexDoubleAsInt(table);
             }
         }
         for (int i = 0; i < result.length; i++) {
@@ -251,6 +257,11 @@ public abstract class MatchInternalNode extends RBaseNode {
                     @Cached("create()") BranchProfile foundProfile,
                     @Cached("create()") BranchProfile notFoundProfile) {
         double element = x.getDataAt(0);
+        NonRecursiveHashMapDouble hashTable = TableIndexCache.get(table, NonRecursiveHashMapDouble.class, MatchInternalNode::indexDouble);
+        if (hashTable != null) {
+            int index = hashTable.get(element);
+            return index == -1 ? nomatch : index + 1;
+        }
         int length = table.getLength();
         if (naProfile.isNA(element)) {
             for (int i = 0; i < length; i++) {
@@ -276,23 +287,22 @@ public abstract class MatchInternalNode extends RBaseNode {
     protected RIntVector match(RAbstractDoubleVector x, RAbstractDoubleVector table, int nomatch) {
         int[] result = initResult(x.getLength(), nomatch);
         boolean matchAll = true;
-        NonRecursiveHashMapDouble hashTable;
-        if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-            hashTable = new NonRecursiveHashMapDouble(x.getLength());
-            NonRecursiveHashSetDouble hashSet = new NonRecursiveHashSetDouble(x.getLength());
-            for (int i = 0; i < result.length; i++) {
-                hashSet.add(x.getDataAt(i));
-            }
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                double val = table.getDataAt(i);
-                if (hashSet.contains(val)) {
-                    hashTable.put(val, i);
+        NonRecursiveHashMapDouble hashTable = TableIndexCache.get(table, NonRecursiveHashMapDouble.class, MatchInternalNode::indexDouble);
+        if (hashTable == null) {
+            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                hashTable = new NonRecursiveHashMapDouble(x.getLength());
+                NonRecursiveHashSetDouble hashSet = new NonRecursiveHashSetDouble(x.getLength());
+                for (int i = 0; i < result.length; i++) {
+                    hashSet.add(x.getDataAt(i));
+                }
+                for (int i = table.getLength() - 1; i >= 0; i--) {
+                    double val = table.getDataAt(i);
+                    if (hashSet.contains(val)) {
+                        hashTable.put(val, i);
+                    }
                 }
-            }
-        } else {
-            hashTable = new NonRecursiveHashMapDouble(table.getLength());
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                hashTable.put(table.getDataAt(i), i);
+            } else {
+                hashTable = indexDouble(table);
             }
         }
         for (int i = 0; i < result.length; i++) {
@@ -396,6 +406,11 @@ public abstract class MatchInternalNode extends RBaseNode {
                     @Cached("create()") BranchProfile foundProfile,
                     @Cached("create()") BranchProfile notFoundProfile) {
         String element = x.getDataAt(0);
+        NonRecursiveHashMapCharacter hashTable = TableIndexCache.get(table, NonRecursiveHashMapCharacter.class, MatchInternalNode::indexString);
+        if (hashTable != null) {
+            int index = hashTable.get(element);
+            return index == -1 ? nomatch : index + 1;
+        }
         int length = table.getLength();
         if (naProfile.isNA(element)) {
             for (int i = 0; i < length; i++) {
@@ -421,23 +436,22 @@ public abstract class MatchInternalNode extends RBaseNode {
     protected RIntVector match(RAbstractStringVector x, RAbstractStringVector table, int nomatch) {
         int[] result = initResult(x.getLength(), nomatch);
         boolean matchAll = true;
-        NonRecursiveHashMapCharacter hashTable;
-        if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-            hashTable = new NonRecursiveHashMapCharacter(x.getLength());
-            NonRecursiveHashSetCharacter hashSet = new NonRecursiveHashSetCharacter(x.getLength());
-            for (int i = 0; i < result.length; i++) {
-                hashSet.add(x.getDataAt(i));
-            }
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                String val = table.getDataAt(i);
-                if (hashSet.contains(val)) {
-                    hashTable.put(val, i);
+        NonRecursiveHashMapCharacter hashTable = TableIndexCache.get(table, NonRecursiveHashMapCharacter.class, MatchInternalNode::indexString);
+        if (hashTable == null) {
+            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                hashTable = new NonRecursiveHashMapCharacter(x.getLength());
+                NonRecursiveHashSetCharacter hashSet = new NonRecursiveHashSetCharacter(x.getLength());
+                for (int i = 0; i < result.length; i++) {
+                    hashSet.add(x.getDataAt(i));
+                }
+                for (int i = table.getLength() - 1; i >= 0; i--) {
+                    String val = table.getDataAt(i);
+                    if (hashSet.contains(val)) {
+                        hashTable.put(val, i);
+                    }
                 }
-            }
-        } else {
-            hashTable = new NonRecursiveHashMapCharacter(table.getLength());
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                hashTable.put(table.getDataAt(i), i);
+            } else {
+                hashTable = indexString(table);
             }
         }
         for (int i = 0; i < result.length; i++) {
@@ -768,6 +782,11 @@ public abstract class MatchInternalNode extends RBaseNode {
                     @Cached("create()") BranchProfile foundProfile,
                     @Cached("create()") BranchProfile notFoundProfile) {
         RComplex element = x.getDataAt(0);
+        NonRecursiveHashMapComplex hashTable = TableIndexCache.get(table, NonRecursiveHashMapComplex.class, MatchInternalNode::indexComplex);
+        if (hashTable != null) {
+            int index = hashTable.get(element);
+            return index == -1 ? nomatch : index + 1;
+        }
         int length = table.getLength();
         if (naProfile.isNA(element)) {
             for (int i = 0; i < length; i++) {
@@ -793,23 +812,22 @@ public abstract class MatchInternalNode extends RBaseNode {
     protected RIntVector match(RAbstractComplexVector x, RAbstractComplexVector table, int nomatch) {
         int[] result = initResult(x.getLength(), nomatch);
         boolean matchAll = true;
-        NonRecursiveHashMapComplex hashTable;
-        if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-            hashTable = new NonRecursiveHashMapComplex(x.getLength());
-            NonRecursiveHashSetComplex hashSet = new NonRecursiveHashSetComplex(x.getLength());
-            for (int i = 0; i < result.length; i++) {
-                hashSet.add(x.getDataAt(i));
-            }
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                RComplex val = table.getDataAt(i);
-                if (hashSet.contains(val)) {
-                    hashTable.put(val, i);
+        NonRecursiveHashMapComplex hashTable = TableIndexCache.get(table, NonRecursiveHashMapComplex.class, MatchInternalNode::indexComplex);
+        if (hashTable == null) {
+            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                hashTable = new NonRecursiveHashMapComplex(x.getLength());
+                NonRecursiveHashSetComplex hashSet = new NonRecursiveHashSetComplex(x.getLength());
+                for (int i = 0; i < result.length; i++) {
+                    hashSet.add(x.getDataAt(i));
+                }
+                for (int i = table.getLength() - 1; i >= 0; i--) {
+                    RComplex val = table.getDataAt(i);
+                    if (hashSet.contains(val)) {
+                        hashTable.put(val, i);
+                    }
                 }
-            }
-        } else {
-            hashTable = new NonRecursiveHashMapComplex(table.getLength());
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                hashTable.put(table.getDataAt(i), i);
+            } else {
+                hashTable = indexComplex(table);
             }
         }
         for (int i = 0; i < result.length; i++) {
@@ -824,299 +842,78 @@ public abstract class MatchInternalNode extends RBaseNode {
         return RDataFactory.createIntVector(result, setCompleteState(matchAll, nomatch));
     }
 
-    private static int[] initResult(int length, int nomatch) {
-        int[] result = new int[length];
-        Arrays.fill(result, nomatch);
-        return result;
-    }
+    // indexes of whole tables, the first occurrence of a value wins; they are also used by the
+    // is.element fast path so that both share the cached index of a table
 
-    /**
-     * Set the "complete" status. If {@code nomatch} is not NA (uncommon), then the result vector is
-     * always COMPLETE, otherwise it is INCOMPLETE unless everything matched.
-     */
-    private static boolean setCompleteState(boolean matchAll, int nomatch) {
-        return nomatch != RRuntime.INT_NA || matchAll ? RDataFactory.COMPLETE_VECTOR : RDataFactory.INCOMPLETE_VECTOR;
-    }
-
-    // simple implementations of non-recursive hash-maps to enable compilation
-    // TODO: consider replacing with a more efficient library implementation
-
-    private abstract static class NonRecursiveHashMap {
-
-        protected final int[] values;
-        protected int naValue;
-
-        protected NonRecursiveHashMap(int entryCount) {
-            int capacity = Math.max(entryCount * 3 / 2, 1);
-            values = new int[Integer.highestOneBit(capacity) << 2];
-        }
-
-        protected int index(int hash) {
-            // Multiply by -127
-            return ((hash << 1) - (hash << 8)) & (values.length - 1);
+    private static NonRecursiveHashMapInt indexInt(RAbstractIntVector table) {
+        NonRecursiveHashMapInt hashTable = new NonRecursiveHashMapInt(table.getLength());
+        for (int i = table.getLength() - 1; i >= 0; i--) {
+            hashTable.put(table.getDataAt(i), i);
         }
+        return hashTable;
     }
 
-    private static final class NonRecursiveHashMapCharacter extends NonRecursiveHashMap {
-
-        private final String[] keys;
-
-        NonRecursiveHashMapCharacter(int approxCapacity) {
-            super(approxCapacity);
-            keys = new String[values.length];
-        }
-
-        public boolean put(String key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(key.hashCode());
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key.equals(keys[ind])) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
-        }
-
-        public int get(String key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else {
-                int ind = index(key.hashCode());
-                int firstInd = ind;
-                while (true) {
-                    if (key.equals(keys[ind])) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
+    private static NonRecursiveHashMapDouble indexIntAsDouble(RAbstractIntVector table) {
+        NonRecursiveHashMapDouble hashTable = new NonRecursiveHashMapDouble(table.getLength());
+        for (int i = table.getLength() - 1; i >= 0; i--) {
+            hashTable.put(RRuntime.int2double(table.getDataAt(i)), i);
         }
+        return hashTable;
     }
 
-    private static final class NonRecursiveHashMapComplex extends NonRecursiveHashMap {
-
-        private final RComplex[] keys;
-        private final int m;
-        private final int k;
-
-        NonRecursiveHashMapComplex(int entryCount) {
-            super(entryCount);
-            keys = new RComplex[values.length];
-
-            int m1 = 2;
-            int k1 = 1;
-            int n = 2 * entryCount;
-            while (m1 < n) {
-                m1 *= 2;
-                k1++;
-            }
-            m = m1;
-            k = k1;
-        }
-
-        public boolean put(RComplex key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(key.hashCode());
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key.equals(keys[ind])) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind = (ind + 1) % m;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
-        }
-
-        public int get(RComplex key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else {
-                int ind = index(key.hashCode());
-                int firstInd = ind;
-                while (true) {
-                    if (key.equals(keys[ind])) {
-                        return values[ind] - 1;
-                    } else {
-                        ind = (ind + 1) % m;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
+    private static NonRecursiveHashMapInt indexDoubleAsInt(RAbstractDoubleVector table) {
+        NonRecursiveHashMapInt hashTable = new NonRecursiveHashMapInt(table.getLength());
+        for (int i = table.getLength() - 1; i >= 0; i--) {
+            double xx = table.getDataAt(i);
+            if (RRuntime.isNA(xx)) {
+                hashTable.put(RRuntime.INT_NA, i);
+            } else if (xx == (int) xx) {
+                hashTable.put((int) xx, i);
             }
         }
-
-        private static final int u = new Long(3141592653L).intValue();
-
-        @Override
-        protected int index(int key) {
-            return u * key >>> (32 - k);
-        }
+        return hashTable;
     }
 
-    private static final class NonRecursiveHashMapDouble extends NonRecursiveHashMap {
-
-        private final double[] keys;
-        private int nanValue;
-
-        NonRecursiveHashMapDouble(int approxCapacity) {
-            super(approxCapacity);
-            keys = new double[values.length];
-            Arrays.fill(keys, RRuntime.DOUBLE_NA);
-        }
-
-        public boolean put(double key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else if (Double.isNaN(key)) {
-                boolean ret = nanValue == 0;
-                nanValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(Double.hashCode(key));
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key == keys[ind]) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
+    public static NonRecursiveHashMapDouble indexDouble(RAbstractDoubleVector table) {
+        NonRecursiveHashMapDouble hashTable = new NonRecursiveHashMapDouble(table.getLength());
+        for (int i = table.getLength() - 1; i >= 0; i--) {
+            hashTable.put(table.getDataAt(i), i);
         }
+        return hashTable;
+    }
 
-        public int get(double key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else if (Double.isNaN(key)) {
-                return nanValue - 1;
-            } else {
-                int ind = index(Double.hashCode(key));
-                int firstInd = ind;
-                while (true) {
-                    if (key == keys[ind]) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
+    public static NonRecursiveHashMapCharacter indexString(RAbstractStringVector table) {
+        NonRecursiveHashMapCharacter hashTable = new NonRecursiveHashMapCharacter(table.getLength());
+        for (int i = table.getLength() - 1; i >= 0; i--) {
+            hashTable.put(table.getDataAt(i), i);
         }
+        return hashTable;
     }
 
-    private static final class NonRecursiveHashMapInt extends NonRecursiveHashMap {
-
-        private final int[] keys;
-
-        NonRecursiveHashMapInt(int approxCapacity) {
-            super(approxCapacity);
-            keys = new int[values.length];
-            Arrays.fill(keys, RRuntime.INT_NA);
+    private static NonRecursiveHashMapComplex indexComplex(RAbstractComplexVector table) {
+        NonRecursiveHashMapComplex hashTable = new NonRecursiveHashMapComplex(table.getLength());
+        for (int i = table.getLength() - 1; i >= 0; i--) {
+            hashTable.put(table.getDataAt(i), i);
         }
+        return hashTable;
+    }
 
-        public boolean put(int key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(Integer.hashCode(key));
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key == keys[ind]) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
-        }
+    private static int[] initResult(int length, int nomatch) {
+        int[] result = new int[length];
+        Arrays.fill(result, nomatch);
+        return result;
+    }
 
-        public int get(int key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else {
-                int ind = index(Integer.hashCode(key));
-                int firstInd = ind;
-                while (true) {
-                    if (key == keys[ind]) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
-        }
+    /**
+     * Set the "complete" status. If {@code nomatch} is not NA (uncommon), then the result vector is
+     * always COMPLETE, otherwise it is INCOMPLETE unless everything matched.
+     */
+    private static boolean setCompleteState(boolean matchAll, int nomatch) {
+        return nomatch != RRuntime.INT_NA || matchAll ? RDataFactory.COMPLETE_VECTOR : RDataFactory.INCOMPLETE_VECTOR;
     }
 
+    // raw keys index a table of all 256 values directly
+
     private static final class NonRecursiveHashMapRaw {
 
         private final int[] keys;
@@ -1157,22 +954,6 @@ public abstract class MatchInternalNode extends RBaseNode {
         }
     }
 
-    private static class NonRecursiveHashSetInt {
-        private final NonRecursiveHashMapInt map;
-
-        NonRecursiveHashSetInt(int approxCapacity) {
-            map = new NonRecursiveHashMapInt(approxCapacity);
-        }
-
-        public boolean add(int value) {
-            return map.put(value, 1);
-        }
-
-        public boolean contains(int value) {
-            return map.get(value) == 1;
-        }
-    }
-
     private static class NonRecursiveHashSetRaw {
         private final NonRecursiveHashMapRaw map;
 
@@ -1188,52 +969,4 @@ public abstract class MatchInternalNode extends RBaseNode {
             return map.get(value) == 1;
         }
     }
-
-    private static class NonRecursiveHashSetDouble {
-        private final NonRecursiveHashMapDouble map;
-
-        NonRecursiveHashSetDouble(int approxCapacity) {
-            map = new NonRecursiveHashMapDouble(approxCapacity);
-        }
-
-        public boolean add(double value) {
-            return map.put(value, 1);
-        }
-
-        public boolean contains(double value) {
-            return map.get(value) == 1;
-        }
-    }
-
-    private static class NonRecursiveHashSetCharacter {
-        private final NonRecursiveHashMapCharacter map;
-
-        NonRecursiveHashSetCharacter(int approxCapacity) {
-            map = new NonRecursiveHashMapCharacter(approxCapacity);
-        }
-
-        public boolean add(String value) {
-            return map.put(value, 1);
-        }
-
-        public boolean contains(String value) {
-            return map.get(value) == 1;
-        }
-    }
-
-    private static class NonRecursiveHashSetComplex {
-        private final NonRecursiveHashMapComplex map;
-
-        NonRecursiveHashSetComplex(int approxCapacity) {
-            map = new NonRecursiveHashMapComplex(approxCapacity);
-        }
-
-        public boolean add(RComplex value) {
-            return map.put(value, 1);
-        }
-
-        public boolean contains(RComplex value) {
-            return map.get(value) == 1;
-        }
-    }
 }
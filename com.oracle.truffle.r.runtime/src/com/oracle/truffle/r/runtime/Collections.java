@@ -22,194 +22,257 @@
  */
 package com.oracle.truffle.r.runtime;
 
-import java.util.Arrays;
-
 import com.oracle.truffle.r.runtime.data.RComplex;
 
+/**
+ * Open-addressing hash maps and sets specialized for the primitive element types of R vectors,
+ * shared by {@code match}, {@code unique}, {@code duplicated} and friends. They do not box the
+ * keys, do not recurse (which enables compilation) and follow R's notion of equality:
+ * <ul>
+ * <li>{@code NA} is a key of its own, for doubles distinct from {@code NaN},</li>
+ * <li>{@code -0.0} and {@code 0.0} are the same key,</li>
+ * <li>strings are compared by identity first and then by equality,</li>
+ * <li>a complex number is {@code NA} if any of its parts is.</li>
+ * </ul>
+ *
+ * The constructors take the expected number of keys, the tables grow if the hint was too small.
+ * Map values are non-negative integers (usually an index into a vector), {@code -1} stands for a
+ * missing key.
+ */
 public final class Collections {
 
     private Collections() {
         // private
     }
 
-    // simple implementations of non-recursive hash-maps to enable compilation
-    // TODO: consider replacing with a more efficient library implementation
+    private abstract static class NonRecursiveHashMap {
 
-    public static class NonRecursiveHashSet<KEY> {
+        /**
+         * The value + 1 stored for the key at the same index, {@code 0} marks a free slot.
+         */
+        protected int[] values;
+        protected int size;
+        protected int naValue;
 
-        private Object[] keys;
+        protected NonRecursiveHashMap(int entryCount) {
+            values = new int[capacity(entryCount)];
+        }
 
-        public NonRecursiveHashSet(int approxCapacity) {
-            keys = new Object[Math.max(approxCapacity, 1)];
+        /**
+         * The smallest power of two that keeps the load factor at or below 1/2.
+         */
+        private static int capacity(int entryCount) {
+            int capacity = Integer.highestOneBit(Math.max(entryCount, 4) * 2 - 1) << 1;
+            if (capacity <= 0) {
+                throw RError.error(RError.NO_CALLER, RError.Message.GENERIC, "hash table is too large");
+            }
+            return capacity;
         }
 
-        public boolean add(KEY key) {
-            int ind = Math.abs(key.hashCode()) % keys.length;
-            int firstInd = ind;
-            while (true) {
-                if (keys[ind] == null) {
-                    keys[ind] = key;
-                    return false;
-                } else if (key.equals(keys[ind])) {
-                    return true;
-                } else {
-                    ind = (ind + 1) % keys.length;
-                    if (ind == firstInd) {
-                        // resize
-                        Object[] newKeys = new Object[keys.length + keys.length / 2];
-                        for (int i = 0; i < keys.length; i++) {
-                            if (keys[i] != null) {
-                                int tmpInd = Math.abs(keys[i].hashCode()) % newKeys.length;
-                                while (true) {
-                                    if (newKeys[tmpInd] == null) {
-                                        newKeys[tmpInd] = keys[i];
-                                        break;
-                                    } else {
-                                        assert !keys[i].equals(newKeys[tmpInd]);
-                                        tmpInd = (tmpInd + 1) % newKeys.length;
-                                    }
-                                }
-                            }
-                        }
-
-                        keys = newKeys;
-
-                        // start hashing from the beginning
-                        ind = Math.abs(key.hashCode()) % keys.length;
-                    }
-                }
+        protected final int index(int hash) {
+            // spread the bits, the integer keys of R vectors are often consecutive
+            int h = hash * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & (values.length - 1);
+        }
+
+        protected final int next(int ind) {
+            return (ind + 1) & (values.length - 1);
+        }
+
+        /**
+         * Called after a key was added to a free slot.
+         */
+        protected final void added() {
+            if (++size * 2 > values.length) {
+                int[] oldValues = values;
+                values = new int[oldValues.length * 2];
+                rehash(oldValues);
             }
         }
+
+        protected abstract void rehash(int[] oldValues);
+
+        protected static int putNA(int oldValue, int value, boolean overwrite) {
+            return oldValue == 0 || overwrite ? value + 1 : oldValue;
+        }
+
+        public final int size() {
+            return size + (naValue != 0 ? 1 : 0);
+        }
     }
 
-    public static class NonRecursiveHashSetDouble {
+    public static final class NonRecursiveHashMapInt extends NonRecursiveHashMap {
 
-        private double[] keys;
+        private int[] keys;
 
-        public NonRecursiveHashSetDouble(int approxCapacity) {
-            keys = new double[Math.max(approxCapacity, 1)];
-            Arrays.fill(keys, RRuntime.DOUBLE_NA);
+        public NonRecursiveHashMapInt(int approxCapacity) {
+            super(approxCapacity);
+            keys = new int[values.length];
         }
 
-        public boolean add(double key) {
-            int ind = getInd(key, keys.length);
-            int firstInd = ind;
+        /**
+         * Associates {@code value} with {@code key}, returns {@code true} if the key was already
+         * present.
+         */
+        public boolean put(int key, int value) {
+            return put(key, value, true) != -1;
+        }
+
+        /**
+         * Associates {@code value} with {@code key} unless the key is already present, returns the
+         * previous value or {@code -1}.
+         */
+        public int putIfAbsent(int key, int value) {
+            return put(key, value, false);
+        }
+
+        private int put(int key, int value, boolean overwrite) {
+            assert value >= 0;
+            if (RRuntime.isNA(key)) {
+                int ret = naValue - 1;
+                naValue = putNA(naValue, value, overwrite);
+                return ret;
+            }
+            int ind = index(key);
             while (true) {
-                if (RRuntime.isNAorNaN(keys[ind])) {
+                if (values[ind] == 0) {
                     keys[ind] = key;
-                    return false;
+                    values[ind] = value + 1;
+                    added();
+                    return -1;
                 } else if (key == keys[ind]) {
-                    return true;
-                } else {
-                    ind = (ind + 1) % keys.length;
-                    if (ind == firstInd) {
-                        // resize
-                        double[] newKeys = new double[keys.length + keys.length / 2];
-                        Arrays.fill(newKeys, RRuntime.DOUBLE_NA);
-                        for (int i = 0; i < keys.length; i++) {
-                            if (!RRuntime.isNAorNaN(keys[i])) {
-                                int tmpInd = getInd(keys[i], newKeys.length);
-                                while (true) {
-                                    if (RRuntime.isNAorNaN(newKeys[tmpInd])) {
-                                        newKeys[tmpInd] = keys[i];
-                                        break;
-                                    } else {
-                                        assert keys[i] != newKeys[tmpInd];
-                                        tmpInd = (tmpInd + 1) % newKeys.length;
-                                    }
-                                }
-                            }
-                        }
-
-                        keys = newKeys;
-
-                        // start hashing from the beginning
-                        ind = getInd(key, keys.length);
+                    int ret = values[ind] - 1;
+                    if (overwrite) {
+                        values[ind] = value + 1;
                     }
+                    return ret;
                 }
+                ind = next(ind);
             }
         }
 
-        private static int getInd(double key, int keyLength) {
-            int h = Double.hashCode(key);
-            if (h == Integer.MIN_VALUE) {
-                // HOTFIX:
-                // Double.hashCode(-0.0) is Integer.MIN_VALUE
-                // Maths.abs(Integer.MIN_VALUE) is Integer.MIN_VALUE
-                return 0;
+        public int get(int key) {
+            if (RRuntime.isNA(key)) {
+                return naValue - 1;
+            }
+            int ind = index(key);
+            while (values[ind] != 0) {
+                if (key == keys[ind]) {
+                    return values[ind] - 1;
+                }
+                ind = next(ind);
+            }
+            return -1;
+        }
+
+        @Override
+        protected void rehash(int[] oldValues) {
+            int[] oldKeys = keys;
+            keys = new int[values.length];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = index(oldKeys[i]);
+                    while (values[ind] != 0) {
+                        ind = next(ind);
+                    }
+                    keys[ind] = oldKeys[i];
+                    values[ind] = oldValues[i];
+                }
             }
-            return Math.abs(h) % keyLength;
         }
     }
 
-    public static class NonRecursiveHashSetInt {
+    public static final class NonRecursiveHashMapDouble extends NonRecursiveHashMap {
 
-        private int[] keys;
+        private double[] keys;
+        private int nanValue;
 
-        public NonRecursiveHashSetInt(int approxCapacity) {
-            keys = new int[Math.max(approxCapacity, 1)];
-            Arrays.fill(keys, RRuntime.INT_NA);
+        public NonRecursiveHashMapDouble(int approxCapacity) {
+            super(approxCapacity);
+            keys = new double[values.length];
         }
 
-        public boolean add(int key) {
-            int ind = Math.abs(Integer.hashCode(key)) % keys.length;
-            int firstInd = ind;
+        private static int hash(double key) {
+            long bits = Double.doubleToLongBits(key);
+            return (int) (bits ^ (bits >>> 32));
+        }
+
+        public boolean put(double key, int value) {
+            return put(key, value, true) != -1;
+        }
+
+        public int putIfAbsent(double key, int value) {
+            return put(key, value, false);
+        }
+
+        private int put(double keyArg, int value, boolean overwrite) {
+            assert value >= 0;
+            if (Double.isNaN(keyArg)) {
+                if (RRuntime.isNA(keyArg)) {
+                    int ret = naValue - 1;
+                    naValue = putNA(naValue, value, overwrite);
+                    return ret;
+                } else {
+                    int ret = nanValue - 1;
+                    nanValue = putNA(nanValue, value, overwrite);
+                    return ret;
+                }
+            }
+            // turns -0.0 into 0.0
+            double key = keyArg + 0.0;
+            int ind = index(hash(key));
             while (true) {
-                if (RRuntime.isNA(keys[ind])) {
+                if (values[ind] == 0) {
                     keys[ind] = key;
-                    return false;
+                    values[ind] = value + 1;
+                    added();
+                    return -1;
                 } else if (key == keys[ind]) {
-                    return true;
-                } else {
-                    ind = (ind + 1) % keys.length;
-                    if (ind == firstInd) {
-                        // resize
-                        int[] newKeys = new int[keys.length + keys.length / 2];
-                        Arrays.fill(newKeys, RRuntime.INT_NA);
-                        for (int i = 0; i < keys.length; i++) {
-                            if (!RRuntime.isNA(keys[i])) {
-                                int tmpInd = Math.abs(Integer.hashCode(keys[i])) % newKeys.length;
-                                while (true) {
-                                    if (RRuntime.isNA(newKeys[tmpInd])) {
-                                        newKeys[tmpInd] = keys[i];
-                                        break;
-                                    } else {
-                                        assert keys[i] != newKeys[tmpInd];
-                                        tmpInd = (tmpInd + 1) % newKeys.length;
-                                    }
-                                }
-                            }
-                        }
-
-                        keys = newKeys;
-
-                        // start hashing from the beginning
-                        ind = Math.abs(Integer.hashCode(key)) % keys.length;
+                    int ret = values[ind] - 1;
+                    if (overwrite) {
+                        values[ind] = value + 1;
                     }
+                    return ret;
                 }
+                ind = next(ind);
             }
         }
-    }
-
-    private abstract static class NonRecursiveHashMap {
-
-        protected final int[] values;
-        protected int naValue;
 
-        protected NonRecursiveHashMap(int entryCount) {
-            int capacity = Math.max(entryCount * 3 / 2, 1);
-            values = new int[Integer.highestOneBit(capacity) << 1];
+        public int get(double keyArg) {
+            if (Double.isNaN(keyArg)) {
+                return RRuntime.isNA(keyArg) ? naValue - 1 : nanValue - 1;
+            }
+            double key = keyArg + 0.0;
+            int ind = index(hash(key));
+            while (values[ind] != 0) {
+                if (key == keys[ind]) {
+                    return values[ind] - 1;
+                }
+                ind = next(ind);
+            }
+            return -1;
         }
 
-        protected int index(int hash) {
-            // Multiply by -127
-            return ((hash << 1) - (hash << 8)) & (values.length - 1);
+        @Override
+        protected void rehash(int[] oldValues) {
+            double[] oldKeys = keys;
+            keys = new double[values.length];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = index(hash(oldKeys[i]));
+                    while (values[ind] != 0) {
+                        ind = next(ind);
+                    }
+                    keys[ind] = oldKeys[i];
+                    values[ind] = oldValues[i];
+                }
+            }
         }
     }
 
     public static final class NonRecursiveHashMapCharacter extends NonRecursiveHashMap {
 
-        private final String[] keys;
+        private String[] keys;
 
         public NonRecursiveHashMapCharacter(int approxCapacity) {
             super(approxCapacity);
@@ -217,235 +280,244 @@ public final class Collections {
         }
 
         public boolean put(String key, int value) {
+            return put(key, value, true) != -1;
+        }
+
+        public int putIfAbsent(String key, int value) {
+            return put(key, value, false);
+        }
+
+        private int put(String key, int value, boolean overwrite) {
             assert value >= 0;
             if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
+                int ret = naValue - 1;
+                naValue = putNA(naValue, value, overwrite);
                 return ret;
-            } else {
-                int keyHash = key.hashCode();
-                int ind = index(keyHash);
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (keys[ind].hashCode() == keyHash && key.equals(keys[ind])) {
+            }
+            int ind = index(key.hashCode());
+            while (true) {
+                String k = keys[ind];
+                if (k == null) {
+                    keys[ind] = key;
+                    values[ind] = value + 1;
+                    added();
+                    return -1;
+                } else if (k == key || key.equals(k)) {
+                    int ret = values[ind] - 1;
+                    if (overwrite) {
                         values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
                     }
+                    return ret;
                 }
+                ind = next(ind);
             }
         }
 
         public int get(String key) {
             if (RRuntime.isNA(key)) {
                 return naValue - 1;
-            } else {
-                int ind = index(key.hashCode());
-                int firstInd = ind;
-                while (true) {
-                    if (key.equals(keys[ind])) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
+            }
+            int ind = index(key.hashCode());
+            String k;
+            while ((k = keys[ind]) != null) {
+                if (k == key || key.equals(k)) {
+                    return values[ind] - 1;
+                }
+                ind = next(ind);
+            }
+            return -1;
+        }
+
+        @Override
+        protected void rehash(int[] oldValues) {
+            String[] oldKeys = keys;
+            keys = new String[values.length];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = index(oldKeys[i].hashCode());
+                    while (values[ind] != 0) {
+                        ind = next(ind);
                     }
+                    keys[ind] = oldKeys[i];
+                    values[ind] = oldValues[i];
                 }
             }
         }
     }
 
+    /**
+     * The complex keys are stored as pairs of doubles, parts that are {@code NaN} (but not
+     * {@code NA}) compare equal.
+     */
     public static final class NonRecursiveHashMapComplex extends NonRecursiveHashMap {
 
-        private final RComplex[] keys;
+        private double[] keys;
 
         public NonRecursiveHashMapComplex(int approxCapacity) {
             super(approxCapacity);
-            keys = new RComplex[values.length];
+            keys = new double[values.length * 2];
+        }
+
+        private static int hash(double re, double im) {
+            long bits = Double.doubleToLongBits(re) * 31 + Double.doubleToLongBits(im);
+            return (int) (bits ^ (bits >>> 32));
+        }
+
+        private static boolean equal(double a, double b) {
+            return a == b || (a != a && b != b);
         }
 
         public boolean put(RComplex key, int value) {
+            return put(key.getRealPart(), key.getImaginaryPart(), value, true) != -1;
+        }
+
+        public boolean put(double re, double im, int value) {
+            return put(re, im, value, true) != -1;
+        }
+
+        public int putIfAbsent(double re, double im, int value) {
+            return put(re, im, value, false);
+        }
+
+        private int put(double reArg, double imArg, int value, boolean overwrite) {
             assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
+            if (RRuntime.isNA(reArg, imArg)) {
+                int ret = naValue - 1;
+                naValue = putNA(naValue, value, overwrite);
                 return ret;
-            } else {
-                int ind = index(key.hashCode());
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key.equals(keys[ind])) {
+            }
+            double re = reArg + 0.0;
+            double im = imArg + 0.0;
+            int ind = index(hash(re, im));
+            while (true) {
+                if (values[ind] == 0) {
+                    keys[ind * 2] = re;
+                    keys[ind * 2 + 1] = im;
+                    values[ind] = value + 1;
+                    added();
+                    return -1;
+                } else if (equal(re, keys[ind * 2]) && equal(im, keys[ind * 2 + 1])) {
+                    int ret = values[ind] - 1;
+                    if (overwrite) {
                         values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
                     }
+                    return ret;
                 }
+                ind = next(ind);
             }
         }
 
         public int get(RComplex key) {
-            if (RRuntime.isNA(key)) {
+            return get(key.getRealPart(), key.getImaginaryPart());
+        }
+
+        public int get(double reArg, double imArg) {
+            if (RRuntime.isNA(reArg, imArg)) {
                 return naValue - 1;
-            } else {
-                int ind = index(key.hashCode());
-                int firstInd = ind;
-                while (true) {
-                    if (key.equals(keys[ind])) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
+            }
+            double re = reArg + 0.0;
+            double im = imArg + 0.0;
+            int ind = index(hash(re, im));
+            while (values[ind] != 0) {
+                if (equal(re, keys[ind * 2]) && equal(im, keys[ind * 2 + 1])) {
+                    return values[ind] - 1;
+                }
+                ind = next(ind);
+            }
+            return -1;
+        }
+
+        @Override
+        protected void rehash(int[] oldValues) {
+            double[] oldKeys = keys;
+            keys = new double[values.length * 2];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = index(hash(oldKeys[i * 2], oldKeys[i * 2 + 1]));
+                    while (values[ind] != 0) {
+                        ind = next(ind);
                     }
+                    keys[ind * 2] = oldKeys[i * 2];
+                    keys[ind * 2 + 1] = oldKeys[i * 2 + 1];
+                    values[ind] = oldValues[i];
                 }
             }
         }
     }
 
-    public static final class NonRecursiveHashMapDouble extends NonRecursiveHashMap {
+    /*
+     * The sets: add returns true if the key was already present.
+     */
 
-        private final double[] keys;
-        private int nanValue;
+    public static final class NonRecursiveHashSetInt {
+        private final NonRecursiveHashMapInt map;
 
-        public NonRecursiveHashMapDouble(int approxCapacity) {
-            super(approxCapacity);
-            keys = new double[values.length];
-            Arrays.fill(keys, RRuntime.DOUBLE_NA);
+        public NonRecursiveHashSetInt(int approxCapacity) {
+            map = new NonRecursiveHashMapInt(approxCapacity);
         }
 
-        public boolean put(double key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else if (Double.isNaN(key)) {
-                boolean ret = nanValue == 0;
-                nanValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(Double.hashCode(key));
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key == keys[ind]) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
+        public boolean add(int key) {
+            return map.putIfAbsent(key, 0) != -1;
         }
 
-        public int get(double key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else if (Double.isNaN(key)) {
-                return nanValue - 1;
-            } else {
-                int ind = index(Double.hashCode(key));
-                int firstInd = ind;
-                while (true) {
-                    if (key == keys[ind]) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
+        public boolean contains(int key) {
+            return map.get(key) != -1;
         }
     }
 
-    public static final class NonRecursiveHashMapInt extends NonRecursiveHashMap {
+    public static final class NonRecursiveHashSetDouble {
+        private final NonRecursiveHashMapDouble map;
 
-        private final int[] keys;
+        public NonRecursiveHashSetDouble(int approxCapacity) {
+            map = new NonRecursiveHashMapDouble(approxCapacity);
+        }
 
-        public NonRecursiveHashMapInt(int approxCapacity) {
-            super(approxCapacity);
-            keys = new int[values.length];
-            Arrays.fill(keys, RRuntime.INT_NA);
+        public boolean add(double key) {
+            return map.putIfAbsent(key, 0) != -1;
         }
 
-        public boolean put(int key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(Integer.hashCode(key));
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key == keys[ind]) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
+        public boolean contains(double key) {
+            return map.get(key) != -1;
+        }
+    }
+
+    public static final class NonRecursiveHashSetCharacter {
+        private final NonRecursiveHashMapCharacter map;
+
+        public NonRecursiveHashSetCharacter(int approxCapacity) {
+            map = new NonRecursiveHashMapCharacter(approxCapacity);
         }
 
-        public int get(int key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else {
-                int ind = index(Integer.hashCode(key));
-                int firstInd = ind;
-                while (true) {
-                    if (key == keys[ind]) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
+        public boolean add(String key) {
+            return map.putIfAbsent(key, 0) != -1;
+        }
+
+        public boolean contains(String key) {
+            return map.get(key) != -1;
+        }
+    }
+
+    public static final class NonRecursiveHashSetComplex {
+        private final NonRecursiveHashMapComplex map;
+
+        public NonRecursiveHashSetComplex(int approxCapacity) {
+            map = new NonRecursiveHashMapComplex(approxCapacity);
+        }
+
+        public boolean add(double re, double im) {
+            return map.putIfAbsent(re, im, 0) != -1;
+        }
+
+        public boolean add(RComplex key) {
+            return add(key.getRealPart(), key.getImaginaryPart());
+        }
+
+        public boolean contains(double re, double im) {
+            return map.get(re, im) != -1;
+        }
+
+        public boolean contains(RComplex key) {
+            return contains(key.getRealPart(), key.getImaginaryPart());
         }
     }
 }
@@ -59,6 +59,11 @@ public enum FastROptions {
     LoadPackagesNativeCode("Load native code of packages, including builtin packages.", !FastRConfig.ManagedMode),
     SynchronizeNativeCode("allow only one thread to enter packages' native code", false),
     ForeignObjectWrappers("use wrappers for foreign objects (as opposed to full conversion)", true),
+    ParallelCompression("Compress gzfile and xzfile output in independent blocks on multiple threads", true),
+    LazyDBCacheSize("Maximum total size in bytes of uncompressed lazy-load database entries cached across contexts", "67108864", true),
+    ChannelQueueCapacity("Default number of messages a channel buffers in each direction before the sender blocks", "1", true),
+    ContextPoolSize("Maximum number of idle parallel cluster nodes (child contexts) kept by a context for reuse", "16", true),
+    RegexCacheSize("Maximum number of compiled regular expressions cached by a context", "256", true),
 
     // Promises optimizations
     EagerEval("If enabled, overrides all other EagerEval switches (see EagerEvalHelper)", false),
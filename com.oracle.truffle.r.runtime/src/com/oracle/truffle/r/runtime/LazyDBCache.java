@@ -23,35 +23,214 @@
 package com.oracle.truffle.r.runtime;
 
 import java.io.IOException;
-import java.nio.file.FileSystems;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.r.runtime.context.RContext;
 
+/**
+ * Support for lazy-load databases ({@code .rdb} files). The database files are memory-mapped
+ * (read-only) and shared by all contexts in the process, and only the slices named by the
+ * {@code .rdx} index are ever copied to the heap. Uncompressed entries are additionally kept in a
+ * process-wide LRU cache whose total size is bounded by {@link FastROptions#LazyDBCacheSize}, so
+ * that e.g. child contexts loading the same packages do not decompress the same data again.
+ */
 public class LazyDBCache {
 
-    public static final class ContextStateImpl implements RContext.ContextState {
-        private final Map<String, byte[]> dbCache = new HashMap<>();
-
-        public byte[] getData(String dbPath) {
-            byte[] dbData = dbCache.get(dbPath);
-            if (dbData == null) {
-                try {
-                    dbData = Files.readAllBytes(FileSystems.getDefault().getPath(dbPath));
-                } catch (IOException ex) {
-                    // unexpected
-                    throw RInternalError.shouldNotReachHere(ex);
+    private static final class MappedDB {
+        private final ByteBuffer buffer;
+        private final long size;
+        private final FileTime lastModified;
+
+        MappedDB(ByteBuffer buffer, long size, FileTime lastModified) {
+            this.buffer = buffer;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final class EntryKey {
+        private final String dbPath;
+        private final int offset;
+
+        EntryKey(String dbPath, int offset) {
+            this.dbPath = dbPath;
+            this.offset = offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return dbPath.hashCode() * 31 + offset;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof EntryKey)) {
+                return false;
+            }
+            EntryKey other = (EntryKey) obj;
+            return offset == other.offset && dbPath.equals(other.dbPath);
+        }
+    }
+
+    /*
+     * All the state below is shared by all contexts and guarded by the LazyDBCache class lock.
+     */
+    private static final Map<String, MappedDB> mappedDBs = new HashMap<>();
+    private static final LinkedHashMap<EntryKey, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private static long entriesSize;
+    private static long hits;
+    private static long misses;
+
+    /**
+     * Returns a copy of {@code length} bytes starting at {@code offset} of the given database file.
+     */
+    @TruffleBoundary
+    public static byte[] getData(String dbPath, int offset, int length) {
+        ByteBuffer buffer = getMappedDB(dbPath, offset, length).buffer.duplicate();
+        byte[] result = new byte[length];
+        buffer.position(offset);
+        buffer.get(result);
+        return result;
+    }
+
+    private static synchronized MappedDB getMappedDB(String dbPath, int offset, int length) {
+        try {
+            Path path = Paths.get(dbPath);
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            MappedDB db = mappedDBs.get(dbPath);
+            if (db == null || db.size != attrs.size() || !db.lastModified.equals(attrs.lastModifiedTime())) {
+                // the file was (re-)written since it was mapped, any cached entries are stale
+                removeEntries(dbPath);
+                if (attrs.size() > Integer.MAX_VALUE) {
+                    throw RInternalError.shouldNotReachHere("lazy-load database too large: " + dbPath);
                 }
-                dbCache.put(dbPath, dbData);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    db = new MappedDB(channel.map(FileChannel.MapMode.READ_ONLY, 0, attrs.size()), attrs.size(), attrs.lastModifiedTime());
+                }
+                mappedDBs.put(dbPath, db);
+            }
+            if (offset < 0 || length < 0 || (long) offset + length > db.size) {
+                throw RInternalError.shouldNotReachHere("invalid lazy-load database key for " + dbPath);
+            }
+            return db;
+        } catch (IOException ex) {
+            // unexpected
+            throw RInternalError.shouldNotReachHere(ex);
+        }
+    }
+
+    /**
+     * Returns the uncompressed data of the entry starting at {@code offset} in the given database
+     * file or {@code null} if it is not cached. The result must not be modified.
+     */
+    @TruffleBoundary
+    public static synchronized byte[] getEntry(String dbPath, int offset) {
+        if (isStale(dbPath)) {
+            remove(dbPath);
+        }
+        byte[] result = entries.get(new EntryKey(dbPath, offset));
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Caches the uncompressed data of the entry starting at {@code offset} in the given database
+     * file, evicting the least recently used entries if the cache grows over its limit.
+     */
+    @TruffleBoundary
+    public static synchronized void putEntry(String dbPath, int offset, byte[] data) {
+        long limit = FastROptions.LazyDBCacheSize.getNonNegativeIntValue();
+        if (data.length > limit || !mappedDBs.containsKey(dbPath)) {
+            // the database may have been removed in the meantime
+            return;
+        }
+        byte[] old = entries.put(new EntryKey(dbPath, offset), data);
+        if (old != null) {
+            entriesSize -= old.length;
+        }
+        entriesSize += data.length;
+        Iterator<byte[]> iter = entries.values().iterator();
+        while (entriesSize > limit && iter.hasNext()) {
+            entriesSize -= iter.next().length;
+            iter.remove();
+        }
+    }
+
+    /**
+     * Checks whether the database file has been (re-)written or removed since it was mapped, in
+     * which case the mapping and the entries cached for it must not be used anymore.
+     */
+    private static boolean isStale(String dbPath) {
+        MappedDB db = mappedDBs.get(dbPath);
+        if (db == null) {
+            // no entries are cached without a mapping
+            return false;
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(Paths.get(dbPath), BasicFileAttributes.class);
+            return db.size != attrs.size() || !db.lastModified.equals(attrs.lastModifiedTime());
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    private static void removeEntries(String dbPath) {
+        Iterator<Map.Entry<EntryKey, byte[]>> iter = entries.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<EntryKey, byte[]> entry = iter.next();
+            if (entry.getKey().dbPath.equals(dbPath)) {
+                entriesSize -= entry.getValue().length;
+                iter.remove();
             }
-            return dbData;
+        }
+    }
+
+    /**
+     * Drops the mapping and all cached entries of the given database file, not an error if
+     * missing.
+     */
+    @TruffleBoundary
+    public static synchronized void remove(String dbPath) {
+        mappedDBs.remove(dbPath);
+        removeEntries(dbPath);
+    }
+
+    /**
+     * Returns the cache statistics as {@code hits, misses, number of cached entries, total size of
+     * cached entries, number of mapped database files}.
+     */
+    @TruffleBoundary
+    public static synchronized long[] getStatistics() {
+        return new long[]{hits, misses, entries.size(), entriesSize, mappedDBs.size()};
+    }
+
+    /**
+     * Per-context access to the shared lazy-load database cache.
+     */
+    public static final class ContextStateImpl implements RContext.ContextState {
+
+        public byte[] getData(String dbPath, int offset, int length) {
+            return LazyDBCache.getData(dbPath, offset, length);
         }
 
         public void remove(String dbPath) {
-            // no an error if missing
-            dbCache.remove(dbPath);
+            LazyDBCache.remove(dbPath);
         }
 
         public static ContextStateImpl newContextState() {
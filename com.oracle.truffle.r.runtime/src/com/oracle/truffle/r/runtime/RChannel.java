@@ -47,6 +47,7 @@ import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.data.RPromise.PromiseState;
 import com.oracle.truffle.r.runtime.data.RShareable;
 import com.oracle.truffle.r.runtime.data.RUnboundValue;
+import com.oracle.truffle.r.runtime.data.model.RAbstractAtomicVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
 import com.oracle.truffle.r.runtime.env.frame.REnvTruffleFrameAccess;
@@ -55,6 +56,15 @@ import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
 /**
  * Implementation of a channel abstraction used for communication between parallel contexts in
  * shared memory space.
+ *
+ * Atomic vectors are never copied or serialized when transmitted - they are made permanently
+ * shared and handed over to the receiver by reference, which is safe as neither side can modify a
+ * shared vector in place. Only objects that can be mutated (environments, language objects,
+ * connections) are converted to private representations.
+ *
+ * Each channel buffers up to {@code capacity} messages in each direction (see
+ * {@link FastROptions#ChannelQueueCapacity}) so that a producer can pipeline several messages
+ * without waiting for the consumer to pick up each one of them.
  */
 public class RChannel {
 
@@ -62,7 +72,6 @@ public class RChannel {
 
     private static final int INITIAL_CHANNEL_NUM = 4;
     private static final int CHANNEL_NUM_GROW_FACTOR = 2;
-    private static final int QUEUE_CAPACITY = 1;
 
     private static int[] keys = new int[INITIAL_CHANNEL_NUM];
     private static RChannel[] channels = new RChannel[INITIAL_CHANNEL_NUM];
@@ -74,13 +83,29 @@ public class RChannel {
      */
     private static final Semaphore create = new Semaphore(1, true);
 
-    private final ArrayBlockingQueue<Object> masterToClient = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
-    private final ArrayBlockingQueue<Object> clientToMaster = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final ArrayBlockingQueue<Object> masterToClient;
+    private final ArrayBlockingQueue<Object> clientToMaster;
+
+    private RChannel(int capacity) {
+        masterToClient = new ArrayBlockingQueue<>(capacity);
+        clientToMaster = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public static int getDefaultCapacity() {
+        return Math.max(1, FastROptions.ChannelQueueCapacity.getNonNegativeIntValue());
+    }
 
     public static int createChannel(int key) {
+        return createChannel(key, getDefaultCapacity());
+    }
+
+    public static int createChannel(int key, int capacity) {
         if (key <= 0) {
             throw RError.error(RError.SHOW_CALLER2, RError.Message.GENERIC, "channel's key must be positive");
         }
+        if (capacity <= 0) {
+            throw RError.error(RError.SHOW_CALLER2, RError.Message.GENERIC, "channel's capacity must be positive");
+        }
         try {
             create.acquire();
             while (true) {
@@ -97,7 +122,7 @@ public class RChannel {
                 }
                 if (freeSlot != -1) {
                     keys[freeSlot] = key;
-                    channels[freeSlot] = new RChannel();
+                    channels[freeSlot] = new RChannel(capacity);
                     return freeSlot;
                 } else {
                     int[] keysTmp = new int[keys.length * CHANNEL_NUM_GROW_FACTOR];
@@ -499,7 +524,10 @@ public class RChannel {
         }
 
         private Object convertPrivate(Object o) throws IOException {
-            if (o instanceof RList) {
+            if (o instanceof RAbstractAtomicVector && ((RAbstractAtomicVector) o).getAttributes() == null) {
+                // the most common case - transmitted by reference
+                return makeShared(o);
+            } else if (o instanceof RList) {
                 return convertPrivateListSlow(o);
             } else if (shareableEnv(o)) {
                 return convertPrivateEnv(o);
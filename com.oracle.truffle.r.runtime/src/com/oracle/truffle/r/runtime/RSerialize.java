@@ -26,6 +26,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
@@ -65,15 +66,18 @@ import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
 import com.oracle.truffle.r.runtime.data.RAttributable;
 import com.oracle.truffle.r.runtime.data.RAttributesLayout;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.REmpty;
 import com.oracle.truffle.r.runtime.data.RExternalPtr;
 import com.oracle.truffle.r.runtime.data.RFunction;
+import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RPairList;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RMissing;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.data.RPromise.PromiseState;
+import com.oracle.truffle.r.runtime.data.RRawVector;
 import com.oracle.truffle.r.runtime.data.RScalar;
 import com.oracle.truffle.r.runtime.data.RShareable;
 import com.oracle.truffle.r.runtime.data.RStringVector;
@@ -735,13 +739,13 @@ public class RSerialize {
                 case INTSXP: {
                     int len = stream.readInt();
                     int[] data = new int[len];
+                    stream.readInts(data);
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
-                        int intVal = stream.readInt();
-                        if (intVal == RRuntime.INT_NA) {
+                        if (data[i] == RRuntime.INT_NA) {
                             complete = false;
+                            break;
                         }
-                        data[i] = intVal;
                     }
                     result = RDataFactory.createIntVector(data, complete);
                     break;
@@ -767,13 +771,13 @@ public class RSerialize {
                 case REALSXP: {
                     int len = stream.readInt();
                     double[] data = new double[len];
+                    stream.readDoubles(data);
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
-                        double doubleVal = stream.readDouble();
-                        if (RRuntime.isNA(doubleVal)) {
+                        if (RRuntime.isNA(data[i])) {
                             complete = false;
+                            break;
                         }
-                        data[i] = doubleVal;
                     }
                     result = RDataFactory.createDoubleVector(data, complete);
                     break;
@@ -782,23 +786,21 @@ public class RSerialize {
                 case CPLXSXP: {
                     int len = stream.readInt();
                     double[] data = new double[2 * len];
+                    stream.readDoubles(data);
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
                         int ix = 2 * i;
-                        double reVal = stream.readDouble();
+                        double reVal = data[ix];
                         if (RRuntime.isNA(reVal)) {
                             complete = false;
                         }
-                        double imVal = stream.readDouble();
+                        double imVal = data[ix + 1];
                         if (RRuntime.isNA(imVal)) {
                             complete = false;
                         }
                         if (RRuntime.isNA(reVal) && RRuntime.isNA(imVal)) {
                             data[ix] = RRuntime.COMPLEX_NA_REAL_PART;
                             data[ix + 1] = RRuntime.COMPLEX_NA_IMAGINARY_PART;
-                        } else {
-                            data[ix] = reVal;
-                            data[ix + 1] = imVal;
                         }
                     }
                     result = RDataFactory.createComplexVector(data, complete);
@@ -1073,6 +1075,18 @@ public class RSerialize {
 
         abstract void readRaw(byte[] data) throws IOException;
 
+        /**
+         * Fills the whole {@code data} array, which is more efficient than reading the elements
+         * one by one.
+         */
+        abstract void readInts(int[] data) throws IOException;
+
+        /**
+         * Fills the whole {@code data} array, which is more efficient than reading the elements
+         * one by one.
+         */
+        abstract void readDoubles(double[] data) throws IOException;
+
     }
 
     @SuppressWarnings("unused")
@@ -1149,6 +1163,16 @@ public class RSerialize {
                 offset += data.length;
             }
 
+            void readInts(int[] data, int pos, int n) {
+                ByteBuffer.wrap(buf, offset, n * 4).asIntBuffer().get(data, pos, n);
+                offset += n * 4;
+            }
+
+            void readDoubles(double[] data, int pos, int n) {
+                ByteBuffer.wrap(buf, offset, n * 8).asDoubleBuffer().get(data, pos, n);
+                offset += n * 8;
+            }
+
             void readData(int n) throws IOException {
                 if (offset + n > size) {
                     if (offset != size) {
@@ -1213,6 +1237,31 @@ public class RSerialize {
             ensureData(data.length).readRaw(data);
         }
 
+        /*
+         * Large vectors are read in chunks that fit into the default buffer so that the input
+         * stream is consumed incrementally and no temporary buffer for the whole vector is needed.
+         */
+
+        @Override
+        void readInts(int[] data) throws IOException {
+            int pos = 0;
+            while (pos < data.length) {
+                int n = Math.min(data.length - pos, defaultBuffer.buf.length / 4);
+                ensureData(n * 4).readInts(data, pos, n);
+                pos += n;
+            }
+        }
+
+        @Override
+        void readDoubles(double[] data) throws IOException {
+            int pos = 0;
+            while (pos < data.length) {
+                int n = Math.min(data.length - pos, defaultBuffer.buf.length / 8);
+                ensureData(n * 8).readDoubles(data, pos, n);
+                pos += n;
+            }
+        }
+
         private Buffer ensureData(int n) throws IOException {
             Buffer usedBuffer;
             if (n > defaultBuffer.buf.length) {
@@ -1299,17 +1348,35 @@ public class RSerialize {
 
         abstract void writeRaw(byte value) throws IOException;
 
+        /**
+         * Writes the first {@code length} elements of {@code data}.
+         */
+        abstract void writeInts(int[] data, int length) throws IOException;
+
+        /**
+         * Writes the first {@code length} elements of {@code data}.
+         */
+        abstract void writeDoubles(double[] data, int length) throws IOException;
+
+        /**
+         * Writes the first {@code length} elements of {@code data}.
+         */
+        abstract void writeRaw(byte[] data, int length) throws IOException;
+
         abstract void flush() throws IOException;
 
     }
 
     private static class XdrOutputFormat extends POutputStream {
+
+        private static final int WRITE_BUFFER_SIZE = 32 * 1024;
+
         private final byte[] buf;
         private int offset;
 
         XdrOutputFormat(OutputStream os) {
             super(os);
-            buf = new byte[8192];
+            buf = new byte[WRITE_BUFFER_SIZE];
             buf[offset++] = 'X';
             buf[offset++] = '\n';
         }
@@ -1377,6 +1444,43 @@ public class RSerialize {
             buf[offset++] = (byte) (valueBits & 0xff);
         }
 
+        @Override
+        void writeInts(int[] data, int length) throws IOException {
+            int pos = 0;
+            while (pos < length) {
+                ensureSpace(4);
+                int n = Math.min(length - pos, (buf.length - offset) / 4);
+                ByteBuffer.wrap(buf, offset, n * 4).asIntBuffer().put(data, pos, n);
+                offset += n * 4;
+                pos += n;
+            }
+        }
+
+        @Override
+        void writeDoubles(double[] data, int length) throws IOException {
+            int pos = 0;
+            while (pos < length) {
+                ensureSpace(8);
+                int n = Math.min(length - pos, (buf.length - offset) / 8);
+                ByteBuffer.wrap(buf, offset, n * 8).asDoubleBuffer().put(data, pos, n);
+                offset += n * 8;
+                pos += n;
+            }
+        }
+
+        @Override
+        void writeRaw(byte[] data, int length) throws IOException {
+            if (length > buf.length) {
+                // too large to fit buffer
+                flushBuffer();
+                os.write(data, 0, length);
+            } else {
+                ensureSpace(length);
+                System.arraycopy(data, 0, buf, offset, length);
+                offset += length;
+            }
+        }
+
         private void ensureSpace(int n) throws IOException {
             if (offset + n > buf.length) {
                 flushBuffer();
@@ -1569,6 +1673,12 @@ public class RSerialize {
 
                             case INTSXP:
                             case LGLSXP: {
+                                if (obj instanceof RIntVector) {
+                                    RIntVector vector = (RIntVector) obj;
+                                    stream.writeInt(vector.getLength());
+                                    stream.writeInts(vector.getReadonlyData(), vector.getLength());
+                                    break;
+                                }
                                 // logicals are written as ints
                                 RAbstractVector vector = (RAbstractVector) obj;
                                 VectorAccess access = vector.slowPathAccess();
@@ -1582,6 +1692,12 @@ public class RSerialize {
                             }
 
                             case REALSXP: {
+                                if (obj instanceof RDoubleVector) {
+                                    RDoubleVector vector = (RDoubleVector) obj;
+                                    stream.writeInt(vector.getLength());
+                                    stream.writeDoubles(vector.getReadonlyData(), vector.getLength());
+                                    break;
+                                }
                                 RAbstractDoubleVector vector = (RAbstractDoubleVector) obj;
                                 VectorAccess access = vector.slowPathAccess();
                                 try (SequentialIterator iter = access.access(vector)) {
@@ -1625,6 +1741,12 @@ public class RSerialize {
                             }
 
                             case RAWSXP: {
+                                if (obj instanceof RRawVector) {
+                                    RRawVector vector = (RRawVector) obj;
+                                    stream.writeInt(vector.getLength());
+                                    stream.writeRaw(vector.getReadonlyData(), vector.getLength());
+                                    break;
+                                }
                                 RAbstractRawVector vector = (RAbstractRawVector) obj;
                                 VectorAccess access = vector.slowPathAccess();
                                 try (SequentialIterator iter = access.access(vector)) {
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.ffi.PCRERFFI;
+
+/**
+ * Per-context LRU cache of compiled regular expressions, both Java {@link Pattern}s and native
+ * PCRE patterns (used for {@code perl=TRUE}). The number of entries is bounded by
+ * {@link FastROptions#RegexCacheSize}, evicted PCRE patterns and their character tables are
+ * released immediately, the remaining ones when the context is disposed. A PCRE pattern obtained
+ * from the cache is therefore only valid until the next pattern is compiled in this context.
+ */
+public final class RegexCache implements RContext.ContextState {
+
+    private static final class Key {
+        private final String pattern;
+        private final int flags;
+        private final boolean pcre;
+
+        Key(String pattern, int flags, boolean pcre) {
+            this.pattern = pattern;
+            this.flags = flags;
+            this.pcre = pcre;
+        }
+
+        @Override
+        public int hashCode() {
+            return (pattern.hashCode() * 31 + flags) * 2 + (pcre ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return flags == other.flags && pcre == other.pcre && pattern.equals(other.pattern);
+        }
+    }
+
+    private static final class PCREPattern {
+        private final PCRERFFI.Result compiled;
+        private final long tables;
+
+        PCREPattern(PCRERFFI.Result compiled, long tables) {
+            this.compiled = compiled;
+            this.tables = tables;
+        }
+    }
+
+    private final LinkedHashMap<Key, Object> entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+            if (size() > capacity) {
+                release(eldest.getValue());
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+    private final int capacity;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private RootCallTarget freeCallTarget;
+
+    private RegexCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public static RegexCache newContextState() {
+        return new RegexCache(FastROptions.RegexCacheSize.getNonNegativeIntValue());
+    }
+
+    /**
+     * Returns the Java pattern for {@code regex} compiled with {@code flags}, compiling it only if
+     * it is not cached in the current context.
+     */
+    @TruffleBoundary
+    public static Pattern compile(String regex, int flags) {
+        return RContext.getInstance().stateRegexCache.getPattern(regex, flags);
+    }
+
+    private synchronized Pattern getPattern(String regex, int flags) {
+        Key key = new Key(regex, flags, false);
+        Pattern result = (Pattern) entries.get(key);
+        if (result == null) {
+            misses++;
+            result = Pattern.compile(regex, flags);
+            if (capacity > 0) {
+                entries.put(key, result);
+            }
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached PCRE pattern for {@code pattern} compiled with {@code flags} or
+     * {@code null} if it needs to be compiled and registered with {@link #putPCRE}.
+     */
+    @TruffleBoundary
+    public synchronized PCRERFFI.Result getPCRE(String pattern, int flags) {
+        PCREPattern result = (PCREPattern) entries.get(new Key(pattern, flags, true));
+        if (result == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return result.compiled;
+    }
+
+    /**
+     * Registers a successfully compiled PCRE pattern and the character tables it was compiled
+     * with, the cache takes over the ownership of both. Returns {@code false} if the cache is
+     * disabled, in which case the caller remains responsible for them.
+     */
+    @TruffleBoundary
+    public synchronized boolean putPCRE(String pattern, int flags, PCRERFFI.Result compiled, long tables) {
+        if (capacity == 0) {
+            return false;
+        }
+        Object old = entries.put(new Key(pattern, flags, true), new PCREPattern(compiled, tables));
+        if (old != null) {
+            release(old);
+        }
+        return true;
+    }
+
+    private void release(Object entry) {
+        if (entry instanceof PCREPattern) {
+            PCREPattern pcre = (PCREPattern) entry;
+            if (freeCallTarget == null) {
+                freeCallTarget = PCRERFFI.FreeRootNode.create().getCallTarget();
+            }
+            freeCallTarget.call(pcre.compiled.result);
+            if (pcre.tables != 0) {
+                freeCallTarget.call(pcre.tables);
+            }
+        }
+    }
+
+    /**
+     * Returns the cache statistics as {@code hits, misses, evictions, number of cached entries,
+     * capacity}.
+     */
+    @TruffleBoundary
+    public synchronized long[] getStatistics() {
+        return new long[]{hits, misses, evictions, entries.size(), capacity};
+    }
+
+    @Override
+    public synchronized void beforeDispose(RContext context) {
+        Iterator<Object> iter = entries.values().iterator();
+        while (iter.hasNext()) {
+            release(iter.next());
+            iter.remove();
+        }
+    }
+}
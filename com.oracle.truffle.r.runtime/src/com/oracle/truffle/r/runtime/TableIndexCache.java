@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.data.RVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * Remembers the hash index built by {@code match} and friends for a table vector, so that code
+ * like {@code x %in% dictionary} called in a loop does not rehash {@code dictionary} each time.
+ *
+ * Only shared vectors with managed data are considered. The first lookup merely notes the vector,
+ * the second one builds the index and makes the vector shared permanent: R code can then no longer
+ * update it in place and any "modification" creates a copy, which is a different key. The entry is
+ * also dropped if the data of the vector moves to native memory. Keys are held weakly, i.e., an
+ * index lives as long as its table vector.
+ */
+public final class TableIndexCache {
+
+    /**
+     * Hashing shorter tables is cheap enough not to be worth the bookkeeping.
+     */
+    public static final int MIN_TABLE_LENGTH = 32;
+
+    private static final Map<RVector<?>, Entry> entries = java.util.Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final class Entry {
+        /**
+         * The managed data of the vector at the time the entry was made.
+         */
+        private final Object store;
+        /**
+         * The index or {@code null} if the vector was seen only once so far.
+         */
+        private final Object index;
+
+        Entry(Object store, Object index) {
+            this.store = store;
+            this.index = index;
+        }
+    }
+
+    private TableIndexCache() {
+        // private
+    }
+
+    /**
+     * Returns the cached index of type {@code indexClass} for {@code table}, builds and caches it
+     * if {@code table} is looked up repeatedly or returns {@code null} if the caller should build a
+     * throw-away index itself. The index must not be modified by the caller.
+     */
+    @TruffleBoundary
+    public static <V extends RAbstractVector, T> T get(V table, Class<T> indexClass, Function<V, T> builder) {
+        if (!(table instanceof RVector) || table.getLength() < MIN_TABLE_LENGTH) {
+            return null;
+        }
+        RVector<?> vector = (RVector<?>) table;
+        if (!vector.isShared()) {
+            return null;
+        }
+        Object store = vector.getInternalManagedData();
+        if (store == null) {
+            entries.remove(vector);
+            return null;
+        }
+        Entry entry = entries.get(vector);
+        if (entry == null || entry.store != store) {
+            entries.put(vector, new Entry(store, null));
+            return null;
+        }
+        if (indexClass.isInstance(entry.index)) {
+            return indexClass.cast(entry.index);
+        }
+        T index = builder.apply(table);
+        if (!vector.isSharedPermanent()) {
+            vector.makeSharedPermanent();
+        }
+        entries.put(vector, new Entry(store, index));
+        return index;
+    }
+}
@@ -28,6 +28,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.channels.ByteChannel;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
@@ -35,8 +36,11 @@ import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Objects;
 
@@ -61,6 +65,15 @@ abstract class DelegateRConnection extends RObject implements RConnection, ByteC
     private final ByteBuffer cache;
     private final boolean readCache;
 
+    /*
+     * Reused by the line oriented operations, created on demand: the bytes of a line that spans
+     * refills of the read cache, the encoder and, if there is no write cache, the buffer that
+     * collects the encoded output of one operation.
+     */
+    private byte[] lineBuffer;
+    private CharsetEncoder encoder;
+    private ByteBuffer encodeBuffer;
+
     DelegateRConnection(BaseRConnection base) {
         this(base, DEFAULT_CACHE_SIZE, true);
     }
@@ -120,8 +133,13 @@ abstract class DelegateRConnection extends RObject implements RConnection, ByteC
         if (!isSeekable()) {
             throw RError.error(RError.SHOW_CALLER, RError.Message.NOT_ENABLED_FOR_THIS_CONN, "seek");
         }
+        if (!readCache && cache != null) {
+            flush();
+        }
         long res = seekInternal(offset, seekMode, seekRWMode);
-        if (seekMode != SeekMode.ENQUIRE) {
+        if (seekMode != SeekMode.ENQUIRE && readCache) {
+            // the write cache has been flushed above and is empty, invalidating it would leave it
+            // without any space for the following writes
             invalidateCache();
         }
         return res;
@@ -138,6 +156,9 @@ abstract class DelegateRConnection extends RObject implements RConnection, ByteC
     @TruffleBoundary
     public String[] readLines(int n, EnumSet<ReadLineWarning> warn, boolean skipNul) throws IOException {
         base.setIncomplete(false);
+        if (readCache && cache != null) {
+            return readLinesCached(n, warn, skipNul);
+        }
         ArrayList<String> lines = new ArrayList<>();
         int totalRead = 0;
         int nBytesConsumed = 0;
@@ -213,6 +234,113 @@ abstract class DelegateRConnection extends RObject implements RConnection, ByteC
         return result;
     }
 
+    /**
+     * Same as {@link #readLines} but scans the read cache for line ends instead of reading byte by
+     * byte. A line that lies completely in the cache is decoded from it directly, only lines that
+     * span a refill of the cache are collected in the reused {@link #lineBuffer}.
+     */
+    private String[] readLinesCached(int n, EnumSet<ReadLineWarning> warn, boolean skipNul) throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        Charset encoding = base.getEncoding();
+        byte[] bytes = cache.array();
+        int lineLength = 0;
+        int nBytesConsumed = 0;
+        boolean nullRead = false;
+        while (true) {
+            if (!cache.hasRemaining()) {
+                ensureDataAvailable(1);
+                if (!cache.hasRemaining()) {
+                    if (lineLength > 0) {
+                        /*
+                         * GnuR says if non-blocking and in text mode, silently push back incomplete
+                         * lines, otherwise keep data and output warning.
+                         */
+                        final String incompleteFinalLine = new String(lineBuffer, 0, lineLength, encoding);
+                        nBytesConsumed += lineLength;
+                        if (!base.isBlocking() && base.isTextMode()) {
+                            base.pushBack(RDataFactory.createStringVector(incompleteFinalLine), false);
+                            base.setIncomplete(true);
+                        } else {
+                            lines.add(incompleteFinalLine);
+                            if (warn.contains(ReadLineWarning.INCOMPLETE_LAST_LINE)) {
+                                RError.warning(RError.SHOW_CALLER, RError.Message.INCOMPLETE_FINAL_LINE, base.getSummaryDescription());
+                            }
+                        }
+                    }
+                    break;
+                }
+            }
+            int start = cache.position();
+            int limit = cache.limit();
+            int pos = start;
+            while (pos < limit && bytes[pos] != '\n' && bytes[pos] != '\r' && bytes[pos] != 0) {
+                pos++;
+            }
+            if (pos == limit) {
+                // no line end in the cache, keep the bytes and refill
+                if (!nullRead) {
+                    appendToLine(bytes, start, pos - start, lineLength);
+                    lineLength += pos - start;
+                }
+                cache.position(limit);
+                continue;
+            }
+            cache.position(pos + 1);
+            if (bytes[pos] == 0) {
+                if (!nullRead) {
+                    appendToLine(bytes, start, pos - start, lineLength);
+                    lineLength += pos - start;
+                }
+                if (!skipNul) {
+                    nullRead = true;
+                    if (warn.contains(ReadLineWarning.EMBEDDED_NUL)) {
+                        RError.warning(RError.SHOW_CALLER, RError.Message.LINE_CONTAINS_EMBEDDED_NULLS, lines.size() + 1);
+                    }
+                }
+                continue;
+            }
+            if (bytes[pos] == '\r') {
+                // swallow the trailing lf, which may only be available after a refill
+                if (!cache.hasRemaining()) {
+                    appendToLine(bytes, start, nullRead ? 0 : pos - start, lineLength);
+                    lineLength += nullRead ? 0 : pos - start;
+                    start = pos = 0;
+                    ensureDataAvailable(1);
+                }
+                if (cache.hasRemaining() && bytes[cache.position()] == '\n') {
+                    cache.get();
+                }
+            }
+            String line;
+            if (nullRead) {
+                line = new String(lineBuffer == null ? bytes : lineBuffer, 0, lineLength, encoding);
+            } else if (lineLength == 0) {
+                line = new String(bytes, start, pos - start, encoding);
+                lineLength = pos - start;
+            } else {
+                appendToLine(bytes, start, pos - start, lineLength);
+                lineLength += pos - start;
+                line = new String(lineBuffer, 0, lineLength, encoding);
+            }
+            lines.add(line);
+            nBytesConsumed += lineLength;
+            lineLength = 0;
+            nullRead = false;
+            if (n > 0 && lines.size() == n) {
+                break;
+            }
+        }
+        updateReadOffset(nBytesConsumed);
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    private void appendToLine(byte[] bytes, int offset, int length, int lineLength) {
+        if (lineBuffer == null || lineBuffer.length < lineLength + length) {
+            lineBuffer = Arrays.copyOf(lineBuffer == null ? new byte[64] : lineBuffer, Math.max(64, Math.max(lineLength + length, lineLength + lineLength / 2)));
+        }
+        System.arraycopy(bytes, offset, lineBuffer, lineLength, length);
+    }
+
     /**
      * Updates the read cursor.<br>
      * <p>
@@ -438,19 +566,119 @@ abstract class DelegateRConnection extends RObject implements RConnection, ByteC
     }
 
     @Override
+    @TruffleBoundary
     public void writeChar(String s, int pad, String eos, boolean useBytes) throws IOException {
-        DelegateRConnection.writeCharHelper(this, s, pad, eos);
+        ByteBuffer target = writeTarget();
+        putBytes(target, s.getBytes());
+        for (int i = 0; i < pad; i++) {
+            putByte(target, (byte) 0);
+        }
+        if (eos != null) {
+            putBytes(target, eos.getBytes());
+            // function writeChar is defined to append the null character if eos != null
+            putByte(target, (byte) 0);
+        }
+        endWrite(target);
     }
 
     @Override
+    @TruffleBoundary
     public void writeLines(RAbstractStringVector lines, String sep, boolean useBytes) throws IOException {
-        boolean incomplete = DelegateRConnection.writeLinesHelper(this, lines, sep, base.getEncoding());
-        base.setIncomplete(incomplete);
+        ByteBuffer target = writeTarget();
+        CharsetEncoder enc = getEncoder();
+        int length = lines.getLength();
+        for (int i = 0; i < length; i++) {
+            encode(target, enc, lines.getDataAt(i));
+            encode(target, enc, sep);
+        }
+        endWrite(target);
+        base.setIncomplete(length > 0 && !sep.contains("\n"));
     }
 
     @Override
+    @TruffleBoundary
     public void writeString(String s, boolean nl) throws IOException {
-        DelegateRConnection.writeStringHelper(this, s, nl, base.getEncoding());
+        ByteBuffer target = writeTarget();
+        CharsetEncoder enc = getEncoder();
+        encode(target, enc, s);
+        if (nl) {
+            encode(target, enc, System.lineSeparator());
+        }
+        endWrite(target);
+    }
+
+    /**
+     * Returns the buffer the text operations encode into: the write cache if there is one, so that
+     * the output is only written when it is full or flushed, otherwise a buffer that is written
+     * once per operation by {@link #endWrite}.
+     */
+    private ByteBuffer writeTarget() {
+        if (!readCache && cache != null) {
+            return cache;
+        }
+        if (encodeBuffer == null) {
+            encodeBuffer = ByteBuffer.allocate(DEFAULT_CACHE_SIZE);
+        }
+        return encodeBuffer;
+    }
+
+    private CharsetEncoder getEncoder() {
+        Charset encoding = base.getEncoding();
+        if (encoder == null || !encoder.charset().equals(encoding)) {
+            // the same replacement as String.getBytes
+            encoder = encoding.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        return encoder;
+    }
+
+    private void encode(ByteBuffer target, CharsetEncoder enc, String s) throws IOException {
+        CharBuffer in = CharBuffer.wrap(s);
+        enc.reset();
+        while (enc.encode(in, target, true).isOverflow()) {
+            drain(target);
+        }
+        CoderResult result;
+        while ((result = enc.flush(target)).isOverflow()) {
+            drain(target);
+        }
+        assert result.isUnderflow();
+    }
+
+    private void putBytes(ByteBuffer target, byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!target.hasRemaining()) {
+                drain(target);
+            }
+            int length = Math.min(target.remaining(), bytes.length - offset);
+            target.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void putByte(ByteBuffer target, byte value) throws IOException {
+        if (!target.hasRemaining()) {
+            drain(target);
+        }
+        target.put(value);
+    }
+
+    private void drain(ByteBuffer target) throws IOException {
+        if (target == cache) {
+            flush();
+        } else {
+            target.flip();
+            while (target.hasRemaining() && write(target) > 0) {
+                // write the rest
+            }
+            target.clear();
+        }
+    }
+
+    private void endWrite(ByteBuffer target) throws IOException {
+        if (target != cache && target.position() > 0) {
+            drain(target);
+        }
     }
 
     @Override
@@ -597,15 +825,20 @@ abstract class DelegateRConnection extends RObject implements RConnection, ByteC
 
     @Override
     public void flush() throws IOException {
-        if (!readCache && cache != null) {
+        if (!readCache && cache != null && cache.position() > 0) {
             cache.flip();
-            getChannel().write(cache);
+            while (cache.hasRemaining() && getChannel().write(cache) > 0) {
+                // write the rest
+            }
             cache.clear();
         }
     }
 
+    /**
+     * The number of bytes read from the channel, but not consumed yet.
+     */
     protected int bytesInCache() {
-        return cache.remaining();
+        return readCache && cache != null ? cache.remaining() : 0;
     }
 
     @Override
@@ -620,6 +853,7 @@ abstract class DelegateRConnection extends RObject implements RConnection, ByteC
 
     @Override
     public void close() throws IOException {
+        flush();
         getChannel().close();
     }
 
@@ -31,8 +31,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ByteChannel;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.OpenOption;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
@@ -40,12 +44,8 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
-import org.tukaani.xz.LZMA2Options;
-import org.tukaani.xz.XZ;
 import org.tukaani.xz.XZInputStream;
-import org.tukaani.xz.XZOutputStream;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.r.runtime.RCompression;
@@ -66,11 +66,13 @@ public class FileConnections {
      */
     public static class FileRConnection extends BasePathRConnection {
         private final boolean raw;
+        private final boolean mmap;
         private final boolean internal;
 
-        public FileRConnection(String description, String path, String modeString, boolean blocking, String encoding, boolean raw, boolean internal) throws IOException {
+        public FileRConnection(String description, String path, String modeString, boolean blocking, String encoding, boolean raw, boolean mmap, boolean internal) throws IOException {
             super(description, checkTemp(path), ConnectionClass.File, modeString, blocking, encoding);
             this.raw = raw;
+            this.mmap = mmap;
             this.internal = internal;
             openNonLazyConnection();
         }
@@ -91,8 +93,13 @@ public class FileConnections {
         @Override
         @TruffleBoundary
         protected void createDelegateConnection() throws IOException {
-
-            DelegateRConnection delegate = FileConnections.createDelegateConnection(this, RCompression.Type.NONE, raw);
+            DelegateRConnection delegate;
+            if (mmap && getOpenMode().abstractOpenMode == AbstractOpenMode.ReadBinary) {
+                // a mapped file is always read as is, i.e., like with 'raw = TRUE'
+                delegate = new FileReadMappedRConnection(this);
+            } else {
+                delegate = FileConnections.createDelegateConnection(this, RCompression.Type.NONE, raw);
+            }
             setDelegate(delegate);
         }
     }
@@ -175,10 +182,10 @@ public class FileConnections {
                 return new CompressedInputRConnection(base, new GZIPInputStream(new FileInputStream(base.path), GZIP_BUFFER_SIZE));
             case Append:
             case AppendBinary:
-                return new CompressedOutputRConnection(base, new GZIPOutputStream(new FileOutputStream(base.path, true), GZIP_BUFFER_SIZE), true);
+                return new CompressedOutputRConnection(base, ParallelCompressedOutputStream.create(new FileOutputStream(base.path, true), RCompression.Type.GZIP), true);
             case Write:
             case WriteBinary:
-                return new CompressedOutputRConnection(base, new GZIPOutputStream(new FileOutputStream(base.path, false), GZIP_BUFFER_SIZE), true);
+                return new CompressedOutputRConnection(base, ParallelCompressedOutputStream.create(new FileOutputStream(base.path, false), RCompression.Type.GZIP), true);
             default:
                 throw RError.nyi(RError.SHOW_CALLER2, "open mode: " + base.getOpenMode());
         }
@@ -192,10 +199,10 @@ public class FileConnections {
                 return new CompressedInputRConnection(base, new XZInputStream(new FileInputStream(base.path)));
             case Append:
             case AppendBinary:
-                return new CompressedOutputRConnection(base, new XZOutputStream(new FileOutputStream(base.path, true), new LZMA2Options(), XZ.CHECK_CRC32), false);
+                return new CompressedOutputRConnection(base, ParallelCompressedOutputStream.create(new FileOutputStream(base.path, true), RCompression.Type.XZ), false);
             case Write:
             case WriteBinary:
-                return new CompressedOutputRConnection(base, new XZOutputStream(new FileOutputStream(base.path, false), new LZMA2Options(), XZ.CHECK_CRC32), false);
+                return new CompressedOutputRConnection(base, ParallelCompressedOutputStream.create(new FileOutputStream(base.path, false), RCompression.Type.XZ), false);
             default:
                 throw RError.nyi(RError.SHOW_CALLER2, "open mode: " + base.getOpenMode());
         }
@@ -295,6 +302,141 @@ public class FileConnections {
         }
     }
 
+    /**
+     * Reads a file in mode {@code "rb"} through memory mapped regions of {@link #WINDOW_SIZE} bytes
+     * instead of a read cache, so that {@code readBin} copies the requested bytes directly from the
+     * mapped region and {@code seek} only sets the position. Regions are mapped on demand, which
+     * allows files larger than a single {@link MappedByteBuffer} to be read at random offsets. The
+     * size of the file is determined when the connection is opened.
+     */
+    static class FileReadMappedRConnection extends DelegateReadRConnection {
+
+        private static final long WINDOW_SIZE = 1L << 30;
+
+        private final FileChannel file;
+        private final MappedChannel channel;
+
+        FileReadMappedRConnection(BasePathRConnection base) throws IOException {
+            super(base, 0);
+            file = FileChannel.open(Paths.get(base.path), StandardOpenOption.READ);
+            channel = new MappedChannel(file.size());
+        }
+
+        @Override
+        public boolean isSeekable() {
+            return true;
+        }
+
+        @Override
+        public long seekInternal(long offset, SeekMode seekMode, SeekRWMode seekRWMode) throws IOException {
+            return DelegateRConnection.seek(channel, offset, seekMode, seekRWMode, 0);
+        }
+
+        @Override
+        protected int readInternal() throws IOException {
+            return channel.read();
+        }
+
+        @Override
+        public ByteChannel getChannel() {
+            return channel;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private final class MappedChannel implements SeekableByteChannel {
+            private final long size;
+            private long position;
+            private MappedByteBuffer window;
+            private long windowStart;
+
+            MappedChannel(long size) {
+                this.size = size;
+            }
+
+            /**
+             * Returns the mapped region containing {@link #position}, which must be less than
+             * {@link #size}.
+             */
+            private MappedByteBuffer window() throws IOException {
+                if (window == null || position < windowStart || position >= windowStart + window.capacity()) {
+                    windowStart = position - position % WINDOW_SIZE;
+                    window = file.map(MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, size - windowStart));
+                }
+                return window;
+            }
+
+            int read() throws IOException {
+                if (position >= size) {
+                    return -1;
+                }
+                MappedByteBuffer w = window();
+                return w.get((int) (position++ - windowStart)) & 0xFF;
+            }
+
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                if (position >= size) {
+                    return -1;
+                }
+                int total = 0;
+                while (dst.hasRemaining() && position < size) {
+                    ByteBuffer src = window().duplicate();
+                    int offset = (int) (position - windowStart);
+                    int length = Math.min(dst.remaining(), src.capacity() - offset);
+                    src.limit(offset + length).position(offset);
+                    dst.put(src);
+                    position += length;
+                    total += length;
+                }
+                return total;
+            }
+
+            @Override
+            public int write(ByteBuffer src) {
+                throw new NonWritableChannelException();
+            }
+
+            @Override
+            public long position() {
+                return position;
+            }
+
+            @Override
+            public SeekableByteChannel position(long newPosition) {
+                if (newPosition < 0) {
+                    throw new IllegalArgumentException();
+                }
+                position = newPosition;
+                return this;
+            }
+
+            @Override
+            public long size() {
+                return size;
+            }
+
+            @Override
+            public SeekableByteChannel truncate(long newSize) {
+                throw new NonWritableChannelException();
+            }
+
+            @Override
+            public boolean isOpen() {
+                return file.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                window = null;
+                file.close();
+            }
+        }
+    }
+
     static class FileReadTextRConnection extends FileReadBinaryRConnection {
 
         FileReadTextRConnection(BasePathRConnection base) throws IOException {
@@ -329,7 +471,7 @@ public class FileConnections {
         private final FileChannel channel;
 
         FileWriteBinaryConnection(BasePathRConnection base, boolean append) throws IOException {
-            super(base, 0);
+            super(base, DEFAULT_CACHE_SIZE);
             List<OpenOption> opts = new ArrayList<>();
             opts.add(StandardOpenOption.WRITE);
             opts.add(StandardOpenOption.CREATE);
@@ -358,6 +500,7 @@ public class FileConnections {
 
         @Override
         public void truncate() throws IOException {
+            flush();
             channel.truncate(channel.position());
         }
     }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.conn;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZ;
+import org.tukaani.xz.XZInputStream;
+import org.tukaani.xz.XZOutputStream;
+
+import com.oracle.truffle.r.runtime.FastROptions;
+import com.oracle.truffle.r.runtime.RCompression;
+import com.oracle.truffle.r.runtime.RInternalError;
+
+/**
+ * An output stream in the style of {@code pigz}: the data is split into fixed-size blocks that are
+ * compressed on the fork-join pool and written to the underlying stream in their original order.
+ * Every block is an independent compressed stream (a gzip member or an xz stream). Both formats
+ * allow such streams to be concatenated, so the result can be read by GNU R as well as by
+ * {@link GZIPInputStream} or {@link XZInputStream}.
+ *
+ * The number of blocks in flight is limited to keep the memory consumption bounded.
+ */
+final class ParallelCompressedOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    private final OutputStream out;
+    private final RCompression.Type type;
+    private final int maxPending;
+    private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int count;
+    private boolean closed;
+    private boolean anySubmitted;
+
+    private ParallelCompressedOutputStream(OutputStream out, RCompression.Type type, int parallelism) {
+        assert type == RCompression.Type.GZIP || type == RCompression.Type.XZ;
+        this.out = out;
+        this.type = type;
+        this.maxPending = 2 * parallelism;
+    }
+
+    /**
+     * Creates a compressing output stream for the given type, which is a parallel one if enabled
+     * by {@link FastROptions#ParallelCompression} and if there is more than one processor.
+     */
+    static OutputStream create(OutputStream out, RCompression.Type type) throws IOException {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (FastROptions.ParallelCompression.getBooleanValue() && parallelism > 1) {
+            return new ParallelCompressedOutputStream(out, type, parallelism);
+        }
+        switch (type) {
+            case GZIP:
+                return new GZIPOutputStream(out, FileConnections.GZIP_BUFFER_SIZE);
+            case XZ:
+                return new XZOutputStream(out, new LZMA2Options(), XZ.CHECK_CRC32);
+            default:
+                throw RInternalError.shouldNotReachHere("unsupported compression type");
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == block.length) {
+            submitBlock();
+        }
+        block[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (count == block.length) {
+                submitBlock();
+            }
+            int n = Math.min(remaining, block.length - count);
+            System.arraycopy(b, offset, block, count, n);
+            count += n;
+            offset += n;
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Compresses the current (incomplete) block and writes out all the blocks, so that everything
+     * written so far can be read from the file. Like a sync flush of a single compressed stream,
+     * frequent flushing degrades the compression ratio.
+     */
+    @Override
+    public void flush() throws IOException {
+        while (!pending.isEmpty()) {
+            writeFirstPending();
+        }
+        if (count > 0) {
+            // all the previous blocks are written, so the current one can be compressed directly
+            // and its buffer reused
+            out.write(compress(type, block, count));
+            count = 0;
+            anySubmitted = true;
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (count > 0 || !anySubmitted) {
+                // an empty file is not a valid compressed stream, so always write at least one
+                // (possibly empty) block
+                submitBlock();
+            }
+            while (!pending.isEmpty()) {
+                writeFirstPending();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] data = block;
+        final int length = count;
+        pending.addLast(ForkJoinPool.commonPool().submit(() -> compress(type, data, length)));
+        block = new byte[BLOCK_SIZE];
+        count = 0;
+        anySubmitted = true;
+        while (pending.size() >= maxPending) {
+            writeFirstPending();
+        }
+    }
+
+    private void writeFirstPending() throws IOException {
+        try {
+            out.write(pending.removeFirst().get());
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new IOException(ex.getCause() != null ? ex.getCause() : ex);
+        }
+    }
+
+    private static byte[] compress(RCompression.Type type, byte[] data, int length) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(length / 2);
+        switch (type) {
+            case GZIP:
+                try (GZIPOutputStream gzos = new GZIPOutputStream(bos, BLOCK_SIZE / 16)) {
+                    gzos.write(data, 0, length);
+                }
+                break;
+            case XZ:
+                // the dictionary does not need to be larger than a block
+                LZMA2Options options = new LZMA2Options();
+                options.setDictSize(Math.min(options.getDictSize(), Math.max(LZMA2Options.DICT_SIZE_MIN, BLOCK_SIZE)));
+                try (XZOutputStream xzos = new XZOutputStream(bos, options, XZ.CHECK_CRC32)) {
+                    xzos.write(data, 0, length);
+                }
+                break;
+            default:
+                throw RInternalError.shouldNotReachHere();
+        }
+        return bos.toByteArray();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.context;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.FastROptions;
+import com.oracle.truffle.r.runtime.RChannel;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
+import com.oracle.truffle.r.runtime.env.REnvironment;
+
+/**
+ * Idle nodes of {@code SHARED} clusters (see {@code forkcluster_overrides.R}) that are kept alive
+ * by the owning context so that subsequent {@code mclapply}, {@code pvec} and
+ * {@code makeForkCluster} calls do not have to spawn and initialize new child contexts. A node is
+ * the R list {@code list(channel=, context=, rank=, initial=)} created by {@code newSHAREDnodes};
+ * its child context is parked in {@code parallel:::slaveLoop} waiting for the next message. Before a
+ * node is released into the pool, {@code resetSHAREDnode} restores the search path, options and RNG
+ * kinds recorded in {@code initial} when the node was spawned and clears its global environment;
+ * nodes that cannot be reset are shut down instead.
+ *
+ * The pool holds at most {@link FastROptions#ContextPoolSize} nodes per {@link ContextKind}. The
+ * remaining pooled nodes are shut down (as {@code stopCluster} would do) when the owning context
+ * is disposed.
+ */
+public final class ChildContextPool implements RContext.ContextState {
+
+    private final EnumMap<ContextKind, ArrayDeque<RList>> idleNodes = new EnumMap<>(ContextKind.class);
+
+    private ChildContextPool() {
+    }
+
+    public static ChildContextPool newContextState() {
+        return new ChildContextPool();
+    }
+
+    public static int getMaxSize() {
+        return FastROptions.ContextPoolSize.getNonNegativeIntValue();
+    }
+
+    /**
+     * Removes at most {@code n} idle nodes of the given kind from the pool.
+     */
+    public synchronized List<RList> acquire(ContextKind kind, int n) {
+        ArrayList<RList> result = new ArrayList<>();
+        ArrayDeque<RList> nodes = idleNodes.get(kind);
+        while (nodes != null && !nodes.isEmpty() && result.size() < n) {
+            result.add(nodes.pop());
+        }
+        return result;
+    }
+
+    /**
+     * Puts the given idle nodes into the pool. The nodes that do not fit are returned and must be
+     * shut down by the caller.
+     */
+    public synchronized List<RList> release(ContextKind kind, List<RList> nodes) {
+        ArrayDeque<RList> pooled = idleNodes.computeIfAbsent(kind, k -> new ArrayDeque<>());
+        int maxSize = getMaxSize();
+        ArrayList<RList> rejected = new ArrayList<>();
+        for (RList node : nodes) {
+            if (pooled.size() < maxSize) {
+                pooled.push(node);
+            } else {
+                rejected.add(node);
+            }
+        }
+        return rejected;
+    }
+
+    public synchronized int size() {
+        int result = 0;
+        for (ArrayDeque<RList> nodes : idleNodes.values()) {
+            result += nodes.size();
+        }
+        return result;
+    }
+
+    @Override
+    public void beforeDispose(RContext context) {
+        ArrayList<RList> nodes = new ArrayList<>();
+        synchronized (this) {
+            for (ArrayDeque<RList> pooled : idleNodes.values()) {
+                nodes.addAll(pooled);
+            }
+            idleNodes.clear();
+        }
+        if (!nodes.isEmpty()) {
+            shutdown(context, nodes);
+        }
+    }
+
+    /**
+     * Equivalent of {@code parallel:::postNode(node, "DONE")} followed by
+     * {@code .fastr.context.join(node$context)} for all the given nodes.
+     */
+    @TruffleBoundary
+    private static void shutdown(RContext context, List<RList> nodes) {
+        RList done = RDataFactory.createList(new Object[]{RDataFactory.createStringVectorFromScalar("DONE"), RNull.instance, RNull.instance},
+                        RDataFactory.createStringVector(new String[]{"type", "data", "tag"}, RDataFactory.COMPLETE_VECTOR));
+        int[] multiSlotIndices = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            RList node = nodes.get(i);
+            RChannel.send(getIntElement(node, "channel"), done);
+            int id = getIntElement(node, "context");
+            Integer multiSlotIndex = EvalThread.idToMultiSlotTable.remove(id);
+            if (multiSlotIndex != null) {
+                multiSlotIndices[i] = multiSlotIndex;
+            }
+            Thread thread = context.threads.get(id);
+            if (thread != null) {
+                try {
+                    thread.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        if (EvalThread.threadCnt.get() == 0) {
+            REnvironment.cleanupSearchpathFromMultiSlot();
+        } else {
+            REnvironment.cleanupSearchpathFromMultiSlot(multiSlotIndices);
+        }
+    }
+
+    private static int getIntElement(RList node, String name) {
+        RStringVector names = node.getNames();
+        if (names != null) {
+            for (int i = 0; i < names.getLength(); i++) {
+                if (name.equals(names.getDataAt(i)) && node.getDataAt(i) instanceof RAbstractIntVector) {
+                    return ((RAbstractIntVector) node.getDataAt(i)).getDataAt(0);
+                }
+            }
+        }
+        throw RInternalError.shouldNotReachHere("invalid pooled cluster node");
+    }
+}
@@ -81,6 +81,7 @@ import com.oracle.truffle.r.runtime.RProfile;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RRuntimeASTAccess;
 import com.oracle.truffle.r.runtime.RSerialize;
+import com.oracle.truffle.r.runtime.RegexCache;
 import com.oracle.truffle.r.runtime.TempPathName;
 import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.builtins.RBuiltinDescriptor;
@@ -333,6 +334,7 @@ public final class RContext {
      * processor, but the set is relatively small, so we just enumerate them here.
      */
     public final REnvVars stateREnvVars;
+    public final ChildContextPool stateChildContextPool;
     public final RLocale.ContextStateImpl stateRLocale;
     public final TempPathName stateTempPath;
     public final RProfile stateRProfile;
@@ -345,6 +347,7 @@ public final class RContext {
     public final RRNG.ContextStateImpl stateRNG;
     public final RSerialize.ContextStateImpl stateRSerialize;
     public final LazyDBCache.ContextStateImpl stateLazyDBCache;
+    public final RegexCache stateRegexCache;
     public final InstrumentationState stateInstrumentation;
     public final ContextStateImpl stateInternalCode;
     public final DLL.ContextStateImpl stateDLL;
@@ -368,8 +371,8 @@ public final class RContext {
     private final AllocationReporter allocationReporter;
 
     private ContextState[] contextStates() {
-        return new ContextState[]{stateREnvVars, stateRLocale, stateRProfile, stateTempPath, stateROptions, stateREnvironment, stateRErrorHandling, stateRConnection, stateStdConnections, stateRNG,
-                        stateRFFI,
+        return new ContextState[]{stateChildContextPool, stateREnvVars, stateRLocale, stateRProfile, stateTempPath, stateROptions, stateREnvironment, stateRErrorHandling, stateRConnection, stateStdConnections, stateRNG,
+                        stateRegexCache, stateRFFI,
                         stateRSerialize, stateLazyDBCache, stateInstrumentation, stateDLL, stateRNullMR};
     }
 
@@ -439,6 +442,7 @@ public final class RContext {
         this.initial = isInitial;
         this.env = env;
         this.stateREnvVars = REnvVars.newContextState(initialEnvVars);
+        this.stateChildContextPool = ChildContextPool.newContextState();
         this.stateRLocale = RLocale.ContextStateImpl.newContextState();
         this.stateTempPath = TempPathName.newContextState();
         this.stateROptions = ROptions.ContextStateImpl.newContextState(stateREnvVars);
@@ -451,6 +455,7 @@ public final class RContext {
         this.stateRNG = RRNG.ContextStateImpl.newContextState();
         this.stateRSerialize = RSerialize.ContextStateImpl.newContextState();
         this.stateLazyDBCache = LazyDBCache.ContextStateImpl.newContextState();
+        this.stateRegexCache = RegexCache.newContextState();
         this.stateInstrumentation = InstrumentationState.newContextState(instrumenter);
         this.stateInternalCode = ContextStateImpl.newContextState();
         this.stateDLL = DLL.ContextStateImpl.newContextState();
@@ -526,6 +531,7 @@ public final class RContext {
         stateRNG.initialize(this);
         stateRSerialize.initialize(this);
         stateLazyDBCache.initialize(this);
+        stateRegexCache.initialize(this);
         stateInstrumentation.initialize(this);
         stateInternalCode.initialize(this);
         stateRNullMR.initialize(this);
@@ -27,9 +27,12 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
@@ -112,6 +115,8 @@ public final class NativeDataAccess {
 
     private static final ReferenceQueue<Object> nativeRefQueue = new ReferenceQueue<>();
 
+    private static final int RELEASE_BATCH_SIZE = 1024;
+
     private static final AtomicReference<Thread> nativeRefQueueThread = new AtomicReference<>(null);
 
     private static long getEmptyDataAddress() {
@@ -132,12 +137,20 @@ public final class NativeDataAccess {
                             new Runnable() {
                                 @Override
                                 public void run() {
+                                    ArrayList<NativeMirror> mirrors = new ArrayList<>();
                                     try {
                                         while (true) {
+                                            // release the mirrors collected together in batches
                                             Reference<?> ref = nativeRefQueue.remove();
-                                            if (ref instanceof Releasable) {
-                                                ((Releasable) ref).release();
-                                            }
+                                            do {
+                                                if (ref instanceof NativeMirror) {
+                                                    mirrors.add((NativeMirror) ref);
+                                                } else if (ref instanceof Releasable) {
+                                                    ((Releasable) ref).release();
+                                                }
+                                            } while (mirrors.size() < RELEASE_BATCH_SIZE && (ref = nativeRefQueue.poll()) != null);
+                                            NativeMirror.releaseAll(mirrors);
+                                            mirrors.clear();
                                         }
                                     } catch (InterruptedException ex) {
                                     }
@@ -196,10 +209,18 @@ public final class NativeDataAccess {
          */
         private Reference<Object> nativeWrapperRef;
 
+        /**
+         * Managed copy of the native data handed out by the read-only accessors. It is valid while
+         * the data has not been written from the managed side and no native code has run since it
+         * was taken, i.e. {@link #readonlyCopyEpoch} equals {@link NativeDataAccess#nativeEpoch}.
+         */
+        private Object readonlyCopy;
+        private long readonlyCopyEpoch;
+
         NativeMirror(RObject owner) {
             super(owner, nativeReferenceQueue());
-            this.id = counter.addAndGet(2);
-            nativeMirrors.put(id, this);
+            this.id = nativeMirrors.reserve();
+            nativeMirrors.publish(this);
         }
 
         /**
@@ -212,7 +233,7 @@ public final class NativeDataAccess {
             this.id = address;
             this.dataAddress = address;
             if (address != 0) {
-                nativeMirrors.put(id, this);
+                addressMirrors.put(id, this);
             }
         }
 
@@ -266,9 +287,29 @@ public final class NativeDataAccess {
 
         @Override
         public void release() {
-            if (id != 0) {
-                nativeMirrors.remove(id, this);
+            if (NativeMirrorTable.isHandle(id)) {
+                nativeMirrors.release(this);
+            } else if (id != 0) {
+                addressMirrors.remove(id, this);
             }
+            freeNative();
+        }
+
+        /**
+         * Releases the given collected mirrors, returning their handles to the table at once.
+         */
+        static void releaseAll(ArrayList<NativeMirror> mirrors) {
+            nativeMirrors.releaseAll(mirrors);
+            for (int i = 0; i < mirrors.size(); i++) {
+                NativeMirror mirror = mirrors.get(i);
+                if (!NativeMirrorTable.isHandle(mirror.id) && mirror.id != 0) {
+                    addressMirrors.remove(mirror.id, mirror);
+                }
+                mirror.freeNative();
+            }
+        }
+
+        private void freeNative() {
             // System.out.println(String.format("gc'ing %16x", id));
             if (dataAddress == getEmptyDataAddress()) {
                 assert (dataAddress = 0xbadbad) != 0;
@@ -282,16 +323,141 @@ public final class NativeDataAccess {
             }
         }
 
+        void setLength(long length) {
+            this.length = length;
+            readonlyCopy = null;
+        }
+
         @Override
         public String toString() {
             return "mirror: address=" + Long.toHexString(dataAddress) + ", id=" + Long.toHexString(id);
         }
     }
 
-    // The counter is initialized to invalid address and incremented by 2 to always get invalid
-    // address value
-    private static final AtomicLong counter = new AtomicLong(0xdef000000000001L);
-    private static final ConcurrentHashMap<Long, NativeMirror> nativeMirrors = new ConcurrentHashMap<>(512);
+    /**
+     * Registry of the mirrors whose ID is a handle, i.e. the vast majority of mirrors.
+     *
+     * A handle consists of a tag in the upper bits, the generation of its slot and the index of its
+     * slot. The tag and the lowest bit being always set make sure that a handle is never a valid
+     * native address. The generation of a slot is incremented whenever its mirror is released, so
+     * that a stale handle of a reused slot is not resolved to the new mirror. The slots are
+     * allocated in slabs that are never moved, lookups do not take a lock and do not box the
+     * handle.
+     */
+    private static final class NativeMirrorTable {
+        private static final long HANDLE_TAG = 0xdefL << 48;
+        private static final long TAG_MASK = 0xfffL << 48;
+        private static final int GENERATION_MASK = 0xffff;
+        private static final int SLAB_BITS = 12;
+        private static final int SLAB_SIZE = 1 << SLAB_BITS;
+        private static final int SLAB_MASK = SLAB_SIZE - 1;
+
+        private volatile AtomicReferenceArray<?>[] slabs = new AtomicReferenceArray<?>[0];
+        // the following fields are guarded by this
+        private int[][] generations = new int[0][];
+        private int[] freeSlots = new int[SLAB_SIZE];
+        private int freeCount;
+        private int nextSlot;
+        private volatile long created;
+        private long released;
+
+        static boolean isHandle(long id) {
+            return (id & (TAG_MASK | 1)) == (HANDLE_TAG | 1);
+        }
+
+        private static int slot(long handle) {
+            return (int) (handle >>> 1) & Integer.MAX_VALUE;
+        }
+
+        /**
+         * Allocates a slot and returns its handle, the mirror must be {@link #publish published}
+         * once its ID is set.
+         */
+        synchronized long reserve() {
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else {
+                if (nextSlot == Integer.MAX_VALUE) {
+                    throw RInternalError.shouldNotReachHere("too many native mirrors");
+                }
+                slot = nextSlot++;
+                if ((slot >>> SLAB_BITS) == slabs.length) {
+                    AtomicReferenceArray<?>[] newSlabs = Arrays.copyOf(slabs, slabs.length + 1);
+                    newSlabs[slabs.length] = new AtomicReferenceArray<NativeMirror>(SLAB_SIZE);
+                    generations = Arrays.copyOf(generations, generations.length + 1);
+                    generations[generations.length - 1] = new int[SLAB_SIZE];
+                    slabs = newSlabs;
+                }
+            }
+            created++;
+            long generation = generations[slot >>> SLAB_BITS][slot & SLAB_MASK];
+            return HANDLE_TAG | (generation << 32) | ((long) slot << 1) | 1;
+        }
+
+        void publish(NativeMirror mirror) {
+            int slot = slot(mirror.id);
+            getSlab(slabs, slot).set(slot & SLAB_MASK, mirror);
+        }
+
+        NativeMirror get(long handle) {
+            if (!isHandle(handle)) {
+                return null;
+            }
+            int slot = slot(handle);
+            AtomicReferenceArray<?>[] currentSlabs = slabs;
+            if ((slot >>> SLAB_BITS) >= currentSlabs.length) {
+                return null;
+            }
+            NativeMirror mirror = getSlab(currentSlabs, slot).get(slot & SLAB_MASK);
+            return mirror != null && mirror.id == handle ? mirror : null;
+        }
+
+        synchronized void release(NativeMirror mirror) {
+            releaseSlot(mirror);
+        }
+
+        synchronized void releaseAll(ArrayList<NativeMirror> mirrors) {
+            for (int i = 0; i < mirrors.size(); i++) {
+                NativeMirror mirror = mirrors.get(i);
+                if (isHandle(mirror.id)) {
+                    releaseSlot(mirror);
+                }
+            }
+        }
+
+        private void releaseSlot(NativeMirror mirror) {
+            int slot = slot(mirror.id);
+            if (getSlab(slabs, slot).compareAndSet(slot & SLAB_MASK, mirror, null)) {
+                int[] slabGenerations = generations[slot >>> SLAB_BITS];
+                slabGenerations[slot & SLAB_MASK] = (slabGenerations[slot & SLAB_MASK] + 1) & GENERATION_MASK;
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+                }
+                freeSlots[freeCount++] = slot;
+                released++;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static AtomicReferenceArray<NativeMirror> getSlab(AtomicReferenceArray<?>[] slabs, int slot) {
+            return (AtomicReferenceArray<NativeMirror>) slabs[slot >>> SLAB_BITS];
+        }
+
+        long getCreated() {
+            return created;
+        }
+
+        synchronized long[] getStatistics() {
+            return new long[]{created, released, created - released, nextSlot};
+        }
+    }
+
+    private static final NativeMirrorTable nativeMirrors = new NativeMirrorTable();
+    /**
+     * Mirrors whose ID is the native address of their data, see {@link CustomNativeMirror}.
+     */
+    private static final ConcurrentHashMap<Long, NativeMirror> addressMirrors = new ConcurrentHashMap<>();
     private static final ConcurrentHashMap<Long, RuntimeException> nativeMirrorInfo = TRACE_MIRROR_ALLOCATION_SITES ? new ConcurrentHashMap<>() : null;
 
     public static CallTarget createIsPointer() {
@@ -369,11 +535,11 @@ public final class NativeDataAccess {
 
     /**
      * For given native mirror ID returns the Java side object (vector). TruffleBoundary because it
-     * calls into HashMap.
+     * dereferences a weak reference and may call into HashMap.
      */
     @TruffleBoundary
     public static Object lookup(long address) {
-        NativeMirror nativeMirror = nativeMirrors.get(address);
+        NativeMirror nativeMirror = NativeMirrorTable.isHandle(address) ? nativeMirrors.get(address) : addressMirrors.get(address);
         if (nativeMirror == null) {
             CompilerDirectives.transferToInterpreter();
             throw reportDataAccessError(address);
@@ -389,7 +555,25 @@ public final class NativeDataAccess {
     private static RuntimeException reportDataAccessError(long address) {
         RuntimeException location = TRACE_MIRROR_ALLOCATION_SITES ? nativeMirrorInfo.get(address) : null;
         printDataAccessErrorLocation(location);
-        throw RInternalError.shouldNotReachHere("unknown native reference " + address + "L / 0x" + Long.toHexString(address) + " (current id count: " + Long.toHexString(counter.get()) + ")");
+        throw RInternalError.shouldNotReachHere("unknown native reference " + address + "L / 0x" + Long.toHexString(address) + " (native mirrors created: " + nativeMirrors.getCreated() + ")");
+    }
+
+    /**
+     * Returns the number of mirrors with handle IDs created so far.
+     */
+    public static long getNativeMirrorsCreated() {
+        return nativeMirrors.getCreated();
+    }
+
+    /**
+     * Returns the number of mirrors created, released and alive, the number of slots of the handle
+     * table and the number of mirrors registered under their native address.
+     */
+    public static long[] getNativeMirrorStatistics() {
+        long[] stats = nativeMirrors.getStatistics();
+        long[] result = Arrays.copyOf(stats, stats.length + 1);
+        result[stats.length] = addressMirrors.size();
+        return result;
     }
 
     private static void printDataAccessErrorLocation(RuntimeException location) {
@@ -452,33 +636,124 @@ public final class NativeDataAccess {
     }
 
     public static void setNativeMirrorDoubleData(Object nativeMirror, int index, double value) {
-        long address = ((NativeMirror) nativeMirror).dataAddress;
+        NativeMirror mirror = (NativeMirror) nativeMirror;
+        mirror.readonlyCopy = null;
+        long address = mirror.dataAddress;
         assert address != 0;
-        assert index < ((NativeMirror) nativeMirror).length;
+        assert index < mirror.length;
         UnsafeAdapter.UNSAFE.putDouble(address + index * Unsafe.ARRAY_DOUBLE_INDEX_SCALE, value);
     }
 
     public static void setNativeMirrorRawData(Object nativeMirror, int index, byte value) {
-        long address = ((NativeMirror) nativeMirror).dataAddress;
+        NativeMirror mirror = (NativeMirror) nativeMirror;
+        mirror.readonlyCopy = null;
+        long address = mirror.dataAddress;
         assert address != 0;
-        assert index < ((NativeMirror) nativeMirror).length;
+        assert index < mirror.length;
         UnsafeAdapter.UNSAFE.putByte(address + index * Unsafe.ARRAY_BYTE_INDEX_SCALE, value);
     }
 
     public static void setNativeMirrorIntData(Object nativeMirror, int index, int value) {
-        long address = ((NativeMirror) nativeMirror).dataAddress;
+        NativeMirror mirror = (NativeMirror) nativeMirror;
+        mirror.readonlyCopy = null;
+        long address = mirror.dataAddress;
         assert address != 0;
-        assert index < ((NativeMirror) nativeMirror).length;
+        assert index < mirror.length;
         UnsafeAdapter.UNSAFE.putInt(address + index * Unsafe.ARRAY_INT_INDEX_SCALE, value);
     }
 
     public static void setNativeMirrorLogicalData(Object nativeMirror, int index, byte logical) {
-        long address = ((NativeMirror) nativeMirror).dataAddress;
+        NativeMirror mirror = (NativeMirror) nativeMirror;
+        mirror.readonlyCopy = null;
+        long address = mirror.dataAddress;
         assert address != 0;
-        assert index < ((NativeMirror) nativeMirror).length;
+        assert index < mirror.length;
         UnsafeAdapter.UNSAFE.putInt(address + index * Unsafe.ARRAY_INT_INDEX_SCALE, RRuntime.logical2int(logical));
     }
 
+    /**
+     * Incremented whenever control is transferred to native code, which may then write to the
+     * native data of any vector it has obtained a pointer to.
+     */
+    private static final AtomicLong nativeEpoch = new AtomicLong();
+
+    /**
+     * Must be called before native code is entered or re-entered, i.e. at the start of each
+     * down-call and at the end of each up-call.
+     */
+    public static void nativeCodeEntered() {
+        nativeEpoch.incrementAndGet();
+    }
+
+    /**
+     * Larger read-only copies are not kept, so that the managed heap does not hold a second copy of
+     * big native vectors.
+     */
+    private static final int READONLY_COPY_MAX_BYTES = 1024 * 1024;
+
+    private static Object getReadonlyCopy(NativeMirror mirror) {
+        Object copy = mirror.readonlyCopy;
+        return copy != null && mirror.readonlyCopyEpoch == nativeEpoch.get() ? copy : null;
+    }
+
+    private static void setReadonlyCopy(NativeMirror mirror, Object copy, long bytes, long epoch) {
+        if (bytes <= READONLY_COPY_MAX_BYTES) {
+            mirror.readonlyCopyEpoch = epoch;
+            mirror.readonlyCopy = copy;
+        }
+    }
+
+    /**
+     * Like {@link #copyDoubleNativeData(Object)}, but the result may be shared by subsequent calls
+     * until the data is modified and must not be written to. In particular, it must not become the
+     * data of another vector, callers that need a writable array must use
+     * {@link #copyDoubleNativeData(Object)}.
+     */
+    public static double[] getReadonlyDoubleNativeData(Object mirrorObj) {
+        NativeMirror mirror = (NativeMirror) mirrorObj;
+        Object copy = getReadonlyCopy(mirror);
+        if (copy instanceof double[]) {
+            assert Arrays.equals((double[]) copy, copyDoubleNativeData(mirror)) : "read-only copy of native data was modified";
+            return (double[]) copy;
+        }
+        long epoch = nativeEpoch.get();
+        double[] data = copyDoubleNativeData(mirror);
+        setReadonlyCopy(mirror, data, (long) data.length * Unsafe.ARRAY_DOUBLE_INDEX_SCALE, epoch);
+        return data;
+    }
+
+    /**
+     * See {@link #getReadonlyDoubleNativeData(Object)}.
+     */
+    public static int[] getReadonlyIntNativeData(Object mirrorObj) {
+        NativeMirror mirror = (NativeMirror) mirrorObj;
+        Object copy = getReadonlyCopy(mirror);
+        if (copy instanceof int[]) {
+            assert Arrays.equals((int[]) copy, copyIntNativeData(mirror)) : "read-only copy of native data was modified";
+            return (int[]) copy;
+        }
+        long epoch = nativeEpoch.get();
+        int[] data = copyIntNativeData(mirror);
+        setReadonlyCopy(mirror, data, (long) data.length * Unsafe.ARRAY_INT_INDEX_SCALE, epoch);
+        return data;
+    }
+
+    /**
+     * See {@link #getReadonlyDoubleNativeData(Object)}.
+     */
+    public static byte[] getReadonlyByteNativeData(Object mirrorObj) {
+        NativeMirror mirror = (NativeMirror) mirrorObj;
+        Object copy = getReadonlyCopy(mirror);
+        if (copy instanceof byte[]) {
+            assert Arrays.equals((byte[]) copy, copyByteNativeData(mirror)) : "read-only copy of native data was modified";
+            return (byte[]) copy;
+        }
+        long epoch = nativeEpoch.get();
+        byte[] data = copyByteNativeData(mirror);
+        setReadonlyCopy(mirror, data, data.length, epoch);
+        return data;
+    }
+
     public static double[] copyDoubleNativeData(Object mirrorObj) {
         NativeMirror mirror = (NativeMirror) mirrorObj;
         long address = mirror.dataAddress;
@@ -545,7 +820,7 @@ public final class NativeDataAccess {
         if (noIntNative.isValid() || data != null) {
             allocateNativeContents(vector, data, length);
         } else {
-            ((NativeMirror) vector.getNativeMirror()).length = length;
+            ((NativeMirror) vector.getNativeMirror()).setLength(length);
         }
     }
 
@@ -568,7 +843,9 @@ public final class NativeDataAccess {
         if (noIntNative.isValid() || data != null) {
             data[index] = value;
         } else {
-            long address = ((NativeMirror) vector.getNativeMirror()).dataAddress;
+            NativeMirror mirror = (NativeMirror) vector.getNativeMirror();
+            mirror.readonlyCopy = null;
+            long address = mirror.dataAddress;
             assert address != 0;
             UnsafeAdapter.UNSAFE.putInt(address + index * Unsafe.ARRAY_INT_INDEX_SCALE, value);
         }
@@ -596,7 +873,9 @@ public final class NativeDataAccess {
         if (noLogicalNative.isValid() || data != null) {
             data[index] = value;
         } else {
-            long address = ((NativeMirror) vector.getNativeMirror()).dataAddress;
+            NativeMirror mirror = (NativeMirror) vector.getNativeMirror();
+            mirror.readonlyCopy = null;
+            long address = mirror.dataAddress;
             assert address != 0;
             UnsafeAdapter.UNSAFE.putInt(address + index * Unsafe.ARRAY_INT_INDEX_SCALE, RRuntime.logical2int(value));
         }
@@ -606,7 +885,7 @@ public final class NativeDataAccess {
         if (noLogicalNative.isValid() || data != null) {
             allocateNativeContents(vector, data, length);
         } else {
-            ((NativeMirror) vector.getNativeMirror()).length = length;
+            ((NativeMirror) vector.getNativeMirror()).setLength(length);
         }
     }
 
@@ -642,7 +921,7 @@ public final class NativeDataAccess {
         if (noRawNative.isValid() || data != null) {
             allocateNativeContents(vector, data, length);
         } else {
-            ((NativeMirror) vector.getNativeMirror()).length = length;
+            ((NativeMirror) vector.getNativeMirror()).setLength(length);
         }
     }
 
@@ -661,7 +940,9 @@ public final class NativeDataAccess {
         if (noRawNative.isValid() || data != null) {
             data[index] = value;
         } else {
-            long address = ((NativeMirror) vector.getNativeMirror()).dataAddress;
+            NativeMirror mirror = (NativeMirror) vector.getNativeMirror();
+            mirror.readonlyCopy = null;
+            long address = mirror.dataAddress;
             assert address != 0;
             UnsafeAdapter.UNSAFE.putInt(address + index * Unsafe.ARRAY_BYTE_INDEX_SCALE, value);
         }
@@ -687,7 +968,7 @@ public final class NativeDataAccess {
         if (noDoubleNative.isValid() || data != null) {
             allocateNativeContents(vector, data, length);
         } else {
-            ((NativeMirror) vector.getNativeMirror()).length = length;
+            ((NativeMirror) vector.getNativeMirror()).setLength(length);
         }
     }
 
@@ -746,7 +1027,7 @@ public final class NativeDataAccess {
         if (noComplexNative.isValid() || data != null) {
             allocateNativeContents(vector, data, length);
         } else {
-            ((NativeMirror) vector.getNativeMirror()).length = length;
+            ((NativeMirror) vector.getNativeMirror()).setLength(length);
         }
     }
 
@@ -766,7 +1047,9 @@ public final class NativeDataAccess {
             data[index * 2] = re;
             data[index * 2 + 1] = im;
         } else {
-            long address = ((NativeMirror) vector.getNativeMirror()).dataAddress;
+            NativeMirror mirror = (NativeMirror) vector.getNativeMirror();
+            mirror.readonlyCopy = null;
+            long address = mirror.dataAddress;
             assert address != 0;
             UnsafeAdapter.UNSAFE.putDouble(address + index * 2 * Unsafe.ARRAY_DOUBLE_INDEX_SCALE, re);
             UnsafeAdapter.UNSAFE.putDouble(address + (index * 2 + 1) * Unsafe.ARRAY_DOUBLE_INDEX_SCALE, im);
@@ -1014,7 +1297,7 @@ public final class NativeDataAccess {
         }
         NativeMirror mirror = (NativeMirror) obj.getNativeMirror();
         mirror.dataAddress = address;
-        mirror.length = length;
+        mirror.setLength(length);
 
     }
 
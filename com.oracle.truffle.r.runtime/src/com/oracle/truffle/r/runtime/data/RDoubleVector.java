@@ -171,13 +171,13 @@ public final class RDoubleVector extends RVector<double[]> implements RAbstractD
         if (data != null) {
             return data;
         } else {
-            return NativeDataAccess.copyDoubleNativeData(getNativeMirror());
+            return NativeDataAccess.getReadonlyDoubleNativeData(getNativeMirror());
         }
     }
 
     @Override
     public RDoubleVector copyWithNewDimensions(int[] newDimensions) {
-        return RDataFactory.createDoubleVector(getReadonlyData(), isComplete(), newDimensions);
+        return RDataFactory.createDoubleVector(data != null ? data : getDataCopy(), isComplete(), newDimensions);
     }
 
     private RDoubleVector updateDataAt(int index, double value, NACheck valueNACheck) {
@@ -174,13 +174,13 @@ public final class RIntVector extends RVector<int[]> implements RAbstractIntVect
         if (data != null) {
             return data;
         } else {
-            return NativeDataAccess.copyIntNativeData(getNativeMirror());
+            return NativeDataAccess.getReadonlyIntNativeData(getNativeMirror());
         }
     }
 
     @Override
     public RIntVector copyWithNewDimensions(int[] newDimensions) {
-        return RDataFactory.createIntVector(getReadonlyData(), isComplete(), newDimensions);
+        return RDataFactory.createIntVector(data != null ? data : getDataCopy(), isComplete(), newDimensions);
     }
 
     private RIntVector updateDataAt(int index, int value, NACheck valueNACheck) {
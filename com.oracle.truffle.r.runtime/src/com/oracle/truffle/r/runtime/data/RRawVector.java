@@ -154,13 +154,13 @@ public final class RRawVector extends RVector<byte[]> implements RAbstractRawVec
         if (data != null) {
             return data;
         } else {
-            return NativeDataAccess.copyByteNativeData(getNativeMirror());
+            return NativeDataAccess.getReadonlyByteNativeData(getNativeMirror());
         }
     }
 
     @Override
     public RRawVector copyWithNewDimensions(int[] newDimensions) {
-        return RDataFactory.createRawVector(getReadonlyData(), newDimensions);
+        return RDataFactory.createRawVector(data != null ? data : getDataCopy(), newDimensions);
     }
 
     @Override
@@ -119,24 +119,25 @@ public abstract class RVector<ArrayT> extends RSharingAttributeStorage implement
     /**
      * Return vector data (copying if necessary) that's guaranteed to be either temporary in terms
      * of vector sharing mode, or owned by only one location (non-shared). It is not safe to re-use
-     * the array returned to create a new vector.
+     * the array returned to create a new vector. The data of a native vector is always copied, as
+     * its read-only data may be shared (see {@link NativeDataAccess}).
      *
      * @return vector data
      */
     public final ArrayT getDataNonShared() {
-        return !isShared() ? getReadonlyData() : getDataCopy();
+        return !isShared() && !hasNativeMemoryData() ? getReadonlyData() : getDataCopy();
     }
 
     /**
      * Return vector data (copying if necessary) that's guaranteed to be "fresh" (temporary in terms
      * of vector sharing mode). As long as the vector is not returned or put into a list/environment
      * (i.e. if it is temporary, it will stay temporary), it is safe to reuse the array returned by
-     * this method to create a new vector.
+     * this method to create a new vector. The data of a native vector is always copied.
      *
      * @return vector data
      */
     public final ArrayT getDataTemp() {
-        return isTemporary() ? getReadonlyData() : getDataCopy();
+        return isTemporary() && !hasNativeMemoryData() ? getReadonlyData() : getDataCopy();
     }
 
     @Override
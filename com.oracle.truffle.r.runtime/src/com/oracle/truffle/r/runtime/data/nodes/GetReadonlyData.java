@@ -53,7 +53,7 @@ public class GetReadonlyData {
 
         @Specialization(guards = "vec.hasNativeMemoryData()")
         protected double[] doNativeDataRVector(RDoubleVector vec) {
-            return NativeDataAccess.copyDoubleNativeData(vec.getNativeMirror());
+            return NativeDataAccess.getReadonlyDoubleNativeData(vec.getNativeMirror());
         }
 
         public static Double create() {
@@ -89,7 +89,7 @@ public class GetReadonlyData {
 
         @Specialization(guards = "vec.hasNativeMemoryData()")
         protected int[] doNativeDataRVector(RIntVector vec) {
-            return NativeDataAccess.copyIntNativeData(vec.getNativeMirror());
+            return NativeDataAccess.getReadonlyIntNativeData(vec.getNativeMirror());
         }
 
         public static Int create() {
@@ -26,6 +26,7 @@ import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInterface;
 import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
 import com.oracle.truffle.r.runtime.data.RNull;
 
 /**
@@ -36,11 +37,16 @@ public interface CallRFFI {
 
         default Object dispatch(NativeCallInfo nativeCallInfo, Object[] args) {
             RFFIContext stateRFFI = RContext.getInstance().getStateRFFI();
+            boolean outermost = stateRFFI.getCallDepth() == 0;
+            long mirrors = outermost ? NativeDataAccess.getNativeMirrorsCreated() : 0;
             long before = stateRFFI.beforeDowncall();
             try {
                 return execute(nativeCallInfo, args);
             } finally {
                 stateRFFI.afterDowncall(before);
+                if (outermost && nativeCallInfo.dllInfo != null) {
+                    nativeCallInfo.dllInfo.recordNativeCall(NativeDataAccess.getNativeMirrorsCreated() - mirrors);
+                }
             }
         }
 
@@ -55,11 +61,16 @@ public interface CallRFFI {
     interface InvokeVoidCallNode extends NodeInterface {
         default void dispatch(NativeCallInfo nativeCallInfo, Object[] args) {
             RFFIContext stateRFFI = RContext.getInstance().getStateRFFI();
+            boolean outermost = stateRFFI.getCallDepth() == 0;
+            long mirrors = outermost ? NativeDataAccess.getNativeMirrorsCreated() : 0;
             long before = stateRFFI.beforeDowncall();
             try {
                 execute(nativeCallInfo, args);
             } finally {
                 stateRFFI.afterDowncall(before);
+                if (outermost && nativeCallInfo.dllInfo != null) {
+                    nativeCallInfo.dllInfo.recordNativeCall(NativeDataAccess.getNativeMirrorsCreated() - mirrors);
+                }
             }
         }
 
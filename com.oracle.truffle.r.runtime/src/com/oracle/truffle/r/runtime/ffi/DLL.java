@@ -114,6 +114,7 @@ public class DLL {
                 if (!context.isInitial()) {
                     assert list.isEmpty();
                     list.add(libRdllInfo);
+                    symbolsChanged();
                 }
             }
             return this;
@@ -142,6 +143,7 @@ public class DLL {
             assert list.isEmpty();
             list.add(dllInfo);
             libRdllInfo = dllInfo;
+            symbolsChanged();
         }
     }
 
@@ -154,6 +156,17 @@ public class DLL {
      */
     private static final AtomicInteger ID = new AtomicInteger();
 
+    /**
+     * Incremented whenever a change to the list of loaded DLLs or to their symbol tables may change
+     * the result of a symbol lookup. Used to validate the results cached in
+     * {@link RFindSymbolNode}.
+     */
+    private static final AtomicInteger symbolsVersion = new AtomicInteger();
+
+    private static void symbolsChanged() {
+        symbolsVersion.incrementAndGet();
+    }
+
     public enum NativeSymbolType {
         C,
         Call,
@@ -229,6 +242,14 @@ public class DLL {
          * .Call etc.
          */
         private final boolean syntheticHandle;
+        /**
+         * Number of outermost down-calls into this library and of the native mirrors created during
+         * them (see {@code CallRFFI}). These are plain fields so that recording a call stays cheap,
+         * concurrent calls from several threads may lose an update. The mirror count is taken from
+         * a VM-wide counter, so it includes mirrors created concurrently by other threads.
+         */
+        private long nativeCalls;
+        private long nativeCallMirrors;
 
         private DLLInfo(String name, String path, boolean dynamicLookup, Object handle, boolean syntheticHandle) {
             this.id = ID.getAndIncrement();
@@ -241,6 +262,19 @@ public class DLL {
             this.syntheticHandle = syntheticHandle;
         }
 
+        public void recordNativeCall(long mirrors) {
+            nativeCalls++;
+            nativeCallMirrors += mirrors;
+        }
+
+        public long getNativeCalls() {
+            return nativeCalls;
+        }
+
+        public long getNativeCallMirrors() {
+            return nativeCallMirrors;
+        }
+
         private static DLLInfo create(String name, String path, boolean dynamicLookup, Object handle, boolean addToList) {
             return create(name, path, dynamicLookup, handle, addToList, false);
         }
@@ -250,6 +284,7 @@ public class DLL {
             if (addToList) {
                 ContextStateImpl contextState = getContextState();
                 contextState.list.add(result);
+                symbolsChanged();
             }
             return result;
         }
@@ -272,6 +307,7 @@ public class DLL {
 
         public void setNativeSymbols(int nstOrd, DotSymbol[] symbols) {
             nativeSymbols[nstOrd] = symbols;
+            symbolsChanged();
         }
 
         public DotSymbol[] getNativeSymbols(NativeSymbolType nst) {
@@ -529,6 +565,7 @@ public class DLL {
     public static DLLInfo createSyntheticLib(RContext context, String library) {
         DLLInfo dllInfo = DLLInfo.create(library, library, true, new Object(), false, true);
         context.stateDLL.list.add(dllInfo);
+        symbolsChanged();
         return dllInfo;
     }
 
@@ -633,6 +670,7 @@ public class DLL {
                         throw new DLLException(null, RError.Message.DLL_LOAD_ERROR, path, "");
                     }
                     contextState.list.remove(info);
+                    symbolsChanged();
                     return;
                 }
             }
@@ -693,6 +731,56 @@ public class DLL {
     public static final class RFindSymbolNode extends Node {
         @Child private RdlsymNode rdlsymNode = new RdlsymNode();
 
+        /*
+         * The last successful lookup. A call site almost always looks up the same symbol, so this
+         * avoids scanning the loaded DLLs on each call. The result is valid as long as the lookup
+         * happens in the same context and no DLL was loaded, unloaded or changed its symbols.
+         */
+        private CachedLookup cached;
+
+        private static final class CachedLookup {
+            private final String name;
+            private final String libName;
+            /**
+             * The symbol type the lookup was restricted to, {@code null} if there was no
+             * {@link RegisteredNativeSymbol}. The callers of {@code .C} and {@code .Fortran} create a
+             * new {@link RegisteredNativeSymbol} for each call, so it is matched by its type and not
+             * by identity.
+             */
+            private final NativeSymbolType queryNst;
+            private final ContextStateImpl state;
+            private final int version;
+            private final SymbolHandle func;
+            // the values the lookup stored into the RegisteredNativeSymbol
+            private final NativeSymbolType nst;
+            private final DotSymbol dotSymbol;
+            private final DLLInfo dllInfo;
+
+            CachedLookup(String name, String libName, NativeSymbolType queryNst, RegisteredNativeSymbol rns, ContextStateImpl state, int version, SymbolHandle func) {
+                this.name = name;
+                this.libName = libName;
+                this.queryNst = queryNst;
+                this.state = state;
+                this.version = version;
+                this.func = func;
+                this.nst = rns == null ? null : rns.nst;
+                this.dotSymbol = rns == null ? null : rns.dotSymbol;
+                this.dllInfo = rns == null ? null : rns.dllInfo;
+            }
+
+            boolean matches(String n, String lib, RegisteredNativeSymbol r, ContextStateImpl s, int v) {
+                return state == s && version == v && (r == null ? queryNst == null : r.nst == queryNst) && name.equals(n) && (lib == null ? libName == null : lib.equals(libName));
+            }
+
+            void update(RegisteredNativeSymbol r) {
+                if (r != null) {
+                    r.nst = nst;
+                    r.dotSymbol = dotSymbol;
+                    r.dllInfo = dllInfo;
+                }
+            }
+        }
+
         /**
          * Directly analogous to the GnuR function {@code R_FindSymbol}.
          *
@@ -704,8 +792,23 @@ public class DLL {
          */
         @TruffleBoundary
         public SymbolHandle execute(String name, String libName, RegisteredNativeSymbol rns) {
-            boolean all = libName == null || libName.length() == 0;
             ContextStateImpl contextState = getContextState();
+            int version = symbolsVersion.get();
+            CachedLookup lookup = cached;
+            if (lookup != null && lookup.matches(name, libName, rns, contextState, version)) {
+                lookup.update(rns);
+                return lookup.func;
+            }
+            NativeSymbolType queryNst = rns == null ? null : rns.nst;
+            SymbolHandle func = find(contextState, name, libName, rns);
+            if (func != SYMBOL_NOT_FOUND) {
+                cached = new CachedLookup(name, libName, queryNst, rns, contextState, version, func);
+            }
+            return func;
+        }
+
+        private SymbolHandle find(ContextStateImpl contextState, String name, String libName, RegisteredNativeSymbol rns) {
+            boolean all = libName == null || libName.length() == 0;
             for (DLLInfo dllInfo : contextState.list) {
                 if (dllInfo.forceSymbols) {
                     continue;
@@ -860,12 +963,14 @@ public class DLL {
     public static int useDynamicSymbols(DLLInfo dllInfo, int value) {
         int old = dllInfo.dynamicLookup ? 1 : 0;
         dllInfo.dynamicLookup = value == 0 ? false : true;
+        symbolsChanged();
         return old;
     }
 
     public static int forceSymbols(DLLInfo dllInfo, int value) {
         int old = dllInfo.forceSymbols ? 1 : 0;
         dllInfo.forceSymbols = value == 0 ? false : true;
+        symbolsChanged();
         return old;
     }
 
@@ -26,6 +26,7 @@ import java.nio.charset.StandardCharsets;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.ForeignAccess;
 import com.oracle.truffle.api.interop.Message;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -184,6 +185,43 @@ public final class PCRERFFI {
         }
     }
 
+    public static final class FreeNode extends NativeCallNode {
+        private FreeNode(DownCallNodeFactory factory) {
+            super(factory.createDownCallNode(NativeFunction.free));
+        }
+
+        /**
+         * Releases memory allocated by PCRE, i.e. a compiled pattern or character tables.
+         */
+        public void execute(long pointer) {
+            call(pointer);
+        }
+
+        public static FreeNode create() {
+            return RFFIFactory.getPCRERFFI().createFreeNode();
+        }
+    }
+
+    /**
+     * Allows to release PCRE memory outside of an AST, e.g. when a cached pattern is evicted.
+     */
+    public static final class FreeRootNode extends RFFIRootNode<FreeNode> {
+
+        private FreeRootNode() {
+            super(RFFIFactory.getPCRERFFI().createFreeNode());
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            rffiNode.execute((long) frame.getArguments()[0]);
+            return null;
+        }
+
+        public static FreeRootNode create() {
+            return new FreeRootNode();
+        }
+    }
+
     public MaketablesNode createMaketablesNode() {
         return new MaketablesNode(downCallNodeFactory);
     }
@@ -208,4 +246,8 @@ public final class PCRERFFI {
     public ExecNode createExecNode() {
         return new ExecNode(downCallNodeFactory);
     }
+
+    public FreeNode createFreeNode() {
+        return new FreeNode(downCallNodeFactory);
+    }
 }
@@ -33,6 +33,7 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
 import com.oracle.truffle.r.runtime.data.RObject;
 
 /**
@@ -104,6 +105,7 @@ public abstract class RFFIContext extends RFFI {
         if (canRunGc) {
             cooperativeGc();
         }
+        NativeDataAccess.nativeCodeEntered();
     }
 
     /**
@@ -126,6 +128,7 @@ public abstract class RFFIContext extends RFFI {
 
     public long beforeDowncall() {
         callDepth++;
+        NativeDataAccess.nativeCodeEntered();
         return 0;
     }
 
@@ -23,8 +23,17 @@ package com.oracle.truffle.r.runtime.nodes;
 import java.util.HashSet;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetCharacter;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetComplex;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetDouble;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetInt;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.model.RAbstractComplexVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
+import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
 
 /**
  * Code sharing vehicle for the slight differences in behavior between {@code duplicated} and
@@ -33,19 +42,22 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
  */
 public class DuplicationHelper {
     private final RAbstractContainer x;
-    private final HashSet<Object> vectorContents = new HashSet<>();
-    private final HashSet<Object> incompContents;
+    private final ElementSet vectorContents;
+    private final ElementSet incompContents;
     private final byte[] dupVec;
     private int index;
 
     public DuplicationHelper(RAbstractContainer x, RAbstractContainer incomparables, boolean justIndex, boolean fromLast) {
         this.x = x;
-        vectorContents.add(x.getDataAtAsObject(fromLast ? x.getLength() - 1 : 0));
+        // the native versions may pass incomparables of another type
+        boolean typed = incomparables == null || ElementSet.sameType(x, incomparables);
+        this.vectorContents = typed ? ElementSet.create(x, x.getLength()) : ElementSet.createGeneric();
+        vectorContents.add(x, fromLast ? x.getLength() - 1 : 0);
 
         if (incomparables != null) {
-            incompContents = new HashSet<>();
+            incompContents = typed ? ElementSet.create(x, incomparables.getLength()) : ElementSet.createGeneric();
             for (int i = 0; i < incomparables.getLength(); i++) {
-                incompContents.add(incomparables.getDataAtAsObject(i));
+                incompContents.add(incomparables, i);
             }
         } else {
             incompContents = null;
@@ -54,16 +66,14 @@ public class DuplicationHelper {
     }
 
     public boolean doIt(int i) {
-        if (incompContents == null || !incompContents.contains(x.getDataAtAsObject(i))) {
-            if (vectorContents.contains(x.getDataAtAsObject(i))) {
+        if (incompContents == null || !incompContents.contains(x, i)) {
+            if (vectorContents.add(x, i)) {
                 if (dupVec == null) {
                     index = i + 1;
                     return true;
                 } else {
                     dupVec[i] = RRuntime.LOGICAL_TRUE;
                 }
-            } else {
-                vectorContents.add(x.getDataAtAsObject(i));
             }
         } else {
             if (dupVec != null) {
@@ -99,4 +109,117 @@ public class DuplicationHelper {
         }
         return ds;
     }
+
+    /**
+     * A set of the elements of vectors of one type, the incomparables are of the same type as
+     * {@code x}. The atomic types use the primitive hash sets, other vectors fall back to the
+     * elements' {@code equals}.
+     */
+    private abstract static class ElementSet {
+
+        /**
+         * Adds the {@code i}-th element of {@code v}, returns {@code true} if it was already
+         * present.
+         */
+        abstract boolean add(RAbstractContainer v, int i);
+
+        abstract boolean contains(RAbstractContainer v, int i);
+
+        static ElementSet create(RAbstractContainer x, int sizeHint) {
+            if (x instanceof RAbstractIntVector) {
+                NonRecursiveHashSetInt set = new NonRecursiveHashSetInt(sizeHint);
+                return new ElementSet() {
+                    @Override
+                    boolean add(RAbstractContainer v, int i) {
+                        return set.add(((RAbstractIntVector) v).getDataAt(i));
+                    }
+
+                    @Override
+                    boolean contains(RAbstractContainer v, int i) {
+                        return set.contains(((RAbstractIntVector) v).getDataAt(i));
+                    }
+                };
+            } else if (x instanceof RAbstractDoubleVector) {
+                NonRecursiveHashSetDouble set = new NonRecursiveHashSetDouble(sizeHint);
+                return new ElementSet() {
+                    @Override
+                    boolean add(RAbstractContainer v, int i) {
+                        return set.add(((RAbstractDoubleVector) v).getDataAt(i));
+                    }
+
+                    @Override
+                    boolean contains(RAbstractContainer v, int i) {
+                        return set.contains(((RAbstractDoubleVector) v).getDataAt(i));
+                    }
+                };
+            } else if (x instanceof RAbstractLogicalVector) {
+                NonRecursiveHashSetInt set = new NonRecursiveHashSetInt(3);
+                return new ElementSet() {
+                    @Override
+                    boolean add(RAbstractContainer v, int i) {
+                        return set.add(((RAbstractLogicalVector) v).getDataAt(i));
+                    }
+
+                    @Override
+                    boolean contains(RAbstractContainer v, int i) {
+                        return set.contains(((RAbstractLogicalVector) v).getDataAt(i));
+                    }
+                };
+            } else if (x instanceof RAbstractStringVector) {
+                NonRecursiveHashSetCharacter set = new NonRecursiveHashSetCharacter(sizeHint);
+                return new ElementSet() {
+                    @Override
+                    boolean add(RAbstractContainer v, int i) {
+                        return set.add(((RAbstractStringVector) v).getDataAt(i));
+                    }
+
+                    @Override
+                    boolean contains(RAbstractContainer v, int i) {
+                        return set.contains(((RAbstractStringVector) v).getDataAt(i));
+                    }
+                };
+            } else if (x instanceof RAbstractComplexVector) {
+                NonRecursiveHashSetComplex set = new NonRecursiveHashSetComplex(sizeHint);
+                return new ElementSet() {
+                    @Override
+                    boolean add(RAbstractContainer v, int i) {
+                        return set.add(((RAbstractComplexVector) v).getDataAt(i));
+                    }
+
+                    @Override
+                    boolean contains(RAbstractContainer v, int i) {
+                        return set.contains(((RAbstractComplexVector) v).getDataAt(i));
+                    }
+                };
+            } else {
+                return createGeneric();
+            }
+        }
+
+        static ElementSet createGeneric() {
+            HashSet<Object> set = new HashSet<>();
+            return new ElementSet() {
+                @Override
+                boolean add(RAbstractContainer v, int i) {
+                    return !set.add(v.getDataAtAsObject(i));
+                }
+
+                @Override
+                boolean contains(RAbstractContainer v, int i) {
+                    return set.contains(v.getDataAtAsObject(i));
+                }
+            };
+        }
+
+        static boolean sameType(RAbstractContainer x, RAbstractContainer y) {
+            return (x instanceof RAbstractIntVector && y instanceof RAbstractIntVector) || (x instanceof RAbstractDoubleVector && y instanceof RAbstractDoubleVector) ||
+                            (x instanceof RAbstractLogicalVector && y instanceof RAbstractLogicalVector) || (x instanceof RAbstractStringVector && y instanceof RAbstractStringVector) ||
+                            (x instanceof RAbstractComplexVector && y instanceof RAbstractComplexVector) || !isAtomic(x);
+        }
+
+        private static boolean isAtomic(RAbstractContainer x) {
+            return x instanceof RAbstractIntVector || x instanceof RAbstractDoubleVector || x instanceof RAbstractLogicalVector || x instanceof RAbstractStringVector ||
+                            x instanceof RAbstractComplexVector;
+        }
+    }
 }
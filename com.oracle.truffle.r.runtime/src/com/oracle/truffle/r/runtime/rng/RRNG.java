@@ -425,7 +425,9 @@ public class RRNG {
                 seeds = new int[]{(int) seedsObj};
             } else if (seedsObj instanceof RIntVector) {
                 RIntVector seedsVec = (RIntVector) seedsObj;
-                seeds = seedsVec.getReadonlyData();
+                // the generator takes over and updates the array, the read-only data of a native
+                // vector may be shared and must not be modified
+                seeds = seedsVec.hasNativeMemoryData() ? seedsVec.getDataCopy() : seedsVec.getReadonlyData();
                 if (seeds == currentGenerator().getSeeds()) {
                     // Optimization: if the array instance has not changed, then the .Random.seed
                     // variable was not changed, nor materialized to a native mirror, we still hold
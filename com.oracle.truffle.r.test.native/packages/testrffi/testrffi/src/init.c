@@ -63,6 +63,9 @@ static const R_CallMethodDef CallEntries[] = {
         CALLDEF(null, 0),
         CALLDEF(iterate_iarray, 1),
         CALLDEF(iterate_iptr, 1),
+        CALLDEF(set_real_elt, 3),
+        CALLDEF(set_integer_elt, 3),
+        CALLDEF(create_sexps, 1),
         CALLDEF(preserve_object, 1),
         CALLDEF(release_object, 1),
         CALLDEF(findvar, 2),
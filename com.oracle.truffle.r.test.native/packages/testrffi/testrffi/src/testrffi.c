@@ -282,6 +282,27 @@ SEXP iterate_iptr(SEXP x) {
     return v;
 }
 
+SEXP set_real_elt(SEXP x, SEXP index, SEXP value) {
+	REAL(x)[asInteger(index)] = asReal(value);
+	return R_NilValue;
+}
+
+SEXP set_integer_elt(SEXP x, SEXP index, SEXP value) {
+	INTEGER(x)[asInteger(index)] = asInteger(value);
+	return R_NilValue;
+}
+
+SEXP create_sexps(SEXP n) {
+	int count = asInteger(n);
+	SEXP result;
+	PROTECT(result = allocVector(VECSXP, count));
+	for (int i = 0; i < count; i++) {
+		SET_VECTOR_ELT(result, i, ScalarInteger(i));
+	}
+	UNPROTECT(1);
+	return result;
+}
+
 SEXP preserve_object(SEXP val) {
 	SEXP v;
 	v = allocVector(INTSXP, 1);
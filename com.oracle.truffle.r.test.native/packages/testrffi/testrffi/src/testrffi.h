@@ -67,6 +67,12 @@ extern SEXP iterate_iarray(SEXP x);
 
 extern SEXP iterate_iptr(SEXP x);
 
+extern SEXP set_real_elt(SEXP x, SEXP index, SEXP value);
+
+extern SEXP set_integer_elt(SEXP x, SEXP index, SEXP value);
+
+extern SEXP create_sexps(SEXP n);
+
 extern SEXP preserve_object(SEXP val);
 
 extern SEXP release_object(SEXP x);
@@ -0,0 +1,37 @@
+/*
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 2 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Copyright (c) 2018, Oracle and/or its affiliates
+ *
+ * All rights reserved.
+ */
+package com.oracle.truffle.r.test.builtins;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestBuiltin_Rprof extends TestBase {
+
+    @Test
+    public void testRprof() {
+        // every sample is a line of quoted function names, the functions running most of the time
+        // must show up in the summary
+        assertEval("{ f <- tempfile(); g <- function(n) { s <- 0; for (i in 1:n) s <- s + sqrt(i); s }; h <- function() for (k in 1:300) g(5000); Rprof(f, interval = 0.005); h(); Rprof(NULL); " +
+                        "lines <- readLines(f); p <- summaryRprof(f); unlink(f); c(grepl('^sample.interval=', lines[[1]]), length(lines) > 1, all(grepl('^(\"[^\"]+\" )+$', lines[-1])), all(c('\"g\"', '\"h\"') %in% rownames(p$by.total))) }");
+        assertEval("{ f <- tempfile(); Rprof(f); Rprof(NULL); lines <- readLines(f); unlink(f); grepl('^sample.interval=', lines) }");
+    }
+}
@@ -104,4 +104,11 @@ public class TestBuiltin_colSums extends TestBase {
         // colSums on array have correct values
         assertEval("{ a = colSums(array(1:24,c(2,3,4))); c(a[1,1],a[2,2],a[3,3],a[3,4]) }");
     }
+
+    @Test
+    public void testColSumsLarge() {
+        // large enough to be reduced in parallel
+        assertEval("{ x <- matrix(as.double(1:1100000), 2200); x[3, 5] <- NA; x[7, 9] <- NaN; r <- colSums(x); c(length(r), sum(is.na(r)), sum(is.nan(r)), sum(r, na.rm=TRUE)) }");
+        assertEval("{ x <- matrix(as.double(1:1100000), 2200); x[3, 5] <- NA; x[7, 9] <- NaN; x[, 11] <- NA; r <- colSums(x, na.rm=TRUE); c(length(r), sum(is.na(r)), sum(r, na.rm=TRUE)) }");
+    }
 }
@@ -93,5 +93,9 @@ public class TestBuiltin_grepl extends TestBase {
         assertEval("{ .Internal(grepl('.+X', 'a\nXb', F, F, F, F, F, F)) }");
         // the dot matches the new line in a Perl regexp
         assertEval("{ .Internal(grepl('.+X', 'a\nXb', F, F, T, F, F, F)) }");
+
+        assertEval("{ grepl('(a)[b]c.d', c('x(a)[b]c.d', '(a)[b]cxd', NA, 'ab(a)[b]c.(a)[b]c.d'), fixed=TRUE) }");
+        assertEval("{ x <- rep(c('a(b)c(d)ef', 'abcdef', NA), 30000); g <- grepl('(b)c(d)e', x, fixed=TRUE); c(length(g), sum(g), sum(is.na(g))) }");
+        assertEval("{ x <- rep(c('prefix.body', 'body.suffix', NA), 30000); c(sum(startsWith(x, 'prefix'), na.rm=TRUE), sum(endsWith(x, 'suffix'), na.rm=TRUE), sum(is.na(endsWith(x, 'suffix')))) }");
     }
 }
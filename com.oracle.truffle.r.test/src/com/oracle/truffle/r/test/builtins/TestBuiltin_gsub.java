@@ -231,6 +231,11 @@ public class TestBuiltin_gsub extends TestBase {
 
         // Test the dollar in the replacement is not treated as a group reference
         assertEval("{ gsub('x', '$', 'x') }");
+        assertEval("{ gsub('x', '$', c('x', 'ax', 'xx')) }");
+        assertEval("{ gsub('x', '$', c('x', 'ax', 'xx'), fixed=TRUE) }");
+        assertEval("{ sub('x', '\\\\\\\\', c('x', 'ax', 'xx'), fixed=TRUE) }");
+        assertEval("{ gsub('(a)(b)', '\\\\2\\\\1', c('ab', 'cab', 'abab')) }");
+        assertEval("{ gsub('a(b)', '<\\\\1>', c('ab', 'cab', 'abab'), perl=TRUE) }");
 
         // Test group reference handling
         assertEval("gsub('_[bB]','\\\\0_m','b_b')");
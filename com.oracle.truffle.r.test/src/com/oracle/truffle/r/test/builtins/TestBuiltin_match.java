@@ -423,6 +423,14 @@ public class TestBuiltin_match extends TestBase {
         testMatchStringSequence("", "");
     }
 
+    @Test
+    public void testMatchRepeatedTable() {
+        assertEval("{ t <- paste0('k', 1:100); f <- function(x) x %in% t; r <- c(f('k5'), f('k5'), f('k5'), f(c('k1', 'z'))); t[5] <- 'z'; c(r, f('k5'), f('z'), match(c('z', 'k6'), t)) }");
+        assertEval("{ t <- as.numeric(1:100); r <- vapply(c(5, 500, 5, NA, 0.5), function(x) match(x, t), 1L); t[5] <- NA; c(r, vapply(c(5, NA), function(x) match(x, t), 1L)) }");
+        assertEval("{ t <- c(1:100, NA); r <- lapply(1:3, function(i) match(c(1L, NA, 200L), t)); t[1] <- 0L; c(unlist(r), match(c(1L, 0L), t)) }");
+        assertEval("{ s <- paste0('k', 1:50); c(is.element('k3', s), is.element('k3', s), is.element('z', s), is.element('k50', s)) }");
+    }
+
     private void testMatchStringSequence(String preffix, String suffix) {
         String x = String.format("c('%1$s-2%2$s', '%1$s-1%2$s', '%1$s0%2$s', '%1$s1%2$s', '%1$s10%2$s', '%1$s11%2$s')", preffix, suffix);
         String table = String.format("paste('%1$s', -1:10, '%2$s', sep='')", preffix, suffix);
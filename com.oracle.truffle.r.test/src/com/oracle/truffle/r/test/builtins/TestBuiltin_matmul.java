@@ -41,4 +41,12 @@ public class TestBuiltin_matmul extends TestBase {
         assertEval("c(NA+2i) %*% c(3,4,5,6)");
         assertEval("c(1+2i) %*% c(3,4,5,6)");
     }
+
+    @Test
+    public void testMatmulLarge() {
+        // large enough to be computed in parallel tiles, sums of integers are exact
+        assertEval("{ a <- matrix(as.double(1:78000), 260); b <- matrix(as.double(300:1), 300); r <- a %*% b; c(dim(r), sum(r), r[1, 1], r[260, 300], r[131, 129]) }");
+        assertEval("{ a <- matrix(as.double(1:78000), 260); a[5, 7] <- NA; a[9, 2] <- NaN; b <- matrix(as.double(1:90000), 300); b[3, 200] <- NA; r <- a %*% b; c(sum(is.na(r)), sum(is.nan(r)), is.na(r[5, 1]), is.nan(r[9, 1]), is.na(r[1, 200])) }");
+        assertEval("{ a <- matrix(as.double(1:78000), 300); r <- crossprod(a); c(dim(r), isSymmetric(r), sum(r), r[1, 260]) }");
+    }
 }
@@ -180,4 +180,22 @@ public class TestBuiltin_order extends TestBase {
         assertEval("order(NULL)");
         assertEval("order(c(NULL, c(1,2,0)))");
     }
+
+    @Test
+    public void testOrderLarge() {
+        String ints = "x <- rep(c(5L, NA, -3L, 2L, 0L), 100); ";
+        String doubles = "d <- rep(c(1.5, NA, -0, NaN, 0, -Inf, 2), length.out=500); ";
+        String strings = "s <- rep(c('b', NA, 'a', 'B', 'ab'), 100); ";
+        assertEval(ints + "order(x)");
+        assertEval(ints + "order(x, decreasing=TRUE, na.last=FALSE)");
+        assertEval(ints + "order(x, na.last=NA, method='shell')");
+        assertEval(doubles + "order(d, decreasing=TRUE)");
+        assertEval(doubles + "order(d, na.last=NA)");
+        assertEval(strings + "order(s, method='shell')");
+        assertEval(strings + "order(s, method='radix', decreasing=TRUE)");
+        assertEval(ints + doubles + strings + "order(x, d, s)");
+        assertEval(ints + doubles + strings + "order(x, s, d, decreasing=TRUE, method='shell')");
+        assertEval(ints + doubles + "order(x, d, decreasing=c(TRUE, FALSE), method='radix')");
+        assertEval(ints + doubles + "order(x, d, na.last=NA, method='radix')");
+    }
 }
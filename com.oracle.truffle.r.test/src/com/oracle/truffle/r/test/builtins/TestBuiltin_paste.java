@@ -121,4 +121,14 @@ public class TestBuiltin_paste extends TestBase {
         // ISOdate utilizes paste
         assertEval("{ ISOdate(2010, 01, 01, 1:10) }");
     }
+
+    @Test
+    public void testPasteNumeric() {
+        assertEval("{ paste0('key', c(-2147483647L, -10L, 0L, NA, 9L, 2147483647L)) }");
+        assertEval("{ paste('x', c(TRUE, NA, FALSE), 1:6, sep = '-') }");
+        assertEval("{ paste0('k', seq_len(12), collapse = '') }");
+        assertEval("{ paste(1:3, c(NA, TRUE), 'z', sep = '/', collapse = ', ') }");
+        assertEval("{ paste(factor(c('b', 'a')), 1:2, collapse = '+') }");
+        assertEval("{ paste(integer(), logical(), collapse = ':') }");
+    }
 }
@@ -134,5 +134,11 @@ public class TestBuiltin_regexpr extends TestBase {
         assertEval("regexpr('\\\\)', 'abc()', fixed = FALSE)");
         assertEval(Output.IgnoreErrorMessage, "regexpr('(', 'abc()', fixed = FALSE)");
         assertEval("regexpr('\\\\(', 'abc()', fixed = FALSE)");
+
+        // long fixed patterns are searched with Boyer-Moore-Horspool
+        assertEval("regexpr('needle in a', c('a needle in a haystack', 'needle in', 'no match', 'needle in a needle in a'), fixed = TRUE)");
+        assertEval("gregexpr('abcabcab', c('abcabcabcabcabcab', 'xabcabcabyabcabcab', ''), fixed = TRUE)");
+        assertEval("regexec('needle in a', c('a needle in a haystack', 'no match'), fixed = TRUE)");
+        assertEval("{ x <- rep(c('a needle in a haystack', 'no match'), 50000); r <- regexpr('needle in a', x, fixed = TRUE); c(length(r), sum(r == 3), sum(r == -1), sum(attr(r, 'match.length'))) }");
     }
 }
@@ -73,4 +73,11 @@ public class TestBuiltin_rowMeans extends TestBase {
         assertEval("{rowMeans(matrix(c(NaN,4+5i,2+0i,5+10i),nrow=2,ncol=2), na.rm = FALSE)}");
         assertEval("{rowMeans(matrix(NA,NA,NA),TRUE)}");
     }
+
+    @Test
+    public void testRowMeansLarge() {
+        // large enough to be reduced in parallel
+        assertEval("{ x <- matrix(as.double(1:1100000), 2200); x[3, 5] <- NA; x[7, 9] <- NaN; r <- rowMeans(x); c(length(r), sum(is.na(r)), sum(is.nan(r)), sum(r, na.rm=TRUE)) }");
+        assertEval("{ x <- matrix(as.double(1:1100000), 2200); x[3, 5] <- NA; x[7, 9] <- NaN; x[, 11] <- NA; r <- rowMeans(x, na.rm=TRUE); c(length(r), sum(is.na(r)), sum(r, na.rm=TRUE)) }");
+    }
 }
@@ -112,4 +112,11 @@ public class TestBuiltin_rowSums extends TestBase {
 
         assertEval("{x<-matrix(c(\"1\",\"2\",\"3\",\"4\"),ncol=2);rowSums(x)}");
     }
+
+    @Test
+    public void testRowSumsLarge() {
+        // large enough to be reduced in parallel
+        assertEval("{ x <- matrix(as.double(1:1100000), 2200); x[3, 5] <- NA; x[7, 9] <- NaN; r <- rowSums(x); c(length(r), sum(is.na(r)), sum(is.nan(r)), sum(r, na.rm=TRUE)) }");
+        assertEval("{ x <- matrix(as.double(1:1100000), 2200); x[3, 5] <- NA; x[7, 9] <- NaN; x[, 11] <- NA; r <- rowSums(x, na.rm=TRUE); c(length(r), sum(is.na(r)), sum(r, na.rm=TRUE)) }");
+    }
 }
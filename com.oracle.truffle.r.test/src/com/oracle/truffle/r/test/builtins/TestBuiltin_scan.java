@@ -97,6 +97,10 @@ public class TestBuiltin_scan extends TestBase {
         assertEval("{ con<-textConnection(c(\"1 2 3\", \"4 5 6\")); .Internal(scan(con, 1L, 2, NULL, '.', '\"', 0, 3, \"NA\", F, F, F, T, T, '', '#', T, 'utf8', F)) }");
         // NULL 5th 'dec' parameter
         assertEval("{ con<-textConnection(c(\"1.5 2.89 3\", \"4 5 6\")); .Internal(scan(con, 1.2, 2, ' ', NULL, '\"', 0, 3, \"NA\", F, F, F, T, T, '', '#', T, 'utf8', F)) }");
+
+        // enough lines to be read and split in blocks
+        assertEval("{ x <- scan(text=paste(1:20000, c('a', '\"b c\"'), sep=','), what=list(0L, ''), sep=',', quiet=TRUE); list(length(x[[1]]), sum(x[[1]]), table(x[[2]])) }");
+        assertEval("{ con <- textConnection(as.character(1:20000)); x <- scan(con, 0L, nmax=5, quiet=TRUE); y <- readLines(con, 2); close(con); list(x, y) }");
     }
 
     @Test
@@ -198,4 +198,13 @@ public class TestBuiltin_sprintf extends TestBase {
         // Note: as.raw may be problematic also in the case of %d, %f, ...
         assertEval(Ignored.Unimplemented, "{ sprintf('%s', as.raw(1)) }");
     }
+
+    @Test
+    public void testVectorized() {
+        assertEval("{ sprintf('%5d|%-5d|%+d|% d|%05d', -3:3, 10L, -1:5, 2L, -12:-6) }");
+        assertEval("{ sprintf('%5s|%-5s|%.2s|%%', c('a', NA, 'hello'), 'b', c('xyz', 'q')) }");
+        assertEval("{ sprintf('%*d', 1:6, c(1L, NA)) }");
+        assertEval("{ sprintf('x%.3fy%sz', c(1.5, NA, -2.25), c('a', 'b', NA)) }");
+        assertEval("{ sprintf(c('%d!', '%3d?'), 1:4) }");
+    }
 }
@@ -112,6 +112,7 @@ public class TestBuiltin_strsplit extends TestBase {
         assertEval("{ strsplit(\"helloh\", \"h\", fixed=TRUE) }");
         assertEval("{ strsplit( c(\"helloh\", \"hi\"), c(\"h\",\"\"), fixed=TRUE) }");
         assertEval("{ strsplit(\"helloh\", \"\", fixed=TRUE) }");
+        assertEval("{ strsplit(c(\"a<sep-sep>b<sep-sep>\", \"<sep-sep><sep-sep>c\"), \"<sep-sep>\", fixed=TRUE) }");
         assertEval("{ strsplit(\"helloh\", \"h\") }");
         assertEval("{ strsplit( c(\"helloh\", \"hi\"), c(\"h\",\"\")) }");
         assertEval("{ strsplit(\"ahoj\", split=\"\") [[c(1,2)]] }");
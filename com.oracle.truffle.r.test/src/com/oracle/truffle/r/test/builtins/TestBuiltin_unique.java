@@ -206,6 +206,10 @@ public class TestBuiltin_unique extends TestBase {
 
         assertEval("unique(c(1, NA, NA))");
         assertEval("unique(c(1+1i, NA, NA))");
+        assertEval("unique(c(NA, NaN, 0, -0, NA_real_, NaN, seq(1, 40)))");
+        assertEval("unique(c(NA, 1L, NA, -2147483647L, seq(1L, 40L)))");
+        assertEval("unique(c(NA, 'NA', 'a', NA, 'NA', paste0('x', 1:40)))");
+        assertEval("unique(c(complex(real=NaN, imaginary=1), complex(real=NaN, imaginary=1), NA, 0+0i, -0-0i, 1:40 + 1i))");
 
     }
 }
@@ -85,6 +85,10 @@ public class TestConnections extends TestRBase {
         assertEval(TestBase.template("{ readLines(file(\"%0\"), 2) }", testDir.subDir("wl1")));
         assertEval(TestBase.template("{ con <- file(\"%0\"); writeLines(c(\"line1\", \"line2\"), con) }", testDir.subDir("wl2")));
         assertEval(TestBase.template("{ con <- file(\"%0\"); readLines(con, 2) }", testDir.subDir("wl2")));
+        // lines spanning refills of the read cache, CRLF line ends and output buffered until close
+        assertEval(TestBase.template("{ x <- c(strrep('a', 20000), 'b', strrep('c', 16383), ''); con <- file('%0', 'w'); writeLines(x, con, sep='\\r\\n'); p <- seek(con); close(con); y <- readLines('%0'); c(p, identical(x, y)) }",
+                        testDir.subDir("wl3")));
+        assertEval(TestBase.template("{ con <- file('%0', 'w'); for (i in 1:5000) writeLines(as.character(i), con); close(con); x <- readLines('%0'); c(length(x), x[5000]) }", testDir.subDir("wl4")));
     }
 
     @Test
@@ -104,6 +108,18 @@ public class TestConnections extends TestRBase {
         assertEval(TestBase.template("{ cat('abc', file = '%0'); readBin(file('%0', 'rb'), character(), 2) }", testDir.subDir("wb3")));
     }
 
+    @Test
+    public void testCompressedWriteRead() {
+        // more data than fits into a single compressed block
+        assertEval(TestBase.template("{ x <- as.double(1:500000); saveRDS(x, '%0'); identical(readRDS('%0'), x) }", testDir.subDir("gz1")));
+        assertEval(TestBase.template("{ x <- as.double(1:500000); saveRDS(x, '%0', compress='xz'); identical(readRDS('%0'), x) }", testDir.subDir("xz1")));
+        // nothing written must still produce a valid compressed file
+        assertEval(TestBase.template("{ con <- gzfile('%0', 'w'); close(con); readLines(gzfile('%0')) }", testDir.subDir("gz2")));
+        assertEval(TestBase.template("{ con <- xzfile('%0', 'w'); close(con); readLines(xzfile('%0')) }", testDir.subDir("xz2")));
+        // flushed data can be read before the connection is closed
+        assertEvalFastR("{ f <- tempfile(); con <- gzfile(f, 'w'); writeLines(c('a', 'b'), con); flush(con); r <- readLines(gzfile(f)); writeLines('c', con); close(con); unlink(f); r }", "c('a', 'b')");
+    }
+
     @Test
     public void testWriteTextReadConnection() {
         assertEval(Output.IgnoreErrorContext, "{ writeChar(\"x\", textConnection(\"abc\")) }");
@@ -273,6 +289,17 @@ public class TestConnections extends TestRBase {
     @Test
     public void testSeek() {
         assertEval("f1 <- file(open='w+b', encoding='UTF-8'); writeBin(charToRaw(\"abcd\"), f1); seek(f1); seek(f1,0); seek(f1)");
+        // writing after a seek on a connection with a write cache
+        assertEval(TestBase.template("{ con <- file('%0', 'w'); writeLines(c('abc', 'def'), con); seek(con, 0); writeLines('XY', con); close(con); readLines('%0') }", testDir.subDir("seek1")));
+        assertEval(TestBase.template("{ con <- file('%0', 'wb'); writeBin(1:4, con); seek(con, 4); writeBin(10L, con); close(con); readBin('%0', 'int', 10) }", testDir.subDir("seek2")));
+    }
+
+    @Test
+    public void testMappedFile() {
+        assertEvalFastR(TestBase.template("{ writeBin(c(1.5, NA, 3), '%0'); con <- file('%0', 'rb', mmap=TRUE); x <- readBin(con, 'double', 2); seek(con, 8); y <- readBin(con, 'double', 5); p <- seek(con); close(con); list(x, y, p) }",
+                        testDir.subDir("mm1")), "list(c(1.5, NA), c(NA, 3), 24)");
+        assertEvalFastR(TestBase.template("{ writeBin(1:10, '%0'); con <- file('%0', 'rb', mmap=TRUE); x <- readBin(con, 'int', 3); seek(con, 36); y <- readBin(con, 'int', 3); seek(con, 4); z <- readBin(con, 'raw', 4); close(con); list(x, y, z) }",
+                        testDir.subDir("mm2")), "list(1:3, 10L, as.raw(c(2, 0, 0, 0)))");
     }
 
     private static final String[] LVAL = arr("T", "F");
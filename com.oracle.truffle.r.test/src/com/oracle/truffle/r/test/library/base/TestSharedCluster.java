@@ -41,4 +41,26 @@ public class TestSharedCluster extends TestBase {
                         "library(parallel); fun <- function(data) { cl <- makeCluster(%0, ifelse(exists('engine', where=R.version),'SHARED','PSOCK')); parLapply(cl, data, function(x) x+1); stopCluster(cl) }; fun(1:100)",
                         "123456789".split("")));
     }
+
+    @Test
+    public void testMclapplyPreschedule() {
+        // results must keep the order of X regardless of which worker computed which chunk
+        assertEval(TestBase.template("library(parallel); unlist(mclapply(1:37, function(x) { if (x %% 7 == 0) Sys.sleep(0.05); x * x }, mc.cores = %0))", new String[]{"2", "3", "4"}));
+        assertEval("library(parallel); str(mclapply(list(a=1, b=NULL, c='x'), function(x) x, mc.cores = 2))");
+        assertEval("library(parallel); str(mclapply(list(a=1, b=NULL, c='x'), function(x) x, mc.cores = 2, mc.preschedule = FALSE))");
+        assertEval("library(parallel); names(mclapply(setNames(1:10, letters[1:10]), function(x) x, mc.cores = 3))");
+        // with mc.set.seed the results only depend on the seed, not on which worker was faster
+        assertEval("library(parallel); RNGkind(\"L'Ecuyer-CMRG\"); f <- function() { set.seed(42); unlist(mclapply(1:20, function(x) { if (x %% 5 == 0) Sys.sleep(0.05); runif(1) }, mc.cores = 3)) }; identical(f(), f())");
+        // each element has its own stream, so in FastR the results do not even depend on the number of workers
+        assertEvalFastR("library(parallel); RNGkind(\"L'Ecuyer-CMRG\"); f <- function(cores) { set.seed(7); unlist(mclapply(1:20, function(x) runif(1), mc.cores = cores)) }; identical(f(2), f(3))", "TRUE");
+    }
+
+    @Test
+    public void testSharedClusterReuse() {
+        // the second cluster gets the nodes of the first one from the pool, with a clean global env
+        assertEval("library(parallel); type <- ifelse(exists('engine', where=R.version),'SHARED','PSOCK'); cl <- makeCluster(2, type); invisible(clusterEvalQ(cl, leaked <- 42)); stopCluster(cl); cl <- makeCluster(3, type); res <- clusterEvalQ(cl, exists('leaked')); stopCluster(cl); res");
+        // options, attached packages and the RNG state of the previous job do not carry over either
+        assertEval("library(parallel); type <- ifelse(exists('engine', where=R.version),'SHARED','PSOCK'); cl <- makeCluster(2, type); invisible(clusterEvalQ(cl, { options(digits = 3, my.option = 'x'); library(tools); RNGkind('Marsaglia-Multicarry'); set.seed(1) })); stopCluster(cl); cl <- makeCluster(2, type); res <- clusterEvalQ(cl, list(getOption('digits'), getOption('my.option'), 'package:tools' %in% search(), RNGkind()[[1]], exists('.Random.seed', envir = .GlobalEnv))); stopCluster(cl); res");
+        assertEval("library(parallel); type <- ifelse(exists('engine', where=R.version),'SHARED','PSOCK'); for (i in 1:3) { cl <- makeCluster(2, type); print(unlist(parLapply(cl, 1:4, function(x) x * i))); stopCluster(cl) }");
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.FastROptions;
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestCacheStats extends TestBase {
+
+    private static final String MAKE_DB = "mkdb <- function(f, value) { e <- new.env(); e$x <- value; tools:::makeLazyLoadDB(e, f) }; " +
+                    "fetch <- function(f) { e <- new.env(); lazyLoad(f, envir = e); e$x }; ";
+
+    @Test
+    public void testLazyDB() {
+        // the second fetch of an unchanged database must see the same value, the fetch after the
+        // database was rewritten must not see stale data
+        assertEval("{ " + MAKE_DB + "f <- tempfile(); mkdb(f, 1:3); r1 <- fetch(f); r2 <- fetch(f); mkdb(f, c('a', 'b', 'c', 'd')); r3 <- fetch(f); unlink(paste0(f, c('.rdb', '.rdx'))); list(r1, r2, r3) }");
+        assertEvalFastR("names(.fastr.lazydb.stats())", "c('hits', 'misses', 'entries', 'bytes', 'mapped')");
+        assertEvalFastR("{ " + MAKE_DB + "f <- tempfile(); mkdb(f, 1:3); fetch(f); s1 <- .fastr.lazydb.stats(); fetch(f); s2 <- .fastr.lazydb.stats(); unlink(paste0(f, c('.rdb', '.rdx'))); " +
+                        "s2[['hits']] - s1[['hits']] >= 1 }", "TRUE");
+    }
+
+    @Test
+    public void testRegexStats() {
+        assertEvalFastR("names(.fastr.regex.stats())", "c('hits', 'misses', 'evictions', 'entries', 'capacity')");
+        // the pattern is compiled once per call, not once per element
+        assertEvalFastR("{ x <- paste0('a', 1:100); s1 <- .fastr.regex.stats(); grepl('^a[0-9]+$', x); regexpr('[0-9]+', x); gregexpr('[0-9]', x); regexec('a([0-9]+)', x); s2 <- .fastr.regex.stats(); " +
+                        "(s2[['hits']] + s2[['misses']]) - (s1[['hits']] + s1[['misses']]) <= 4 }", "TRUE");
+        assertEvalFastR("{ s1 <- .fastr.regex.stats(); grepl('re[gx]+', c('regex', 'rex')); grepl('re[gx]+', 'regexp'); s2 <- .fastr.regex.stats(); s2[['hits']] - s1[['hits']] >= 1 }", "TRUE");
+    }
+
+    @Test
+    public void testRegexCacheEviction() {
+        // the cache of a new context is created with the current RegexCacheSize
+        Object origValue = FastROptions.RegexCacheSize.getValue();
+        FastROptions.setValue(FastROptions.RegexCacheSize.name(), 2);
+        try {
+            assertEvalFastR(".fastr.context.eval(\"{ e0 <- .fastr.regex.stats()[['evictions']]; for (p in c('q1', 'q2', 'q3', 'q1')) grepl(p, 'q1'); s <- .fastr.regex.stats(); " +
+                            "c(s[['capacity']] == 2, s[['entries']] <= 2, s[['evictions']] - e0 >= 2, grepl('q[1-3]', 'q2')) }\")[[1]][[1]]", "c(TRUE, TRUE, TRUE, TRUE)");
+        } finally {
+            FastROptions.setValue(FastROptions.RegexCacheSize.name(), origValue);
+        }
+    }
+
+    @Test
+    public void testNativeMirrorStats() {
+        assertEvalFastR("names(.fastr.native.mirror.stats())", "c('created', 'released', 'live', 'slots', 'addressed')");
+        assertEvalFastR("{ s <- .fastr.native.mirror.stats(TRUE); list(colnames(s), is.character(rownames(s)), all(s >= 0)) }", "list(c('calls', 'mirrors'), TRUE, TRUE)");
+        assertEvalFastR("{ s <- .fastr.native.mirror.stats(); s[['live']] <= s[['created']] }", "TRUE");
+        assertEvalFastR("inherits(tryCatch(.fastr.native.mirror.stats(NA), error = function(e) e), 'error')", "TRUE");
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastrGrid;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+/**
+ * Tests the streaming mode of the SVG device, in which the document is written to the file in
+ * chunks while it is being drawn.
+ */
+// Checkstyle: stop line length check
+public class TestSVGDevice extends TestBase {
+
+    /**
+     * Draws two pages of more than the 64K the device buffers, only the second page stays in the
+     * file and it must be a complete document.
+     */
+    private static final String DRAW = "library(grid); svg(f); for (page in 1:2) { grid.newpage(); grid.polyline(x = (1:5000) / 5000, y = rep(c(0.1, 0.9), 2500)); for (i in 1:50) grid.rect(width = i / 100) }; invisible(dev.off()); ";
+    private static final String CHECK = "doc <- paste(lines, collapse = '\\n'); c(startsWith(lines[[1]], '<?xml'), sum(grepl('<svg ', lines, fixed = TRUE)) == 1, sum(grepl('</svg>', lines, fixed = TRUE)) == 1, endsWith(trimws(doc), '</svg>'), nchar(doc) > 65536)";
+
+    @Test
+    public void testStreaming() {
+        assertEvalFastR("{ f <- tempfile(fileext = '.svgz'); " + DRAW + "con <- gzfile(f); lines <- readLines(con); close(con); unlink(f); " + CHECK + " }", "rep(TRUE, 5)");
+        assertEvalFastR("{ f <- tempfile(fileext = '.svg'); old <- options(fastr.svg.streaming = TRUE); " + DRAW + "options(old); lines <- readLines(f); unlink(f); " + CHECK + " }", "rep(TRUE, 5)");
+        // an option value other than TRUE does not enable streaming and must not break the device
+        for (String value : new String[]{"logical(0)", "NA", "'yes'", "c(FALSE, TRUE)"}) {
+            assertEvalFastR("{ f <- tempfile(fileext = '.svg'); old <- options(fastr.svg.streaming = " + value + "); " + DRAW + "options(old); lines <- readLines(f); unlink(f); " + CHECK + " }",
+                            "rep(TRUE, 5)");
+        }
+    }
+}
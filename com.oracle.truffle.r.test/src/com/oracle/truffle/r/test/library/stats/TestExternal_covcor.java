@@ -51,4 +51,11 @@ public class TestExternal_covcor extends TestBase {
         assertEval(template("cov(mtcars[,1:4], use='%0', method='%1')", useCov, methods));
         assertEval(template("cov(1:4, c(1,7,1,-4), use='%0', method='%1')", useCov, methods));
     }
+
+    @Test
+    public void testLarge() {
+        // enough columns for the pairs to be processed in parallel tiles
+        assertEval(template("{ set.seed(42); x <- matrix(round(runif(40000) * 100), 200); x[3, 7] <- NA; r <- cor(x, use='%0'); c(dim(r), sum(is.na(r)), round(sum(r, na.rm=TRUE), 6), isSymmetric(r)) }", useCor));
+        assertEval("{ set.seed(42); x <- matrix(round(runif(40000) * 100), 200); r <- cov(x); c(round(sum(r), 4), round(r[3, 150], 6), round(r[200, 1], 6)) }");
+    }
 }
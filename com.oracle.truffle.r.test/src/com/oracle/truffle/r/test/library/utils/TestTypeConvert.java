@@ -92,5 +92,6 @@ public class TestTypeConvert extends TestBase {
         assertEval(".External2(utils:::C_typeconvert, list('1'), list(1), FALSE, '.', 'allow.loss')");
         assertEval(".External2(utils:::C_typeconvert, environment(), 'NA', FALSE, '.', 'allow.loss')");
         assertEval(".External2(utils:::C_typeconvert, c('1'), environment(), FALSE, '.', 'allow.loss')");
+        assertEval("{ x <- type.convert(c('b', 'a', NA, 'c', 'a', 'NA', 'b'), as.is=FALSE); list(levels(x), as.integer(x)) }");
     }
 }
@@ -27,8 +27,12 @@ import java.util.Arrays;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RSerialize;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RRawVector;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.test.TestBase;
 
@@ -112,4 +116,55 @@ public class TestRSerialize extends TestBase {
         Assert.assertEquals("abc", ((RStringVector) unserialized).getDataAt(2));
         Assert.assertEquals(longString, ((RStringVector) unserialized).getDataAt(3));
     }
+
+    // Bulk vector transfer tests (vectors larger than the serialization buffers)
+
+    @Test
+    public void testLongIntVector() {
+        int[] data = new int[100003];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i * 31 - 7;
+        }
+        data[40000] = RRuntime.INT_NA;
+        byte[] serialized = RSerialize.serialize(RDataFactory.createIntVector(data, false), RSerialize.XDR, RSerialize.DEFAULT_VERSION, null);
+        Object unserialized = RSerialize.unserialize(RDataFactory.createRawVector(serialized));
+
+        Assert.assertTrue(unserialized instanceof RIntVector);
+        Assert.assertArrayEquals(data, ((RIntVector) unserialized).getReadonlyData());
+        Assert.assertFalse(((RIntVector) unserialized).isComplete());
+    }
+
+    @Test
+    public void testLongDoubleVector() {
+        double[] data = new double[100003];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i / 3.0;
+        }
+        data[5] = RRuntime.DOUBLE_NA;
+        data[6] = Double.NaN;
+        byte[] serialized = RSerialize.serialize(RDataFactory.createDoubleVector(data, false), RSerialize.XDR, RSerialize.DEFAULT_VERSION, null);
+        Object unserialized = RSerialize.unserialize(RDataFactory.createRawVector(serialized));
+
+        Assert.assertTrue(unserialized instanceof RDoubleVector);
+        double[] result = ((RDoubleVector) unserialized).getReadonlyData();
+        Assert.assertEquals(data.length, result.length);
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(Double.doubleToRawLongBits(data[i]), Double.doubleToRawLongBits(result[i]));
+        }
+        Assert.assertTrue(RRuntime.isNA(result[5]));
+        Assert.assertFalse(RRuntime.isNA(result[6]));
+    }
+
+    @Test
+    public void testLongRawVector() {
+        byte[] data = new byte[100003];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        byte[] serialized = RSerialize.serialize(RDataFactory.createRawVector(data), RSerialize.XDR, RSerialize.DEFAULT_VERSION, null);
+        Object unserialized = RSerialize.unserialize(RDataFactory.createRawVector(serialized));
+
+        Assert.assertTrue(unserialized instanceof RRawVector);
+        Assert.assertArrayEquals(data, ((RRawVector) unserialized).getReadonlyData());
+    }
 }